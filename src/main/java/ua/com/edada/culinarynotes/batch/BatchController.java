@@ -0,0 +1,39 @@
+package ua.com.edada.culinarynotes.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ua.com.edada.culinarynotes.batch.dto.BatchOperation;
+import ua.com.edada.culinarynotes.batch.dto.BatchOperationResult;
+import ua.com.edada.culinarynotes.batch.dto.BatchResponse;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchController {
+
+    private final BatchService batchService;
+
+    /**
+     * Runs up to {@link BatchService#MAX_OPERATIONS} operations in one transaction. Responds with
+     * 200 and the per-operation results when all of them succeeded, or with the status of the
+     * first failed operation when the batch was rolled back.
+     */
+    @PostMapping
+    public ResponseEntity<BatchResponse> execute(@RequestBody List<BatchOperation> operations) {
+        log.info("REST request to run a batch of {} operations", operations.size());
+        BatchResponse response = batchService.execute(operations);
+        if (response.committed()) {
+            return ResponseEntity.ok(response);
+        }
+        BatchOperationResult failed = response.results().get(response.results().size() - 1);
+        return ResponseEntity.status(failed.status()).body(response);
+    }
+}
@@ -0,0 +1,294 @@
+package ua.com.edada.culinarynotes.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.edada.culinarynotes.batch.dto.BatchOperation;
+import ua.com.edada.culinarynotes.batch.dto.BatchOperationResult;
+import ua.com.edada.culinarynotes.batch.dto.BatchResponse;
+import ua.com.edada.culinarynotes.category.Category;
+import ua.com.edada.culinarynotes.category.CategoryService;
+import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientService;
+import ua.com.edada.culinarynotes.recipe.Recipe;
+import ua.com.edada.culinarynotes.recipe.RecipeService;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeCreateRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeUpdateRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs an ordered list of create, update and delete operations on recipes, categories and
+ * ingredients as one unit.
+ * <p>
+ * Every operation goes through the same service method as its single-resource endpoint, all of
+ * them joining one transaction, so the whole batch costs one commit and its inserts and updates
+ * reach the database in JDBC batches at flush time. The first failing operation marks the
+ * transaction rollback-only and ends the batch. The batch is flushed before it commits, so a
+ * failing batched statement is reported as a result too instead of escaping from the commit.
+ */
+@Service
+@Slf4j
+public class BatchService {
+
+    static final int MAX_OPERATIONS = 1000;
+
+    /**
+     * Index of the result reporting a failure of the batched statements, which cannot be told
+     * apart per operation.
+     */
+    static final int FLUSH_INDEX = -1;
+
+    private static final String REFERENCE_PREFIX = "$";
+
+    private final RecipeService recipeService;
+    private final CategoryService categoryService;
+    private final IngredientService ingredientService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchService(RecipeService recipeService, CategoryService categoryService,
+                        IngredientService ingredientService, ObjectMapper objectMapper, Validator validator,
+                        PlatformTransactionManager transactionManager) {
+        this.recipeService = recipeService;
+        this.categoryService = categoryService;
+        this.ingredientService = ingredientService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs the operations in order within one transaction, all or none of them.
+     *
+     * @param operations at most {@link #MAX_OPERATIONS} operations
+     * @return per-operation results, and whether the batch was committed
+     */
+    public BatchResponse execute(List<BatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation is required");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_OPERATIONS + " operations can be run at once");
+        }
+        log.debug("Running a batch of {} operations", operations.size());
+
+        return transactionTemplate.execute(status -> {
+            Map<String, Long> idsByRef = new HashMap<>();
+            List<BatchOperationResult> results = new ArrayList<>(operations.size());
+            for (int index = 0; index < operations.size(); index++) {
+                BatchOperation operation = operations.get(index);
+                String ref = operation != null ? operation.ref() : null;
+                BatchOperationResult failure;
+                try {
+                    BatchOperationResult result = apply(index, operation, idsByRef);
+                    if (ref != null) {
+                        idsByRef.put(ref, result.id());
+                    }
+                    results.add(result);
+                    continue;
+                } catch (OperationFailedException ex) {
+                    failure = failed(index, ref, ex.status, ex.getMessage());
+                } catch (ResourceNotFoundException ex) {
+                    failure = failed(index, ref, HttpStatus.NOT_FOUND, ex.getMessage());
+                } catch (IllegalArgumentException ex) {
+                    failure = failed(index, ref, HttpStatus.BAD_REQUEST, ex.getMessage());
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+                    failure = failed(index, ref, HttpStatus.CONFLICT, ex.getMessage());
+                }
+                log.debug("Rolling back batch at operation {}: {}", index, failure.error());
+                // Nothing runs after a failure, so a statement error cannot spill into later operations
+                status.setRollbackOnly();
+                results.add(failure);
+                return new BatchResponse(false, results);
+            }
+            try {
+                status.flush();
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+                log.debug("Rolling back batch after flush failure: {}", ex.getMessage());
+                status.setRollbackOnly();
+                results.add(failed(FLUSH_INDEX, null, HttpStatus.CONFLICT, ex.getMessage()));
+                return new BatchResponse(false, results);
+            }
+            return new BatchResponse(true, results);
+        });
+    }
+
+    private BatchOperationResult apply(int index, BatchOperation operation, Map<String, Long> idsByRef) {
+        if (operation == null || operation.resource() == null || operation.action() == null) {
+            throw new OperationFailedException(HttpStatus.BAD_REQUEST, "Operation resource and action are required");
+        }
+        if (operation.ref() != null && idsByRef.containsKey(operation.ref())) {
+            throw new OperationFailedException(HttpStatus.BAD_REQUEST,
+                    "Reference " + operation.ref() + " is already used by an earlier operation");
+        }
+
+        return switch (operation.action()) {
+            case CREATE -> new BatchOperationResult(index, operation.ref(), HttpStatus.CREATED.value(),
+                    create(operation.resource(), resolveReferences(operation.body(), idsByRef)), null);
+            case UPDATE -> new BatchOperationResult(index, operation.ref(), HttpStatus.OK.value(),
+                    update(operation.resource(), resolveId(operation.id(), idsByRef),
+                            resolveReferences(operation.body(), idsByRef)), null);
+            case DELETE -> new BatchOperationResult(index, operation.ref(), HttpStatus.NO_CONTENT.value(),
+                    delete(operation.resource(), resolveId(operation.id(), idsByRef)), null);
+        };
+    }
+
+    private Long create(BatchOperation.Resource resource, JsonNode body) {
+        return switch (resource) {
+            case RECIPE -> {
+                RecipeCreateRequest request = read(body, RecipeCreateRequest.class);
+                Recipe recipe = Recipe.builder()
+                        .title(request.title())
+                        .description(request.description())
+                        .instructions(request.instructions())
+                        .preparationTimeMinutes(request.preparationTimeMinutes())
+                        .cookingTimeMinutes(request.cookingTimeMinutes())
+                        .servings(request.servings())
+                        .build();
+                yield recipeService.saveRecipe(recipe, request.ingredients()).getId();
+            }
+            case CATEGORY -> categoryService.createCategory(read(body, Category.class)).getId();
+            case INGREDIENT -> ingredientService.createIngredient(read(body, Ingredient.class)).getId();
+        };
+    }
+
+    private Long update(BatchOperation.Resource resource, Long id, JsonNode body) {
+        return switch (resource) {
+            case RECIPE -> recipeService.patchRecipe(id, read(body, RecipeUpdateRequest.class))
+                    .orElseThrow(() -> new ResourceNotFoundException("Recipe", "id", id))
+                    .getId();
+            case CATEGORY -> categoryService.updateCategory(id, read(body, Category.class)).getId();
+            case INGREDIENT -> ingredientService.updateIngredient(id, read(body, Ingredient.class)).getId();
+        };
+    }
+
+    private Long delete(BatchOperation.Resource resource, Long id) {
+        switch (resource) {
+            case RECIPE -> {
+                if (!recipeService.deleteRecipe(id)) {
+                    throw new ResourceNotFoundException("Recipe", "id", id);
+                }
+            }
+            case CATEGORY -> categoryService.deleteCategory(id);
+            case INGREDIENT -> ingredientService.deleteIngredient(id);
+        }
+        return id;
+    }
+
+    /**
+     * Converts an operation body like the single-resource endpoint would, applying its bean
+     * validation constraints.
+     */
+    private <T> T read(JsonNode body, Class<T> type) {
+        if (body == null || !body.isObject()) {
+            throw new OperationFailedException(HttpStatus.BAD_REQUEST, "Operation body must be an object");
+        }
+        T value;
+        try {
+            value = objectMapper.treeToValue(body, type);
+        } catch (JsonProcessingException ex) {
+            throw new OperationFailedException(HttpStatus.BAD_REQUEST, "Invalid operation body: " + ex.getOriginalMessage());
+        }
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<T> violation : validator.validate(value)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            throw new OperationFailedException(HttpStatus.BAD_REQUEST, errors.entrySet().stream()
+                    .map(error -> error.getKey() + ": " + error.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        return value;
+    }
+
+    private static Long resolveId(JsonNode id, Map<String, Long> idsByRef) {
+        if (id != null && id.isIntegralNumber() && id.canConvertToLong()) {
+            return id.longValue();
+        }
+        if (id != null && id.isTextual() && id.textValue().startsWith(REFERENCE_PREFIX)) {
+            return resolveReference(id.textValue(), idsByRef);
+        }
+        throw new OperationFailedException(HttpStatus.BAD_REQUEST, "Operation id must be a number or a $reference");
+    }
+
+    /**
+     * Returns a copy of {@code body} with every {@code "$name"} reference in an {@code id} or
+     * {@code ...Id} field replaced by the id it stands for.
+     */
+    private static JsonNode resolveReferences(JsonNode body, Map<String, Long> idsByRef) {
+        if (body == null) {
+            return null;
+        }
+        JsonNode resolved = body.deepCopy();
+        resolveReferencesInPlace(resolved, idsByRef);
+        return resolved;
+    }
+
+    private static void resolveReferencesInPlace(JsonNode node, Map<String, Long> idsByRef) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (isIdField(field.getKey()) && value.isTextual() && value.textValue().startsWith(REFERENCE_PREFIX)) {
+                    field.setValue(LongNode.valueOf(resolveReference(value.textValue(), idsByRef)));
+                } else {
+                    resolveReferencesInPlace(value, idsByRef);
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(element -> resolveReferencesInPlace(element, idsByRef));
+        }
+    }
+
+    private static boolean isIdField(String name) {
+        return name.equals("id") || name.endsWith("Id");
+    }
+
+    private static Long resolveReference(String reference, Map<String, Long> idsByRef) {
+        Long id = idsByRef.get(reference.substring(REFERENCE_PREFIX.length()));
+        if (id == null) {
+            throw new OperationFailedException(HttpStatus.BAD_REQUEST,
+                    "Reference " + reference + " does not name an earlier operation");
+        }
+        return id;
+    }
+
+    private static BatchOperationResult failed(int index, String ref, HttpStatus status, String error) {
+        return new BatchOperationResult(index, ref, status.value(), null,
+                error != null ? error : status.getReasonPhrase());
+    }
+
+    /**
+     * Failure of one operation, answered with {@code status} in its result.
+     */
+    private static final class OperationFailedException extends RuntimeException {
+
+        private final HttpStatus status;
+
+        OperationFailedException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
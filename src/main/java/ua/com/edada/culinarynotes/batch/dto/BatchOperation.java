@@ -0,0 +1,39 @@
+package ua.com.edada.culinarynotes.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One operation of a batch request, e.g.
+ * {@code {"ref": "flour", "resource": "ingredient", "action": "create", "body": {"name": "Flour", "unit": "g"}}}.
+ * <p>
+ * The {@code id} of an operation, and any {@code id} or {@code ...Id} field of its body, may be
+ * {@code "$name"} instead of a number to stand for the id of the earlier operation with
+ * {@code ref} {@code name}.
+ *
+ * @param ref      name later operations can refer to the id of this one by, optional
+ * @param resource the kind of resource to change
+ * @param action   what to do with it
+ * @param id       id of the resource to update or delete, a number or a {@code "$name"} reference
+ * @param body     the request body the single-resource endpoint would take, for creates and updates
+ */
+public record BatchOperation(
+    String ref,
+    Resource resource,
+    Action action,
+    JsonNode id,
+    JsonNode body
+) {
+
+    public enum Resource {
+        @JsonProperty("recipe") RECIPE,
+        @JsonProperty("category") CATEGORY,
+        @JsonProperty("ingredient") INGREDIENT
+    }
+
+    public enum Action {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+}
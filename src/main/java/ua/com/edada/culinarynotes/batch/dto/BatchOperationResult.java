@@ -0,0 +1,19 @@
+package ua.com.edada.culinarynotes.batch.dto;
+
+/**
+ * Outcome of one operation of a batch request.
+ *
+ * @param index  position of the operation in the request, or -1 when the batch failed as its
+ *               statements were flushed
+ * @param ref    the operation's reference name, if it had one
+ * @param status HTTP status the operation would have been answered with on its own
+ * @param id     id of the created, updated or deleted resource; {@code null} if the operation failed
+ * @param error  why the operation failed, {@code null} if it succeeded
+ */
+public record BatchOperationResult(
+    int index,
+    String ref,
+    int status,
+    Long id,
+    String error
+) {}
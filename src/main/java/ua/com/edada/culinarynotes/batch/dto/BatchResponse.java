@@ -0,0 +1,17 @@
+package ua.com.edada.culinarynotes.batch.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch request. A batch is applied completely or not at all: the first failing
+ * operation rolls back every earlier one and the operations after it are not run.
+ *
+ * @param committed whether the batch was applied
+ * @param results   one result per operation run, in request order; when the batch was rolled
+ *                  back, the last one is the failed operation, or the flush of the batch's
+ *                  statements with index -1
+ */
+public record BatchResponse(
+    boolean committed,
+    List<BatchOperationResult> results
+) {}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,12 +14,23 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
 
+    /**
+     * Second-level cache region of categories by id.
+     */
+    public static final String CACHE_REGION = "categories";
+
+    /**
+     * Query cache region of the lookups by name. Any write to the categories table invalidates it.
+     */
+    public static final String QUERY_CACHE_REGION = "categories-by-name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
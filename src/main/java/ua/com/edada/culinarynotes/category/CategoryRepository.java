@@ -1,6 +1,9 @@
 package ua.com.edada.culinarynotes.category;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -8,7 +11,18 @@ import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Category.QUERY_CACHE_REGION)
+    })
     Optional<Category> findByName(String name);
+
     List<Category> findByNameContainingIgnoreCase(String name);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Category.QUERY_CACHE_REGION)
+    })
     boolean existsByName(String name);
-}
\ No newline at end of file
+}
@@ -0,0 +1,287 @@
+package ua.com.edada.culinarynotes.common.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Typo-tolerant word index: finds documents whose words are within a small edit distance of
+ * every query word.
+ * <p>
+ * Candidates are found through a trigram index over the distinct words of all documents and
+ * only words sharing enough trigrams with a query word are compared with a bounded Levenshtein
+ * distance, so a lookup never scans the whole vocabulary. The allowed distance grows with the
+ * word length: none up to two characters, one up to five and two beyond that.
+ * <p>
+ * Lookups stop at a deadline and return the best matches found so far. Not thread-safe; callers
+ * guard access with their own lock.
+ */
+public final class FuzzyIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String GRAM_PADDING = " ".repeat(GRAM_LENGTH - 1);
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private final Map<String, Term> terms = new HashMap<>();
+    private final Map<String, Set<Term>> termsByGram = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private static final class Term {
+        final String text;
+        final Set<Long> documentIds = new HashSet<>();
+
+        Term(String text) {
+            this.text = text;
+        }
+    }
+
+    private record Document(String text, Set<String> words) {}
+
+    /**
+     * A matching document.
+     *
+     * @param id       the document id
+     * @param text     the indexed text of the document
+     * @param distance sum of the edit distances of the query words to their closest document words
+     */
+    public record Match(long id, String text, int distance) {}
+
+    /**
+     * Matches of a lookup.
+     *
+     * @param matches  matches ordered by ascending distance
+     * @param complete {@code false} when the lookup ran out of time and may have missed matches
+     */
+    public record Result(List<Match> matches, boolean complete) {}
+
+    /**
+     * Adds a document, replacing any previous version with the same id.
+     */
+    public void put(long id, String text) {
+        remove(id);
+        Set<String> words = new LinkedHashSet<>(TextTokenizer.tokenize(text));
+        documents.put(id, new Document(text, words));
+        for (String word : words) {
+            terms.computeIfAbsent(word, this::addTerm).documentIds.add(id);
+        }
+    }
+
+    public void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String word : document.words()) {
+            Term term = terms.get(word);
+            term.documentIds.remove(id);
+            if (term.documentIds.isEmpty()) {
+                removeTerm(term);
+            }
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Finds the documents matching every word of {@code query}, closest first and by ascending id
+     * among equally close ones.
+     *
+     * @see #search(String, int, Duration, LongToIntFunction)
+     */
+    public Result search(String query, int limit, Duration budget) {
+        return search(query, limit, budget, id -> 0);
+    }
+
+    /**
+     * Finds the documents matching every word of {@code query}.
+     *
+     * @param query    the query text
+     * @param limit    maximum number of matches
+     * @param budget   time after which the lookup stops and returns what it has found
+     * @param priority ranks equally close documents, higher first
+     * @return matches ordered by ascending distance, then descending priority, then ascending id
+     */
+    public Result search(String query, int limit, Duration budget, LongToIntFunction priority) {
+        List<String> words = List.copyOf(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return new Result(List.of(), true);
+        }
+        Deadline deadline = new Deadline(System.nanoTime() + budget.toNanos());
+
+        // Document id -> summed distance over the query words processed so far
+        Map<Long, Integer> distances = null;
+        for (String word : words) {
+            Map<Long, Integer> previous = distances;
+            Map<Long, Integer> wordDistances = matchWord(word, previous, deadline);
+            if (previous != null) {
+                wordDistances.replaceAll((id, distance) -> distance + previous.get(id));
+            }
+            distances = wordDistances;
+            if (distances.isEmpty() || deadline.passed) {
+                break;
+            }
+        }
+        return new Result(topMatches(distances, limit, priority), !deadline.passed);
+    }
+
+    /**
+     * Edit distance between two strings, or {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int boundedDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    static int maxEdits(int wordLength) {
+        if (wordLength <= 2) {
+            return 0;
+        }
+        return wordLength <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Distance of the closest word of each matching document to {@code word}, restricted to
+     * {@code restrictTo} when earlier query words have already narrowed the documents down.
+     */
+    private Map<Long, Integer> matchWord(String word, Map<Long, Integer> restrictTo, Deadline deadline) {
+        int maxEdits = maxEdits(word.length());
+        Set<String> grams = grams(word);
+
+        // A word within k edits keeps all but at most k * GRAM_LENGTH of the query word's trigrams
+        Map<Term, Integer> sharedGrams = new HashMap<>();
+        for (String gram : grams) {
+            for (Term term : termsByGram.getOrDefault(gram, Set.of())) {
+                if (Math.abs(term.text.length() - word.length()) <= maxEdits) {
+                    sharedGrams.merge(term, 1, Integer::sum);
+                }
+            }
+            if (deadline.check()) {
+                return new HashMap<>();
+            }
+        }
+        int requiredGrams = Math.max(1, grams.size() - GRAM_LENGTH * maxEdits);
+
+        Map<Long, Integer> distances = new HashMap<>();
+        for (Map.Entry<Term, Integer> candidate : sharedGrams.entrySet()) {
+            if (candidate.getValue() < requiredGrams) {
+                continue;
+            }
+            Term term = candidate.getKey();
+            int distance = boundedDistance(word, term.text, maxEdits);
+            if (distance > maxEdits) {
+                continue;
+            }
+            for (Long id : term.documentIds) {
+                if (restrictTo == null || restrictTo.containsKey(id)) {
+                    distances.merge(id, distance, Math::min);
+                }
+            }
+            if (deadline.check()) {
+                break;
+            }
+        }
+        return distances;
+    }
+
+    private List<Match> topMatches(Map<Long, Integer> distances, int limit, LongToIntFunction priority) {
+        Comparator<Map.Entry<Long, Integer>> ranking = Comparator
+                .<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue)
+                .thenComparing(entry -> priority.applyAsInt(entry.getKey()), Comparator.reverseOrder())
+                .thenComparing(Map.Entry::getKey);
+
+        // Bounded heap with the worst retained match on top
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (Map.Entry<Long, Integer> entry : distances.entrySet()) {
+            top.add(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        return ranked.stream()
+                .map(entry -> new Match(entry.getKey(), documents.get(entry.getKey()).text(), entry.getValue()))
+                .toList();
+    }
+
+    private Term addTerm(String word) {
+        Term term = new Term(word);
+        for (String gram : grams(word)) {
+            termsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(term);
+        }
+        return term;
+    }
+
+    private void removeTerm(Term term) {
+        terms.remove(term.text);
+        for (String gram : grams(term.text)) {
+            Set<Term> gramTerms = termsByGram.get(gram);
+            gramTerms.remove(term);
+            if (gramTerms.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String word) {
+        String padded = GRAM_PADDING + word + GRAM_PADDING;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Deadline {
+        private final long nanos;
+        private int calls;
+        private boolean passed;
+
+        Deadline(long nanos) {
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns whether the deadline has passed, reading the clock only every few calls.
+         */
+        boolean check() {
+            if (!passed && ++calls % DEADLINE_CHECK_INTERVAL == 0) {
+                passed = System.nanoTime() - nanos > 0;
+            }
+            return passed;
+        }
+    }
+}
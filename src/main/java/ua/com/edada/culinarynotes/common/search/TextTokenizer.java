@@ -0,0 +1,87 @@
+package ua.com.edada.culinarynotes.common.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits free text into lower-cased word tokens for the in-memory search structures.
+ * <p>
+ * Works on Unicode letters and digits, so Ukrainian and English text are tokenized the same way.
+ */
+public final class TextTokenizer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private TextTokenizer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Normalizes text for matching: lower case, apostrophes removed, Ukrainian "ґ" folded to "г"
+     * and "ё" to "е", and runs of whitespace collapsed into single spaces.
+     *
+     * @param text the text to normalize, may be {@code null}
+     * @return the normalized text, never {@code null}
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = lowerCase.charAt(i);
+            if (isApostrophe(c)) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = !normalized.isEmpty();
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(fold(c));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Splits text into normalized word tokens. Tokens shorter than two characters are dropped.
+     *
+     * @param text the text to tokenize, may be {@code null}
+     * @return the tokens in document order
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’' || c == 'ʼ' || c == '`';
+    }
+
+    private static char fold(char c) {
+        return switch (c) {
+            case 'ґ' -> 'г';
+            case 'ё' -> 'е';
+            default -> c;
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package ua.com.edada.culinarynotes.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Content of a stored file, whichever storage engine holds it.
+ */
+public interface FileContent {
+
+    long size();
+
+    /**
+     * @return modification time in milliseconds since the epoch
+     */
+    long lastModified();
+
+    /**
+     * @return the file holding exactly this content, if there is one, for zero-copy sending
+     */
+    Optional<Path> path();
+
+    /**
+     * Writes {@code count} bytes of the content, starting at {@code position}, to {@code target}.
+     */
+    void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+    static FileContent ofPath(Path path, long size, long lastModified) {
+        return new FileContent() {
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public long lastModified() {
+                return lastModified;
+            }
+
+            @Override
+            public Optional<Path> path() {
+                return Optional.of(path);
+            }
+
+            @Override
+            public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long end = position + count;
+                    while (position < end) {
+                        long transferred = channel.transferTo(position, end - position, target);
+                        if (transferred <= 0) {
+                            throw new EOFException("File ended at byte " + position + " of " + end);
+                        }
+                        position += transferred;
+                    }
+                }
+            }
+        };
+    }
+
+    static FileContent ofBuffer(ByteBuffer content, long lastModified) {
+        return new FileContent() {
+            @Override
+            public long size() {
+                return content.remaining();
+            }
+
+            @Override
+            public long lastModified() {
+                return lastModified;
+            }
+
+            @Override
+            public Optional<Path> path() {
+                return Optional.empty();
+            }
+
+            @Override
+            public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                ByteBuffer range = content.slice(content.position() + Math.toIntExact(position), Math.toIntExact(count));
+                while (range.hasRemaining()) {
+                    target.write(range);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,247 @@
+package ua.com.edada.culinarynotes.file;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import ua.com.edada.culinarynotes.file.dto.StoredFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Accepts streamed uploads and serves stored files straight from the file system.
+ * <p>
+ * On Tomcat a plain file body is handed to the connector's sendfile support, so the kernel
+ * copies it to the socket and it never passes through the heap. Elsewhere, and for multi-range
+ * responses, it is copied with {@link FileChannel#transferTo}, or from the mapped segment of a
+ * file packed by the segment store. Stored names are random UUIDs
+ * whose content never changes, so responses carry a strong ETag, Last-Modified and a one-year
+ * immutable Cache-Control, and honour conditional and {@code Range} requests.
+ * <p>
+ * The content type follows the extension the uploader chose, so it is never sniffed and only
+ * images other than SVG, audio and video are served inline. Anything else, HTML and SVG
+ * included, is sent as an attachment and cannot run script in the API's origin.
+ */
+@RestController
+@RequestMapping("/api/files")
+@RequiredArgsConstructor
+@Slf4j
+public class FileController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    // Request attributes of Tomcat's sendfile support, see org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String X_CONTENT_TYPE_OPTIONS = "X-Content-Type-Options";
+
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Stores the raw request body as a new file, e.g. {@code POST /api/files?name=cake.jpg} with
+     * the image as body. The body is streamed straight into the stored file instead of being
+     * buffered as a multipart part first, so an upload is written once with constant memory.
+     */
+    @PostMapping
+    public ResponseEntity<StoredFile> uploadFile(@RequestParam String name, HttpServletRequest request)
+            throws IOException {
+        log.info("REST request to upload file: {} ({} bytes)", name, request.getContentLengthLong());
+        StoredFile storedFile = fileStorageService.storeStream(request.getInputStream(), name,
+                request.getContentLengthLong());
+        return ResponseEntity.created(URI.create("/api/files/" + storedFile.fileName())).body(storedFile);
+    }
+
+    /**
+     * Sends a stored file, or the requested byte ranges of it: one range as a plain 206
+     * response, several as {@code multipart/byteranges}. Answers 304 when the client's copy is
+     * current and 416 for ranges outside the file.
+     */
+    @GetMapping("/{fileName:.+}")
+    public void downloadFile(@PathVariable String fileName, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        log.info("REST request to download file: {}", fileName);
+
+        FileContent content = fileStorageService.openFile(fileName);
+        long length = content.size();
+        long lastModified = content.lastModified();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // Sets ETag and Last-Modified, and answers 304 when the client's validators match
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(X_CONTENT_TYPE_OPTIONS, "nosniff");
+        MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (!isInline(contentType)) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+        }
+
+        List<long[]> ranges = requestedRanges(request, etag, lastModified, length);
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+        if (ranges.isEmpty()) {
+            response.setContentType(contentType.toString());
+            send(content, 0, length, request, response);
+        } else if (ranges.size() == 1) {
+            long start = ranges.get(0)[0];
+            long end = ranges.get(0)[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            send(content, start, end - start + 1, request, response);
+        } else {
+            sendMultipart(content, ranges, contentType, length, request, response);
+        }
+    }
+
+    /**
+     * Whether a file of this type may be rendered by the browser: images other than SVG, which
+     * can carry script, audio and video.
+     */
+    private static boolean isInline(MediaType contentType) {
+        return switch (contentType.getType()) {
+            case "image" -> !contentType.getSubtype().startsWith("svg");
+            case "audio", "video" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns the {@code [start, end]} byte ranges to send: empty for the whole file, which is
+     * also what a stale {@code If-Range} asks for, or {@code null} if the ranges cannot be
+     * satisfied because none of them starts inside the file. Like Spring's resource handling,
+     * ranges adding up to more than the file are refused, so overlapping ranges cannot multiply
+     * the response.
+     */
+    private static List<long[]> requestedRanges(HttpServletRequest request, String etag, long lastModified,
+                                                long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isCurrent(request, etag, lastModified)) {
+            return List.of();
+        }
+        List<long[]> ranges = new ArrayList<>();
+        long total = 0;
+        try {
+            for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    // HttpRange clamps the end but not the start; a range past the end is skipped
+                    continue;
+                }
+                ranges.add(new long[]{start, end});
+                total += end - start + 1;
+            }
+        } catch (IllegalArgumentException ex) {
+            log.debug("Unsatisfiable range '{}' for {} bytes: {}", rangeHeader, length, ex.getMessage());
+            return null;
+        }
+        if (ranges.isEmpty()) {
+            log.debug("No satisfiable range in '{}' for {} bytes", rangeHeader, length);
+            return null;
+        }
+        return ranges.size() > 1 && total > length ? null : ranges;
+    }
+
+    /**
+     * Whether an {@code If-Range} validator, if any, still matches the file. ETags are compared
+     * strongly; dates at the one-second precision of HTTP dates.
+     */
+    private static boolean isCurrent(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static void send(FileContent content, long start, long count, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+        Optional<Path> path = content.path();
+        if (path.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, path.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        content.transferTo(start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    private static void sendMultipart(FileContent content, List<long[]> ranges, MediaType contentType, long length,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        long contentLength = closing.length;
+        for (long[] range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range[1] - range[0] + 1;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        for (int i = 0; i < ranges.size(); i++) {
+            out.write(partHeaders.get(i));
+            content.transferTo(ranges.get(i)[0], ranges.get(i)[1] - ranges.get(i)[0] + 1, target);
+        }
+        out.write(closing);
+    }
+}
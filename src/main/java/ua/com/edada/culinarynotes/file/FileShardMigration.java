@@ -0,0 +1,48 @@
+package ua.com.edada.culinarynotes.file;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Moves the files of the flat upload layout into shard directories in the background once the
+ * application is ready. Files are served from either layout meanwhile, so the migration can
+ * take as long as it needs; a restart just picks up the files still left.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FileShardMigration {
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${file.sharding.enabled:true}")
+    private boolean sharded;
+
+    @Value("${file.sharding.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!sharded || !migrateOnStartup) {
+            return;
+        }
+        Thread.ofPlatform()
+                .name("file-shard-migration")
+                .daemon(true)
+                .start(this::migrate);
+    }
+
+    public void migrate() {
+        try {
+            fileStorageService.migrateToShards();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to migrate uploads into shard directories", ex);
+        }
+    }
+}
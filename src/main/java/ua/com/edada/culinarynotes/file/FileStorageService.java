@@ -3,30 +3,98 @@ package ua.com.edada.culinarynotes.file;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import ua.com.edada.culinarynotes.exception.PayloadTooLargeException;
 import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.file.dto.StoredFile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Stores uploaded files in the upload directory under random names.
+ * <p>
+ * With {@code file.deduplicate} enabled the store is content-addressed: every distinct content
+ * is kept once, as a blob named by its SHA-256 in {@code .blobs}, and each stored name is a
+ * hard link to its blob. The file system's link count is the blob's reference count, so it
+ * stays right across crashes, and stored files are still served straight from their path.
+ * A blob is removed together with its last name. Requires a file system with hard links.
+ * <p>
+ * With {@code file.sharding.enabled}, new files go two directory levels down, named after the
+ * first hex digits of their random name ({@code ab/cd/abcd...jpg}), which spreads them evenly
+ * over 65536 small directories. Files are looked up in both layouts, so files of the flat
+ * layout keep working while {@link #migrateToShards()} moves them over.
+ * <p>
+ * With {@code file.storage.engine=segments}, files up to {@code file.segments.max-blob-size}
+ * are packed into the segments of a {@link SegmentFileStore} instead, and only larger files
+ * become plain files.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FileStorageService {
 
+    // Bytes moved from an upload stream to its file per transfer call
+    private static final long TRANSFER_CHUNK_SIZE = 1 << 20;
+
+    private static final String BLOB_DIR = ".blobs";
+    // Extended attribute holding a blob's SHA-256; its names are hard links, so they all carry it
+    private static final String SHA256_ATTRIBUTE = "culinary-notes.sha256";
+
+    // Hex digits of a file name naming each of its two shard directories
+    private static final int SHARD_DIGITS = 2;
+
+    // Serialize linking to and unlinking from the same blob
+    private final Object[] blobLocks = Stream.generate(Object::new).limit(64).toArray();
+
+    // Present when small files are packed into segments
+    private final Optional<SegmentFileStore> segmentFileStore;
+
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    @Value("${file.max-upload-size:1GB}")
+    private DataSize maxUploadSize;
+
+    @Value("${file.deduplicate:false}")
+    private boolean deduplicate;
+
+    @Value("${file.sharding.enabled:true}")
+    private boolean sharded;
+
     /**
      * Stores a file in the file system.
      *
@@ -35,6 +103,13 @@ public class FileStorageService {
      * @throws IOException if an I/O error occurs
      */
     public String storeFile(MultipartFile file) throws IOException {
+        if (deduplicate || segmentFileStore.isPresent()) {
+            // The content has to be hashed on its way in to find its blob, or packed by its size
+            try (InputStream content = file.getInputStream()) {
+                return storeStream(content, file.getOriginalFilename(), file.getSize()).fileName();
+            }
+        }
+
         // Normalize file name
         String originalFilename = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
         
@@ -46,14 +121,68 @@ public class FileStorageService {
         Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
         Files.createDirectories(uploadPath);
         
-        // Copy file to the target location
-        Path targetLocation = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Move the part to the target location. Only the File overload reaches Part.write, which
+        // renames a part buffered on disk; the Path overload copies it through the heap. The
+        // path is absolute, so it is not resolved against the container's temp directory.
+        Path targetLocation = createStoragePath(uploadPath, fileName);
+        file.transferTo(targetLocation.toFile());
         
         log.info("Stored file: {} (original: {})", fileName, originalFilename);
         return fileName;
     }
 
+    /**
+     * Streams an upload straight into a new file in the upload directory. The content is
+     * written once, a buffer at a time, while its size and SHA-256 checksum are computed; an
+     * upload over {@code file.max-upload-size} is refused as soon as it crosses the limit.
+     * When deduplicating, content already in the store is linked to instead of kept again.
+     *
+     * @param content          the upload content, read to its end
+     * @param originalFilename the client's name for the file, for its extension
+     * @param declaredLength   the announced content length, or -1 if unknown
+     * @return the name, size and checksum of the stored file
+     * @throws PayloadTooLargeException if the upload is larger than allowed
+     * @throws IOException              if an I/O error occurs
+     */
+    public StoredFile storeStream(InputStream content, String originalFilename, long declaredLength)
+            throws IOException {
+        long maxSize = maxUploadSize.toBytes();
+        if (declaredLength > maxSize) {
+            throw new PayloadTooLargeException("Upload of " + declaredLength + " bytes exceeds " + maxUploadSize);
+        }
+        String fileName = UUID.randomUUID() + getFileExtension(StringUtils.cleanPath(Objects.requireNonNull(originalFilename)));
+
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(uploadPath);
+
+        // Written next to its target, so it becomes visible under its name with an atomic rename
+        Path partial = Files.createTempFile(uploadPath, ".upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(
+                    new DigestInputStream(new SizeLimitedInputStream(content, maxSize), digest));
+                 FileChannel target = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, TRANSFER_CHUNK_SIZE)) > 0) {
+                    size += transferred;
+                }
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            if (segmentFileStore.isPresent() && size <= segmentFileStore.get().maxBlobSize()) {
+                segmentFileStore.get().store(fileName, partial);
+            } else if (deduplicate) {
+                linkToBlob(partial, createStoragePath(uploadPath, fileName), sha256);
+            } else {
+                Files.move(partial, createStoragePath(uploadPath, fileName), StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.info("Stored streamed file: {} ({} bytes, original: {})", fileName, size, originalFilename);
+            return new StoredFile(fileName, size, sha256);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
     /**
      * Loads a file as a Resource.
      *
@@ -62,7 +191,13 @@ public class FileStorageService {
      */
     public Resource loadFileAsResource(String fileName) {
         try {
-            Path filePath = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(fileName);
+            Optional<FileContent> packed = openPackedFile(fileName);
+            if (packed.isPresent()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream((int) packed.get().size());
+                packed.get().transferTo(0, packed.get().size(), Channels.newChannel(content));
+                return new ByteArrayResource(content.toByteArray());
+            }
+            Path filePath = resolve(fileName);
             Resource resource = new UrlResource(filePath.toUri());
             
             if (resource.exists()) {
@@ -72,12 +207,46 @@ public class FileStorageService {
                 log.error("File not found: {}", fileName);
                 throw new ResourceNotFoundException("File not found: " + fileName);
             }
-        } catch (MalformedURLException ex) {
+        } catch (IOException ex) {
             log.error("Error loading file: {}", fileName, ex);
             throw new ResourceNotFoundException("File not found: " + fileName);
         }
     }
 
+    /**
+     * Opens a stored file for sending, whichever storage engine holds it.
+     *
+     * @param fileName the name of the stored file
+     * @return the content, size and modification time of the file
+     * @throws ResourceNotFoundException if there is no such file
+     * @throws IOException               if an I/O error occurs
+     */
+    public FileContent openFile(String fileName) throws IOException {
+        Optional<FileContent> packed = openPackedFile(fileName);
+        if (packed.isPresent()) {
+            return packed.get();
+        }
+        Path filePath = loadFileAsPath(fileName);
+        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        return FileContent.ofPath(filePath, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Returns the path of a stored file, for serving it straight from the file system.
+     *
+     * @param fileName the name of the stored file
+     * @return the absolute path of the file
+     * @throws ResourceNotFoundException if there is no such file
+     */
+    public Path loadFileAsPath(String fileName) {
+        Path filePath = resolve(fileName);
+        if (!Files.isRegularFile(filePath)) {
+            log.error("File not found: {}", fileName);
+            throw new ResourceNotFoundException("File not found: " + fileName);
+        }
+        return filePath;
+    }
+
     /**
      * Deletes a file from the file system.
      *
@@ -86,8 +255,20 @@ public class FileStorageService {
      */
     public boolean deleteFile(String fileName) {
         try {
-            Path filePath = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(fileName);
-            boolean deleted = Files.deleteIfExists(filePath);
+            if (segmentFileStore.isPresent() && segmentFileStore.get().delete(fileName)) {
+                log.info("Deleted file: {}", fileName);
+                return true;
+            }
+            Path filePath = resolve(fileName);
+            boolean deleted = deleteAt(filePath);
+            if (!deleted) {
+                // Migration may have moved the file into its shard after it was resolved; it only
+                // ever moves a file once, so one retry against the new path is enough
+                Path currentPath = resolve(fileName);
+                if (!currentPath.equals(filePath)) {
+                    deleted = deleteAt(currentPath);
+                }
+            }
             
             if (deleted) {
                 log.info("Deleted file: {}", fileName);
@@ -102,6 +283,223 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Moves the files of the flat layout into their shard directories, one atomic rename each.
+     * Safe to run while files are stored, served and deleted, and to run again after an
+     * interruption.
+     *
+     * @return the number of files moved
+     * @throws IOException if the upload directory cannot be listed
+     */
+    public int migrateToShards() throws IOException {
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        if (!Files.isDirectory(uploadPath)) {
+            return 0;
+        }
+        long startedAt = System.currentTimeMillis();
+        int moved = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath,
+                path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS))) {
+            for (Path flatPath : files) {
+                String fileName = flatPath.getFileName().toString();
+                Path shardedPath = shardedPath(uploadPath, fileName);
+                if (shardedPath == null) {
+                    continue;
+                }
+                try {
+                    Files.createDirectories(shardedPath.getParent());
+                    Files.move(flatPath, shardedPath, StandardCopyOption.ATOMIC_MOVE);
+                    moved++;
+                } catch (NoSuchFileException ex) {
+                    log.debug("File {} was deleted before it could be moved", fileName);
+                } catch (IOException ex) {
+                    log.warn("Failed to move {} into its shard: {}", fileName, ex.toString());
+                }
+            }
+        }
+        log.info("Moved {} files into shard directories in {} ms", moved, System.currentTimeMillis() - startedAt);
+        return moved;
+    }
+
+    private Optional<FileContent> openPackedFile(String fileName) throws IOException {
+        return segmentFileStore.isPresent() ? segmentFileStore.get().open(fileName) : Optional.empty();
+    }
+
+    /**
+     * Resolves a file name against the upload directory, rejecting names that would leave it,
+     * and finds the file in the sharded or the flat layout. A file in neither resolves to its
+     * flat path.
+     */
+    private Path resolve(String fileName) {
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path flatPath = uploadPath.resolve(fileName).normalize();
+        if (!uploadPath.equals(flatPath.getParent())) {
+            log.error("Rejected file name outside the upload directory: {}", fileName);
+            throw new ResourceNotFoundException("File not found: " + fileName);
+        }
+        Path shardedPath = shardedPath(uploadPath, fileName);
+        if (shardedPath == null) {
+            return flatPath;
+        }
+        if (Files.exists(shardedPath, LinkOption.NOFOLLOW_LINKS)) {
+            return shardedPath;
+        }
+        if (Files.exists(flatPath, LinkOption.NOFOLLOW_LINKS)) {
+            return flatPath;
+        }
+        // Migration may have moved it between the two checks
+        return Files.exists(shardedPath, LinkOption.NOFOLLOW_LINKS) ? shardedPath : flatPath;
+    }
+
+    /**
+     * Returns where a new file is stored in the current layout, creating its shard directories.
+     */
+    private Path createStoragePath(Path uploadPath, String fileName) throws IOException {
+        Path shardedPath = sharded ? shardedPath(uploadPath, fileName) : null;
+        if (shardedPath == null) {
+            return uploadPath.resolve(fileName);
+        }
+        Files.createDirectories(shardedPath.getParent());
+        return shardedPath;
+    }
+
+    /**
+     * Returns the path of a file in the sharded layout, or {@code null} for names that do not
+     * start with enough hex digits and so are kept flat.
+     */
+    private static Path shardedPath(Path uploadPath, String fileName) {
+        if (fileName.length() <= 2 * SHARD_DIGITS) {
+            return null;
+        }
+        for (int i = 0; i < 2 * SHARD_DIGITS; i++) {
+            if (Character.digit(fileName.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        String prefix = fileName.substring(0, 2 * SHARD_DIGITS).toLowerCase(Locale.ROOT);
+        return uploadPath.resolve(prefix.substring(0, SHARD_DIGITS))
+                .resolve(prefix.substring(SHARD_DIGITS))
+                .resolve(fileName);
+    }
+
+    /**
+     * Makes {@code target} a name of the blob with the given content, moving the freshly
+     * written {@code partial} file into place as the blob if there is none yet.
+     */
+    private void linkToBlob(Path partial, Path target, String sha256) throws IOException {
+        Path blobPath = blobPath(sha256);
+        Files.createDirectories(blobPath.getParent());
+        if (Files.exists(blobPath)) {
+            synchronized (blobLock(blobPath)) {
+                // Unless its last name was deleted meanwhile
+                if (Files.exists(blobPath)) {
+                    Files.createLink(target, blobPath);
+                    log.debug("Linked {} to existing blob {}", target.getFileName(), sha256);
+                    return;
+                }
+            }
+        }
+        saveSha256(partial, sha256);
+        // Racing uploads of the same new content each get a blob; the last one stays shared
+        Files.move(partial, blobPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.createLink(target, blobPath);
+    }
+
+    /**
+     * Deletes the name at this path, or returns false if nothing is there, including when the
+     * file is moved away midway.
+     */
+    private boolean deleteAt(Path filePath) throws IOException {
+        try {
+            return deduplicate ? unlinkFromBlob(filePath) : Files.deleteIfExists(filePath);
+        } catch (NoSuchFileException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Deletes a stored name, and its blob if this was the blob's last name. Only then is the blob
+     * looked up, by the hash saved on it; other names just drop the link count. Content without
+     * a saved hash is hashed again, outside the lock unless its last other name goes meanwhile.
+     */
+    private boolean unlinkFromBlob(Path filePath) throws IOException {
+        if (!Files.exists(filePath, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        // Two links are this name and the blob itself
+        String sha256 = linkCount(filePath) == 2 ? sha256Of(filePath) : null;
+        synchronized (blobLock(filePath)) {
+            Path blobPath = null;
+            if (linkCount(filePath) == 2) {
+                Path candidate = blobPath(sha256 != null ? sha256 : sha256Of(filePath));
+                if (Files.exists(candidate) && Files.isSameFile(candidate, filePath)) {
+                    blobPath = candidate;
+                }
+            }
+            boolean deleted = Files.deleteIfExists(filePath);
+            if (deleted && blobPath != null) {
+                Files.deleteIfExists(blobPath);
+                log.info("Deleted blob {} with its last reference", blobPath.getFileName());
+            }
+            return deleted;
+        }
+    }
+
+    private Path blobPath(String sha256) {
+        return Paths.get(uploadDir).toAbsolutePath().normalize().resolve(BLOB_DIR).resolve(sha256);
+    }
+
+    // Names of one blob share its file key, so they share a lock
+    private Object blobLock(Path path) throws IOException {
+        Object fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        return blobLocks[Math.floorMod(Objects.hashCode(fileKey != null ? fileKey : path), blobLocks.length)];
+    }
+
+    private static int linkCount(Path path) throws IOException {
+        return (Integer) Files.getAttribute(path, "unix:nlink");
+    }
+
+    // Best effort: without extended attributes the hash is computed again on the last delete
+    private static void saveSha256(Path path, String sha256) {
+        UserDefinedFileAttributeView attributes = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        try {
+            if (attributes != null) {
+                attributes.write(SHA256_ATTRIBUTE, StandardCharsets.US_ASCII.encode(sha256));
+            }
+        } catch (IOException | UnsupportedOperationException ex) {
+            log.debug("Could not save the hash of {}: {}", path.getFileName(), ex.toString());
+        }
+    }
+
+    /**
+     * Returns the SHA-256 saved on a blob when it was created, or hashes its content.
+     */
+    private static String sha256Of(Path path) throws IOException {
+        UserDefinedFileAttributeView attributes = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        try {
+            if (attributes != null && attributes.list().contains(SHA256_ATTRIBUTE)) {
+                ByteBuffer saved = ByteBuffer.allocate(attributes.size(SHA256_ATTRIBUTE));
+                attributes.read(SHA256_ATTRIBUTE, saved);
+                return StandardCharsets.US_ASCII.decode(saved.flip()).toString();
+            }
+        } catch (IOException | UnsupportedOperationException ex) {
+            log.debug("Could not read the saved hash of {}: {}", path.getFileName(), ex.toString());
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
     private String getFileExtension(String fileName) {
         if (fileName.lastIndexOf(".") != -1 && fileName.lastIndexOf(".") != 0) {
             return fileName.substring(fileName.lastIndexOf("."));
@@ -109,4 +507,43 @@ public class FileStorageService {
             return "";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fails the upload as soon as more than {@code limit} bytes have been read.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) {
+            count += read;
+            if (count > limit) {
+                throw new PayloadTooLargeException("Upload exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
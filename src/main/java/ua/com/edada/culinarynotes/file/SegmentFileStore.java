@@ -0,0 +1,648 @@
+package ua.com.edada.culinarynotes.file;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Storage engine packing small files into large append-only segment files, selected with
+ * {@code file.storage.engine=segments}.
+ * <p>
+ * Every stored or deleted file appends one record to the active segment under
+ * {@code .segments} in the upload directory, so storing costs no inode and no directory entry.
+ * An in-memory index maps file names to their record. It is checkpointed to disk every
+ * {@code file.segments.checkpoint-interval}; on startup the last checkpoint is loaded and only
+ * the records appended after it are replayed, cutting off a record torn by a crash. Reads are
+ * served from memory-mapped segments, so a file is a slice of the page cache rather than a
+ * seek and a read.
+ * <p>
+ * Deleted files leave dead records behind. Every {@code file.segments.compaction-interval},
+ * sealed segments with at least {@code file.segments.compaction-threshold} of dead bytes have
+ * their live records copied to the active segment and are removed once a checkpoint no longer
+ * needs them. A tombstone names the segment of the record it deletes and is copied too while
+ * that older segment remains, since a replay without a checkpoint would bring the file back;
+ * such tombstones count as live until their segment is removed. After a restart only those
+ * replayed past the checkpoint are known to be needed, so an older one may be copied once more.
+ * Readers holding a slice of a removed segment keep reading its mapping.
+ * <p>
+ * Like files written by the plain storage engine, appends are left in the page cache: a store
+ * or delete is only forced to disk by the next checkpoint or segment roll, so a crash of the
+ * machine loses at most the last {@code file.segments.checkpoint-interval} of them.
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.engine", havingValue = "segments")
+@Slf4j
+public class SegmentFileStore {
+
+    private static final String SEGMENT_DIR = ".segments";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "index.checkpoint";
+
+    private static final int RECORD_MAGIC = 0x434E5352;
+    private static final int CHECKPOINT_MAGIC = 0x434E5349;
+    private static final byte DATA = 1;
+    private static final byte TOMBSTONE = 2;
+    // Magic, type, last modified, name length, data length and CRC32C of name and data, then the name;
+    // the data of a tombstone is the segment of the record it deletes
+    private static final int HEADER_SIZE = 4 + 1 + 8 + 2 + 4 + 4;
+
+    private final Path segmentDir;
+    private final long segmentSize;
+    private final long maxBlobSize;
+    private final double compactionThreshold;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    // Bytes of the records still in the index, per segment
+    private final Map<Integer, AtomicLong> liveBytes = new ConcurrentHashMap<>();
+    // Guarded by itself
+    private final Map<Integer, MappedByteBuffer> mappings = new HashMap<>();
+    // Bytes of the tombstones still needed, per segment holding them, keyed by the older segment
+    // holding the records they delete; guarded by writeLock
+    private final Map<Integer, Map<Integer, Long>> neededTombstones = new HashMap<>();
+
+    // Serializes appends, deletes and compaction moves
+    private final Object writeLock = new Object();
+    // Guarded by writeLock
+    private FileChannel activeChannel;
+    private int activeSegment;
+    private long activePosition;
+    private boolean dirty;
+
+    private final Object checkpointLock = new Object();
+
+    private final ScheduledExecutorService maintenance;
+
+    /**
+     * @param segment      segment holding the record
+     * @param offset       position of the file content in the segment
+     * @param length       size of the file content
+     * @param lastModified time the file was stored, in milliseconds since the epoch
+     */
+    record Location(int segment, long offset, int length, long lastModified) {}
+
+    /**
+     * @param deletedAt   time the file was deleted, in milliseconds since the epoch
+     * @param dataSegment segment holding the deleted record
+     */
+    private record Tombstone(long deletedAt, int dataSegment) {}
+
+    public SegmentFileStore(@Value("${file.upload-dir:uploads}") String uploadDir,
+                            @Value("${file.segments.segment-size:256MB}") DataSize segmentSize,
+                            @Value("${file.segments.max-blob-size:256KB}") DataSize maxBlobSize,
+                            @Value("${file.segments.compaction-threshold:0.5}") double compactionThreshold,
+                            @Value("${file.segments.checkpoint-interval:1m}") Duration checkpointInterval,
+                            @Value("${file.segments.compaction-interval:10m}") Duration compactionInterval) {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE || maxBlobSize.toBytes() > segmentSize.toBytes()) {
+            throw new IllegalArgumentException("Segments must be at most 2GB and hold at least one blob");
+        }
+        this.segmentDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(SEGMENT_DIR);
+        this.segmentSize = segmentSize.toBytes();
+        this.maxBlobSize = maxBlobSize.toBytes();
+        this.compactionThreshold = compactionThreshold;
+        try {
+            recover();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open segment store in " + segmentDir, ex);
+        }
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("segment-file-store").daemon(true).factory());
+        maintenance.scheduleWithFixedDelay(() -> runQuietly("checkpoint", this::checkpoint),
+                checkpointInterval.toMillis(), checkpointInterval.toMillis(), TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(() -> runQuietly("compaction", this::compact),
+                compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return size of the largest file kept in segments; larger files belong in plain files
+     */
+    public long maxBlobSize() {
+        return maxBlobSize;
+    }
+
+    /**
+     * Appends the content of {@code source} to the active segment under {@code fileName}. The
+     * record reaches the disk with the next checkpoint, not before this returns.
+     *
+     * @throws IllegalArgumentException if the content is larger than {@link #maxBlobSize()}
+     */
+    public void store(String fileName, Path source) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (channel.size() > maxBlobSize) {
+                throw new IllegalArgumentException("File of " + channel.size() + " bytes is too large for a segment");
+            }
+            data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining()) {
+                if (channel.read(data) < 0) {
+                    throw new EOFException("File " + source + " ended early");
+                }
+            }
+        }
+        data.flip();
+
+        Location location;
+        synchronized (writeLock) {
+            location = append(DATA, fileName, data, System.currentTimeMillis());
+            index.put(fileName, location);
+            live(location.segment()).addAndGet(recordSize(fileName, location.length()));
+        }
+        log.debug("Stored {} in segment {}", fileName, location.segment());
+    }
+
+    /**
+     * Returns the content of a file kept in segments, as a slice of its mapped segment.
+     */
+    public Optional<FileContent> open(String fileName) throws IOException {
+        // A second lookup finds the copy of a file whose segment was compacted meanwhile
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Location location = index.get(fileName);
+            if (location == null) {
+                return Optional.empty();
+            }
+            try {
+                ByteBuffer content = mapping(location.segment(), location.offset() + location.length())
+                        .slice((int) location.offset(), location.length());
+                return Optional.of(FileContent.ofBuffer(content, location.lastModified()));
+            } catch (NoSuchFileException ex) {
+                log.debug("Segment {} was compacted while opening {}", location.segment(), fileName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Deletes a file kept in segments by appending a tombstone for it, which like a stored
+     * record reaches the disk with the next checkpoint.
+     *
+     * @return true if the file was kept in segments
+     */
+    public boolean delete(String fileName) throws IOException {
+        synchronized (writeLock) {
+            Location location = index.get(fileName);
+            if (location == null) {
+                return false;
+            }
+            Location tombstone = append(TOMBSTONE, fileName, tombstoneData(location.segment()),
+                    System.currentTimeMillis());
+            index.remove(fileName);
+            live(location.segment()).addAndGet(-recordSize(fileName, location.length()));
+            needTombstone(fileName, location.segment(), tombstone.segment());
+        }
+        return true;
+    }
+
+    /**
+     * Writes the index to disk if it changed since the last checkpoint, so a restart only
+     * replays the records appended after it.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (writeLock) {
+            if (!dirty) {
+                return;
+            }
+        }
+        writeCheckpoint();
+    }
+
+    /**
+     * Moves the live records out of sealed segments that are mostly dead, and removes those
+     * segments.
+     */
+    public void compact() throws IOException {
+        // Oldest first, each judged after the ones before it went, as their removal frees tombstones
+        for (int segment : listSegments()) {
+            boolean mostlyDead;
+            synchronized (writeLock) {
+                long size = segment < activeSegment ? Files.size(segmentPath(segment)) : 0;
+                long dead = size - live(segment).get();
+                mostlyDead = size > 0 && dead >= compactionThreshold * size;
+            }
+            if (mostlyDead) {
+                compact(segment);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        // Not interrupted: an interrupt would close the active channel under a running compaction
+        maintenance.shutdown();
+        maintenance.awaitTermination(1, TimeUnit.MINUTES);
+        checkpoint();
+        synchronized (writeLock) {
+            activeChannel.close();
+        }
+    }
+
+    private void compact(int segment) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        int moved = 0;
+        for (String fileName : index.keySet()) {
+            synchronized (writeLock) {
+                Location location = index.get(fileName);
+                if (location == null || location.segment() != segment) {
+                    continue;
+                }
+                ByteBuffer data = mapping(segment, location.offset() + location.length())
+                        .slice((int) location.offset(), location.length());
+                Location copy = append(DATA, fileName, data, location.lastModified());
+                index.put(fileName, copy);
+                live(copy.segment()).addAndGet(recordSize(fileName, copy.length()));
+                moved++;
+            }
+        }
+        int carried = 0;
+        List<Integer> segments = listSegments();
+        for (Map.Entry<String, Tombstone> entry : tombstonesIn(segment).entrySet()) {
+            String fileName = entry.getKey();
+            int dataSegment = entry.getValue().dataSegment();
+            // Once the deleted record is gone, so is the need for its tombstone
+            if (dataSegment >= segment || !segments.contains(dataSegment)) {
+                continue;
+            }
+            synchronized (writeLock) {
+                // A name stored again after its tombstone is live and must stay so
+                if (!index.containsKey(fileName)) {
+                    Location copy = append(TOMBSTONE, fileName, tombstoneData(dataSegment),
+                            entry.getValue().deletedAt());
+                    needTombstone(fileName, dataSegment, copy.segment());
+                    carried++;
+                }
+            }
+        }
+        // The segment may only go once a checkpoint starts past it and holds none of its records
+        writeCheckpoint();
+        synchronized (mappings) {
+            Files.deleteIfExists(segmentPath(segment));
+            mappings.remove(segment);
+        }
+        synchronized (writeLock) {
+            Map<Integer, Long> freed = neededTombstones.remove(segment);
+            if (freed != null) {
+                freed.forEach((holder, bytes) -> live(holder).addAndGet(-bytes));
+            }
+            neededTombstones.values().forEach(held -> held.remove(segment));
+            liveBytes.remove(segment);
+        }
+        log.info("Compacted segment {}, moving {} files and {} tombstones, in {} ms", segment, moved, carried,
+                System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Returns the names deleted by the tombstones of a sealed segment.
+     */
+    private Map<String, Tombstone> tombstonesIn(int segment) throws IOException {
+        ByteBuffer records = mapping(segment, 0).duplicate();
+        Map<String, Tombstone> tombstones = new HashMap<>();
+        while (records.remaining() >= HEADER_SIZE && records.getInt(records.position()) == RECORD_MAGIC) {
+            records.getInt();
+            byte type = records.get();
+            long lastModified = records.getLong();
+            int nameLength = records.getShort();
+            int dataLength = records.getInt();
+            records.getInt();
+            if (nameLength < 0 || dataLength < 0 || records.remaining() < nameLength + dataLength) {
+                break;
+            }
+            byte[] name = new byte[nameLength];
+            records.get(name);
+            if (type == TOMBSTONE) {
+                tombstones.put(new String(name, StandardCharsets.UTF_8),
+                        new Tombstone(lastModified, dataSegment(records, records.position(), dataLength)));
+            }
+            records.position(records.position() + dataLength);
+        }
+        return tombstones;
+    }
+
+    private static ByteBuffer tombstoneData(int dataSegment) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(0, dataSegment);
+    }
+
+    // A tombstone without a segment deletes nothing older than itself
+    private static int dataSegment(ByteBuffer record, int offset, int dataLength) {
+        return dataLength == Integer.BYTES ? record.getInt(offset) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Counts a tombstone as live in its segment while the older segment holding the record it
+     * deletes remains. Callers hold writeLock, or are recovering.
+     */
+    private void needTombstone(String fileName, int dataSegment, int segment) {
+        if (dataSegment < segment && Files.exists(segmentPath(dataSegment))) {
+            long bytes = recordSize(fileName, Integer.BYTES);
+            live(segment).addAndGet(bytes);
+            neededTombstones.computeIfAbsent(dataSegment, key -> new HashMap<>()).merge(segment, bytes, Long::sum);
+        }
+    }
+
+    // Callers hold writeLock
+    private Location append(byte type, String fileName, ByteBuffer data, long lastModified) throws IOException {
+        byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("File name is too long for a segment record");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(name);
+        crc.update(data.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + name.length)
+                .putInt(RECORD_MAGIC)
+                .put(type)
+                .putLong(lastModified)
+                .putShort((short) name.length)
+                .putInt(data.remaining())
+                .putInt((int) crc.getValue())
+                .put(name)
+                .flip();
+
+        long recordSize = header.remaining() + data.remaining();
+        if (activePosition > 0 && activePosition + recordSize > segmentSize) {
+            roll();
+        }
+        long position = activePosition;
+        ByteBuffer[] record = {header, data.duplicate()};
+        long written = 0;
+        while (written < recordSize) {
+            written += activeChannel.write(record);
+        }
+        activePosition += recordSize;
+        dirty = true;
+        return new Location(activeSegment, position + HEADER_SIZE + name.length, data.remaining(), lastModified);
+    }
+
+    // Callers hold writeLock
+    private void roll() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        activeSegment++;
+        activePosition = 0;
+        activeChannel = FileChannel.open(segmentPath(activeSegment), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        log.info("Started segment {}", activeSegment);
+    }
+
+    /**
+     * Returns a mapping of the segment covering at least {@code end} bytes, remapping the
+     * segment once it has grown past its current mapping.
+     */
+    private ByteBuffer mapping(int segment, long end) throws IOException {
+        synchronized (mappings) {
+            MappedByteBuffer mapped = mappings.get(segment);
+            if (mapped == null || mapped.capacity() < end) {
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                mappings.put(segment, mapped);
+            }
+            return mapped;
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Map<String, Location> snapshot;
+        int segment;
+        long position;
+        synchronized (writeLock) {
+            activeChannel.force(false);
+            snapshot = Map.copyOf(index);
+            segment = activeSegment;
+            position = activePosition;
+            dirty = false;
+        }
+
+        // Checkpoints are written one at a time, so an older one never replaces a newer one
+        synchronized (checkpointLock) {
+            Path temporary = segmentDir.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CRC32C crc = new CRC32C();
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), crc)));
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(segment);
+                out.writeLong(position);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Location> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().segment());
+                    out.writeLong(entry.getValue().offset());
+                    out.writeInt(entry.getValue().length());
+                    out.writeLong(entry.getValue().lastModified());
+                }
+                out.flush();
+                // Not part of its own checksum
+                new DataOutputStream(Channels.newOutputStream(channel)).writeInt((int) crc.getValue());
+                channel.force(true);
+            } catch (IOException ex) {
+                synchronized (writeLock) {
+                    dirty = true;
+                }
+                throw ex;
+            }
+            Files.move(temporary, segmentDir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        log.debug("Checkpointed {} segment files at segment {}, byte {}", snapshot.size(), segment, position);
+    }
+
+    /**
+     * Loads the last checkpoint and replays the records appended after it, then opens the last
+     * segment for appending.
+     */
+    private void recover() throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Files.createDirectories(segmentDir);
+        List<Integer> segments = listSegments();
+
+        long[] replayFrom = readCheckpoint();
+        if (replayFrom == null) {
+            log.warn("No valid checkpoint in {}, replaying all {} segments", segmentDir, segments.size());
+            replayFrom = new long[]{0, 0};
+        }
+        for (int segment : segments) {
+            if (segment >= replayFrom[0]) {
+                replay(segment, segment == replayFrom[0] ? replayFrom[1] : 0,
+                        segment == segments.get(segments.size() - 1));
+            }
+        }
+
+        activeSegment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        activeChannel = FileChannel.open(segmentPath(activeSegment), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        activePosition = activeChannel.size();
+        activeChannel.position(activePosition);
+        index.forEach((fileName, location) ->
+                live(location.segment()).addAndGet(recordSize(fileName, location.length())));
+        log.info("Opened segment store with {} files in {} segments in {} ms", index.size(),
+                Math.max(segments.size(), 1), System.currentTimeMillis() - startedAt);
+    }
+
+    // Returns the segment and position to replay from, or null without a valid checkpoint
+    private long[] readCheckpoint() {
+        Path checkpoint = segmentDir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+            DataInputStream checked = new DataInputStream(new CheckedInputStream(in, crc));
+            if (checked.readInt() != CHECKPOINT_MAGIC) {
+                return null;
+            }
+            long segment = checked.readInt();
+            long position = checked.readLong();
+            int entries = checked.readInt();
+            Map<String, Location> loaded = new HashMap<>(Math.max(entries, 16) * 4 / 3);
+            for (int i = 0; i < entries; i++) {
+                loaded.put(checked.readUTF(),
+                        new Location(checked.readInt(), checked.readLong(), checked.readInt(), checked.readLong()));
+            }
+            if (in.readInt() != (int) crc.getValue()) {
+                return null;
+            }
+            index.putAll(loaded);
+            return new long[]{segment, position};
+        } catch (IOException ex) {
+            log.warn("Failed to read segment store checkpoint: {}", ex.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Applies the records of a segment from {@code position} on to the index. A broken record
+     * ends the replay of the segment; at the end of the last segment, where a crash tears the
+     * record being written, it is cut off.
+     */
+    private void replay(int segment, long position, boolean last) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            int replayed = 0;
+            while (position + HEADER_SIZE <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                header.flip();
+                int magic = header.getInt();
+                byte type = header.get();
+                long lastModified = header.getLong();
+                int nameLength = header.getShort();
+                int dataLength = header.getInt();
+                int expectedCrc = header.getInt();
+                if (magic != RECORD_MAGIC || (type != DATA && type != TOMBSTONE) || nameLength < 0 || dataLength < 0
+                        || position + HEADER_SIZE + nameLength + dataLength > size) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(nameLength + dataLength);
+                readFully(channel, body, position + HEADER_SIZE);
+                CRC32C crc = new CRC32C();
+                crc.update(body.flip());
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                String fileName = new String(body.array(), 0, nameLength, StandardCharsets.UTF_8);
+                if (type == DATA) {
+                    index.put(fileName, new Location(segment, position + HEADER_SIZE + nameLength, dataLength,
+                            lastModified));
+                } else {
+                    index.remove(fileName);
+                    needTombstone(fileName, dataSegment(body, nameLength, dataLength), segment);
+                }
+                position += HEADER_SIZE + nameLength + dataLength;
+                replayed++;
+            }
+            if (position < size) {
+                if (last) {
+                    log.warn("Cutting off torn record at byte {} of segment {}", position, segment);
+                    channel.truncate(position);
+                } else {
+                    log.error("Broken record at byte {} of segment {}, skipping the rest", position, segment);
+                }
+            }
+            log.debug("Replayed {} records of segment {}", replayed, segment);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Segment ended at byte " + position);
+            }
+            position += read;
+        }
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(segmentDir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return segmentDir.resolve("%010d%s".formatted(segment, SEGMENT_SUFFIX));
+    }
+
+    private AtomicLong live(int segment) {
+        return liveBytes.computeIfAbsent(segment, key -> new AtomicLong());
+    }
+
+    private static long recordSize(String fileName, int length) {
+        return HEADER_SIZE + fileName.getBytes(StandardCharsets.UTF_8).length + (long) length;
+    }
+
+    private static void runQuietly(String task, IORunnable runnable) {
+        try {
+            runnable.run();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Segment store {} failed", task, ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IORunnable {
+
+        void run() throws IOException;
+    }
+}
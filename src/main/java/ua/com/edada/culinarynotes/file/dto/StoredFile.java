@@ -0,0 +1,14 @@
+package ua.com.edada.culinarynotes.file.dto;
+
+/**
+ * A file written to the upload store.
+ *
+ * @param fileName name the file is stored and served under
+ * @param size     size of the file in bytes
+ * @param sha256   hex SHA-256 checksum of the file content
+ */
+public record StoredFile(
+    String fileName,
+    long size,
+    String sha256
+) {}
@@ -1,10 +1,14 @@
 package ua.com.edada.culinarynotes.ingredient;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,12 +16,25 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "ingredients")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 100)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Ingredient.CACHE_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ingredient {
 
+    /**
+     * Second-level cache region of ingredients by id.
+     */
+    public static final String CACHE_REGION = "ingredients";
+
+    /**
+     * Query cache region of the lookups by name and unit. Any write to the ingredients table invalidates it.
+     */
+    public static final String QUERY_CACHE_REGION = "ingredients-by-name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
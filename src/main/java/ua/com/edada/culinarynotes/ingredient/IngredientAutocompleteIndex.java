@@ -0,0 +1,190 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.com.edada.culinarynotes.common.search.FuzzyIndex;
+import ua.com.edada.culinarynotes.common.search.TextTokenizer;
+import ua.com.edada.culinarynotes.ingredient.dto.IngredientSuggestion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index over ingredient names serving typeahead suggestions and typo-tolerant lookups.
+ * <p>
+ * Every ingredient is reachable by its full normalized name and by each later word in it,
+ * so "tom" finds both "Tomato" and "Cherry tomato". Suggestions are ranked by usage.
+ * Fuzzy lookups match names within a few typos, e.g. "tomatoe", and stop after
+ * {@code ingredient.search.fuzzy.budget}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IngredientAutocompleteIndex {
+
+    private final IngredientRepository ingredientRepository;
+
+    @Value("${ingredient.search.fuzzy.budget:50ms}")
+    private Duration fuzzyBudget;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final IngredientNameTrie trie = new IngredientNameTrie();
+    private final FuzzyIndex fuzzyIndex = new FuzzyIndex();
+    private final Map<Long, IndexedIngredient> ingredients = new HashMap<>();
+
+    private record IndexedIngredient(Long id, String name, String unit, Set<String> keys, int usage) {
+
+        IngredientSuggestion toSuggestion() {
+            return new IngredientSuggestion(id, name, unit, usage);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        List<Ingredient> all = ingredientRepository.findAll();
+        Map<Long, Integer> usages = new HashMap<>();
+        ingredientRepository.findUsageCounts()
+                .forEach(usage -> usages.put(usage.getIngredientId(), (int) usage.getUsage()));
+        lock.writeLock().lock();
+        try {
+            all.forEach(this::index);
+            usages.forEach(this::setUsage);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built ingredient autocomplete index with {} ingredients in {} ms",
+                all.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Returns up to {@code limit} ingredients with a name or name word starting with {@code prefix},
+     * most used first.
+     */
+    public List<IngredientSuggestion> suggest(String prefix, int limit) {
+        String key = TextTokenizer.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            List<IngredientSuggestion> suggestions = new ArrayList<>(limit);
+            for (Long id : trie.topK(key, limit)) {
+                suggestions.add(ingredients.get(id).toSuggestion());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ingredients whose name words are within a few typos of every
+     * query word, closest first and most used among equally close ones.
+     */
+    public List<IngredientSuggestion> searchFuzzy(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            FuzzyIndex.Result result = fuzzyIndex.search(query, limit, fuzzyBudget,
+                    id -> ingredients.get(id).usage());
+            if (!result.complete()) {
+                log.warn("Fuzzy ingredient search for '{}' ran out of time budget", query);
+            }
+            List<IngredientSuggestion> suggestions = new ArrayList<>(result.matches().size());
+            for (FuzzyIndex.Match match : result.matches()) {
+                suggestions.add(ingredients.get(match.id()).toSuggestion());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the usage count an ingredient is ranked by.
+     *
+     * @param ingredientId the ingredient id
+     * @param delta        change in the number of recipes using the ingredient
+     */
+    public void adjustUsage(Long ingredientId, int delta) {
+        lock.writeLock().lock();
+        try {
+            IndexedIngredient current = ingredients.get(ingredientId);
+            if (current != null) {
+                setUsage(ingredientId, current.usage() + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onIngredientSaved(IngredientSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index(event.ingredient());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onIngredientDeleted(IngredientDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            unindex(event.ingredientId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Ingredient ingredient) {
+        IndexedIngredient previous = unindex(ingredient.getId());
+        int usage = previous == null ? 0 : previous.usage();
+        Set<String> keys = keysFor(ingredient.getName());
+        keys.forEach(key -> trie.put(key, ingredient.getId(), usage));
+        fuzzyIndex.put(ingredient.getId(), ingredient.getName());
+        ingredients.put(ingredient.getId(), new IndexedIngredient(
+                ingredient.getId(), ingredient.getName(), ingredient.getUnit(), keys, usage));
+    }
+
+    private void setUsage(Long ingredientId, int usage) {
+        IndexedIngredient current = ingredients.get(ingredientId);
+        if (current == null) {
+            return;
+        }
+        int clamped = Math.max(0, usage);
+        ingredients.put(ingredientId, new IndexedIngredient(
+                current.id(), current.name(), current.unit(), current.keys(), clamped));
+        current.keys().forEach(key -> trie.put(key, ingredientId, clamped));
+    }
+
+    private IndexedIngredient unindex(Long ingredientId) {
+        IndexedIngredient previous = ingredients.remove(ingredientId);
+        if (previous != null) {
+            previous.keys().forEach(key -> trie.remove(key, ingredientId));
+            fuzzyIndex.remove(ingredientId);
+        }
+        return previous;
+    }
+
+    private static Set<String> keysFor(String name) {
+        String normalized = TextTokenizer.normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,34 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ua.com.edada.culinarynotes.ingredient.dto.IngredientSuggestion;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ingredients")
+@RequiredArgsConstructor
+@Slf4j
+public class IngredientController {
+
+    private final IngredientService ingredientService;
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<IngredientSuggestion>> autocompleteIngredients(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to autocomplete ingredients for prefix: {}", prefix);
+        return ResponseEntity.ok(ingredientService.autocompleteIngredients(prefix, limit));
+    }
+
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<IngredientSuggestion>> searchIngredientsFuzzy(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("REST request to fuzzy search ingredients for: {}", query);
+        return ResponseEntity.ok(ingredientService.searchIngredientsFuzzy(query, limit));
+    }
+}
@@ -0,0 +1,9 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+/**
+ * Published by {@link IngredientService} when an ingredient has been deleted.
+ * In-memory read models listen for it after the transaction commits.
+ *
+ * @param ingredientId id of the deleted ingredient
+ */
+public record IngredientDeletedEvent(Long ingredientId) {}
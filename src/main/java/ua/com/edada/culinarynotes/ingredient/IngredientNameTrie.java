@@ -0,0 +1,301 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Radix trie mapping normalized name keys to weighted ingredient ids.
+ * <p>
+ * Chains of single-child nodes are collapsed into one edge label, and every node stores the
+ * highest weight in its subtree. A top-K lookup therefore walks down to the prefix and then
+ * expands the subtree best-first, touching only the branches that can still contribute.
+ * <p>
+ * This class is not thread-safe; callers must guard it with a read/write lock.
+ */
+public class IngredientNameTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+    private static final int[] NO_WEIGHTS = new int[0];
+
+    // Highest weight first; equal weights in key order, entries before the nodes below them
+    private static final Comparator<Candidate> CANDIDATE_ORDER = Comparator
+            .comparingInt(Candidate::weight).reversed()
+            .thenComparing(Candidate::key)
+            .thenComparing(candidate -> candidate.node() != null)
+            .thenComparingLong(Candidate::id);
+
+    private final Node root = new Node("");
+    private int size;
+
+    /**
+     * Associates an id with a key, or updates its weight if the pair is already present.
+     */
+    public void put(String key, long id, int weight) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            int childIndex = node.findChild(key.charAt(position));
+            if (childIndex < 0) {
+                Node leaf = new Node(key.substring(position));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length()) {
+                child = node.splitChild(childIndex, common);
+            }
+            node = child;
+            path.add(node);
+            position += common;
+        }
+        if (node.putEntry(id, weight)) {
+            size++;
+        }
+        updateMaxWeights(path);
+    }
+
+    /**
+     * Removes the association between a key and an id.
+     *
+     * @return {@code true} if the pair was present
+     */
+    public boolean remove(String key, long id) {
+        List<Node> path = findPath(key);
+        if (path == null || !path.get(path.size() - 1).removeEntry(id)) {
+            return false;
+        }
+        size--;
+        prune(path);
+        updateMaxWeights(path);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct ids whose keys start with {@code prefix},
+     * highest weight first and alphabetically among equal weights.
+     */
+    public List<Long> topK(String prefix, int limit) {
+        Node node = root;
+        String nodeKey = "";
+        int position = 0;
+        while (position < prefix.length()) {
+            int childIndex = node.findChild(prefix.charAt(position));
+            if (childIndex < 0) {
+                return List.of();
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, prefix, position);
+            if (position + common == prefix.length()) {
+                // The prefix ends on or inside this edge, so the whole subtree matches
+                nodeKey = prefix.substring(0, position) + child.label;
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            position += common;
+            nodeKey = prefix.substring(0, position);
+            node = child;
+        }
+
+        List<Long> result = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(CANDIDATE_ORDER);
+        queue.add(new Candidate(node, nodeKey, node.maxWeight, -1));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node current = candidate.node();
+            if (current == null) {
+                if (seen.add(candidate.id())) {
+                    result.add(candidate.id());
+                }
+                continue;
+            }
+            for (int i = 0; i < current.ids.length; i++) {
+                queue.add(new Candidate(null, candidate.key(), current.weights[i], current.ids[i]));
+            }
+            for (Node child : current.children) {
+                queue.add(new Candidate(child, candidate.key() + child.label, child.maxWeight, -1));
+            }
+        }
+        return result;
+    }
+
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            int childIndex = node.findChild(key.charAt(position));
+            if (childIndex < 0) {
+                return null;
+            }
+            Node child = node.children[childIndex];
+            if (!key.startsWith(child.label, position)) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            position += child.label.length();
+        }
+        return path;
+    }
+
+    // Removes empty leaves and merges entry-less nodes with their only child to keep the trie compact
+    private static void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.ids.length > 0) {
+                break;
+            }
+            if (node.children.length == 0) {
+                parent.removeChild(node);
+                path.remove(i);
+            } else if (node.children.length == 1) {
+                node.absorbOnlyChild();
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static void updateMaxWeights(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).recomputeMaxWeight();
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private record Candidate(Node node, String key, int weight, long id) {}
+
+    private static final class Node {
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+        private int[] weights = NO_WEIGHTS;
+        private int maxWeight;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int findChild(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char candidate = children[middle].label.charAt(0);
+                if (candidate < first) {
+                    low = middle + 1;
+                } else if (candidate > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void addChild(Node child) {
+            int insertAt = -(findChild(child.label.charAt(0)) + 1);
+            Node[] expanded = new Node[children.length + 1];
+            System.arraycopy(children, 0, expanded, 0, insertAt);
+            expanded[insertAt] = child;
+            System.arraycopy(children, insertAt, expanded, insertAt + 1, children.length - insertAt);
+            children = expanded;
+        }
+
+        void removeChild(Node child) {
+            int index = findChild(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        Node splitChild(int index, int at) {
+            Node child = children[index];
+            Node middle = new Node(child.label.substring(0, at));
+            child.label = child.label.substring(at);
+            middle.children = new Node[] {child};
+            middle.maxWeight = child.maxWeight;
+            children[index] = middle;
+            return middle;
+        }
+
+        void absorbOnlyChild() {
+            Node child = children[0];
+            label = label + child.label;
+            children = child.children;
+            ids = child.ids;
+            weights = child.weights;
+        }
+
+        boolean putEntry(long id, int weight) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    weights[i] = weight;
+                    return false;
+                }
+            }
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            weights = Arrays.copyOf(weights, weights.length + 1);
+            ids[ids.length - 1] = id;
+            weights[weights.length - 1] = weight;
+            return true;
+        }
+
+        boolean removeEntry(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    int last = ids.length - 1;
+                    ids[i] = ids[last];
+                    weights[i] = weights[last];
+                    ids = last == 0 ? NO_IDS : Arrays.copyOf(ids, last);
+                    weights = last == 0 ? NO_WEIGHTS : Arrays.copyOf(weights, last);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void recomputeMaxWeight() {
+            int max = Integer.MIN_VALUE;
+            for (int weight : weights) {
+                max = Math.max(max, weight);
+            }
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max == Integer.MIN_VALUE ? 0 : max;
+        }
+    }
+}
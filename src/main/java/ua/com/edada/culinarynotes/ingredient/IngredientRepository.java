@@ -1,6 +1,12 @@
 package ua.com.edada.culinarynotes.ingredient;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -8,7 +14,33 @@ import java.util.Optional;
 
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Ingredient.QUERY_CACHE_REGION)
+    })
     Optional<Ingredient> findByNameAndUnit(String name, String unit);
+
     List<Ingredient> findByNameContainingIgnoreCase(String name);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Ingredient.QUERY_CACHE_REGION)
+    })
     boolean existsByNameAndUnit(String name, String unit);
-}
\ No newline at end of file
+
+    @RestResource(exported = false)
+    @Query("select count(ri) from RecipeIngredient ri where ri.ingredient.id = :ingredientId")
+    long countRecipeUsages(@Param("ingredientId") Long ingredientId);
+
+    /**
+     * Returns the number of recipes using each ingredient that is used at all.
+     */
+    @RestResource(exported = false)
+    @Query("""
+            select ri.ingredient.id as ingredientId, count(ri) as usage
+            from RecipeIngredient ri
+            group by ri.ingredient.id
+            """)
+    List<IngredientUsage> findUsageCounts();
+}
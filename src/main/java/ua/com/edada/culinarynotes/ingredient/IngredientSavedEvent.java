@@ -0,0 +1,9 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+/**
+ * Published by {@link IngredientService} when an ingredient has been created or updated.
+ * In-memory read models listen for it after the transaction commits.
+ *
+ * @param ingredient the saved ingredient
+ */
+public record IngredientSavedEvent(Ingredient ingredient) {}
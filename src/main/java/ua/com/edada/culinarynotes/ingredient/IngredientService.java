@@ -2,19 +2,28 @@ package ua.com.edada.culinarynotes.ingredient;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.ingredient.dto.IngredientSuggestion;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IngredientService {
 
+    static final int MAX_SUGGESTIONS = 50;
+
     private final IngredientRepository ingredientRepository;
+    private final IngredientAutocompleteIndex autocompleteIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Ingredient> getAllIngredients() {
@@ -29,6 +38,32 @@ public class IngredientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Ingredient", "id", id));
     }
 
+    /**
+     * Loads the given ingredients in one query.
+     *
+     * @throws ResourceNotFoundException if any of the ids does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<Ingredient> getIngredientsByIds(Collection<Long> ids) {
+        log.debug("Getting ingredients with ids: {}", ids);
+        List<Ingredient> ingredients = ingredientRepository.findAllById(ids);
+        Set<Long> missing = new HashSet<>(ids);
+        ingredients.forEach(ingredient -> missing.remove(ingredient.getId()));
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Ingredient", "id", missing.iterator().next());
+        }
+        return ingredients;
+    }
+
+    /**
+     * Returns the ingredients with the given ids that exist, skipping unknown ids.
+     */
+    @Transactional(readOnly = true)
+    public List<Ingredient> findIngredientsByIds(Collection<Long> ids) {
+        log.debug("Finding ingredients with ids: {}", ids);
+        return ingredientRepository.findAllById(ids);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Ingredient> getIngredientByNameAndUnit(String name, String unit) {
         log.debug("Getting ingredient with name: {} and unit: {}", name, unit);
@@ -41,6 +76,34 @@ public class IngredientService {
         return ingredientRepository.findByNameContainingIgnoreCase(name);
     }
 
+    /**
+     * Typeahead suggestions served from the in-memory prefix index, without a database round trip.
+     *
+     * @param prefix the text typed so far
+     * @param limit  maximum number of suggestions, clamped to {@code [1, MAX_SUGGESTIONS]}
+     * @return matching ingredients, most used first
+     */
+    public List<IngredientSuggestion> autocompleteIngredients(String prefix, int limit) {
+        log.debug("Autocompleting ingredients for prefix: {}", prefix);
+        return autocompleteIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Typo-tolerant name lookup served from memory within a fixed time budget, for queries the
+     * substring search finds nothing for, e.g. "tomatoe".
+     *
+     * @param query ingredient name words, possibly misspelled
+     * @param limit maximum number of matches, clamped to {@code [1, MAX_SUGGESTIONS]}
+     * @return matching ingredients, closest first
+     */
+    public List<IngredientSuggestion> searchIngredientsFuzzy(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        log.debug("Fuzzy searching ingredients for: {}", query);
+        return autocompleteIndex.searchFuzzy(query, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     @Transactional
     public Ingredient createIngredient(Ingredient ingredient) {
         log.debug("Creating new ingredient: {} ({})", ingredient.getName(), ingredient.getUnit());
@@ -51,7 +114,9 @@ public class IngredientService {
             throw new IllegalArgumentException("Ingredient already exists with this name and unit");
         }
         
-        return ingredientRepository.save(ingredient);
+        Ingredient savedIngredient = ingredientRepository.save(ingredient);
+        eventPublisher.publishEvent(new IngredientSavedEvent(savedIngredient));
+        return savedIngredient;
     }
 
     @Transactional
@@ -74,7 +139,9 @@ public class IngredientService {
         ingredient.setDescription(ingredientDetails.getDescription());
         ingredient.setUnit(ingredientDetails.getUnit());
         
-        return ingredientRepository.save(ingredient);
+        Ingredient savedIngredient = ingredientRepository.save(ingredient);
+        eventPublisher.publishEvent(new IngredientSavedEvent(savedIngredient));
+        return savedIngredient;
     }
 
     @Transactional
@@ -84,7 +151,14 @@ public class IngredientService {
         if (!ingredientRepository.existsById(id)) {
             throw new ResourceNotFoundException("Ingredient", "id", id);
         }
+
+        long usages = ingredientRepository.countRecipeUsages(id);
+        if (usages > 0) {
+            log.error("Ingredient with id: {} is used by {} recipes", id, usages);
+            throw new IllegalArgumentException("Ingredient is used by " + usages + " recipes");
+        }
         
         ingredientRepository.deleteById(id);
+        eventPublisher.publishEvent(new IngredientDeletedEvent(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+/**
+ * Projection of how many recipes use an ingredient.
+ */
+public interface IngredientUsage {
+
+    Long getIngredientId();
+
+    long getUsage();
+}
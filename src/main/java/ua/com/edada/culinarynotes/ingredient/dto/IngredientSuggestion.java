@@ -0,0 +1,16 @@
+package ua.com.edada.culinarynotes.ingredient.dto;
+
+/**
+ * An autocomplete suggestion for an ingredient name.
+ *
+ * @param id    the ingredient id
+ * @param name  the ingredient name
+ * @param unit  the ingredient unit, may be {@code null}
+ * @param usage how many recipes use the ingredient
+ */
+public record IngredientSuggestion(
+    Long id,
+    String name,
+    String unit,
+    int usage
+) {}
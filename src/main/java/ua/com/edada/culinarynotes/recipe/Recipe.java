@@ -1,33 +1,86 @@
 package ua.com.edada.culinarynotes.recipe;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyGroup;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = {
+        @Index(name = "idx_recipes_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_recipes_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_recipes_total_time_id", columnList = "total_time_minutes, id"),
+        @Index(name = "idx_recipes_servings_total_time", columnList = "servings, total_time_minutes")
+})
+@NamedEntityGraph(
+        name = Recipe.FULL,
+        attributeNodes = {
+                @NamedAttributeNode(value = "ingredients", subgraph = "lines"),
+                @NamedAttributeNode("description"),
+                @NamedAttributeNode("instructions")
+        },
+        subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("ingredient")))
+@NamedEntityGraph(
+        name = Recipe.WITH_TEXT,
+        attributeNodes = {@NamedAttributeNode("description"), @NamedAttributeNode("instructions")})
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Recipe {
 
+    /**
+     * Entity graph fetching a recipe as clients see it: the lazy TEXT columns and the ingredient
+     * lines with their ingredients, all with the recipe itself.
+     */
+    public static final String FULL = "Recipe.full";
+
+    /**
+     * Entity graph fetching just the lazy TEXT columns with the recipe.
+     */
+    public static final String WITH_TEXT = "Recipe.withText";
+
+    // Pooled sequence instead of an identity column, so inserts can be sent in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_seq")
+    @SequenceGenerator(name = "recipes_seq", sequenceName = "recipes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String title;
 
+    // TEXT columns are only fetched when first read, both with one query, unless an entity graph asks for them
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("text")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("text")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Column(columnDefinition = "TEXT")
     private String instructions;
 
@@ -37,9 +90,81 @@ public class Recipe {
 
     private Integer servings;
 
+    // Generated by the database so filters and sorts on it can use an index; computeTotalTime
+    // keeps loaded recipes in step without reading the row back after every write
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false, columnDefinition = "integer GENERATED ALWAYS AS "
+            + "(coalesce(preparation_time_minutes, 0) + coalesce(cooking_time_minutes, 0)) STORED")
+    private Integer totalTimeMinutes;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Lines of up to a full page of recipes are loaded with one query
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @BatchSize(size = 100)
+    private List<RecipeIngredient> ingredients = new ArrayList<>();
+
+    /**
+     * Replaces the ingredient lines. Lines for ingredients the recipe already uses are updated
+     * in place, so the unique {@code (recipe_id, ingredient_id)} constraint is never hit by an
+     * insert running ahead of the orphan delete.
+     *
+     * @return whether any line was added, removed or changed; line changes alone do not make the
+     *         recipe dirty, so its version has to be bumped explicitly
+     */
+    public boolean replaceIngredients(List<RecipeIngredient> lines) {
+        Map<Long, RecipeIngredient> existing = new HashMap<>();
+        ingredients.forEach(line -> existing.put(line.getIngredient().getId(), line));
+        boolean changed = existing.size() != lines.size();
+        ingredients.clear();
+        for (RecipeIngredient line : lines) {
+            RecipeIngredient kept = existing.get(line.getIngredient().getId());
+            if (kept != null) {
+                changed |= !sameQuantity(kept.getQuantity(), line.getQuantity());
+                kept.setQuantity(line.getQuantity());
+                ingredients.add(kept);
+            } else {
+                changed = true;
+                line.setRecipe(this);
+                ingredients.add(line);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Mirrors the generated {@code total_time_minutes} column: a missing time counts as zero.
+     */
+    @PrePersist
+    @PreUpdate
+    void computeTotalTime() {
+        totalTimeMinutes = Objects.requireNonNullElse(preparationTimeMinutes, 0)
+                + Objects.requireNonNullElse(cookingTimeMinutes, 0);
+    }
+
+    /**
+     * Ids of the ingredients this recipe uses.
+     */
+    public List<Long> ingredientIds() {
+        return ingredients.stream()
+                .map(line -> line.getIngredient().getId())
+                .toList();
+    }
+
+    private static boolean sameQuantity(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
@@ -0,0 +1,163 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientSavedEvent;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of recipes by id, in front of the database for the hot set of
+ * recipes that are read over and over.
+ * <p>
+ * Backed by Caffeine, whose W-TinyLFU policy only admits a new recipe when it is requested
+ * more often than the one it would evict, so a burst of one-off reads cannot flush the hot set.
+ * The cache is bounded by the estimated size of the recipes rather than their number.
+ * Concurrent misses for the same id wait for one shared load.
+ * <p>
+ * The cache keeps a detached copy of each loaded recipe and hands every reader a copy of its
+ * own, never the entity of a persistence context. Changes a caller makes to a recipe it got
+ * from the cache, committed or not, never reach other readers.
+ * <p>
+ * Entries are evicted after commit or rollback by {@link RecipeSavedEvent},
+ * {@link RecipeDeletedEvent} and, for the recipes embedding the ingredient,
+ * {@link IngredientSavedEvent}. Caffeine blocks an
+ * eviction until a load of the same id has finished, so a load that read the old row cannot
+ * outlive the eviction. The time to live only bounds staleness from writes made outside the
+ * application. Hit, miss and eviction counts are published as {@code cache.*} metrics tagged
+ * {@code cache=recipes}.
+ */
+@Component
+@Slf4j
+public class RecipeCache {
+
+    static final String NAME = "recipes";
+
+    // Rough per-object overheads in bytes; only the relative size of recipes matters
+    private static final int RECIPE_OVERHEAD = 256;
+    private static final int LINE_OVERHEAD = 96;
+
+    // Null when the cache is disabled
+    private final Cache<Long, Recipe> cache;
+
+    public RecipeCache(@Value("${recipe.cache.enabled:true}") boolean enabled,
+                       @Value("${recipe.cache.max-size:32MB}") DataSize maxSize,
+                       @Value("${recipe.cache.time-to-live:10m}") Duration timeToLive,
+                       MeterRegistry meterRegistry) {
+        if (!enabled) {
+            log.info("Recipe cache is disabled");
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, Recipe recipe) -> weigh(recipe))
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Returns a copy of the cached recipe, loading it with {@code loader} on a miss. The loaded
+     * recipe needs its text and ingredient lines initialized. Recipes that do not exist are not
+     * cached.
+     */
+    public Optional<Recipe> get(Long id, Function<Long, Optional<Recipe>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).map(RecipeCache::copyOf).orElse(null)))
+                .map(RecipeCache::copyOf);
+    }
+
+    /**
+     * Returns a copy of the recipe if it is cached, without loading it.
+     */
+    public Optional<Recipe> getIfPresent(Long id) {
+        return cache == null ? Optional.empty() : Optional.ofNullable(cache.getIfPresent(id)).map(RecipeCache::copyOf);
+    }
+
+    // After completion rather than after commit: a load in the writing session may have cached a rolled back change
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        if (cache != null) {
+            cache.invalidate(event.recipe().getId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onRecipesDeleted(RecipeDeletedEvent event) {
+        if (cache != null) {
+            cache.invalidateAll(event.recipeIds());
+        }
+    }
+
+    /**
+     * Evicts the cached recipes embedding the saved ingredient; the rest of the cache stays warm.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onIngredientSaved(IngredientSavedEvent event) {
+        if (cache != null) {
+            Long ingredientId = event.ingredient().getId();
+            cache.asMap().values().removeIf(recipe -> recipe.ingredientIds().contains(ingredientId));
+        }
+    }
+
+    /**
+     * Detached deep copy of a recipe with its ingredient lines and their ingredients.
+     */
+    private static Recipe copyOf(Recipe recipe) {
+        Recipe copy = Recipe.builder()
+                .id(recipe.getId())
+                .title(recipe.getTitle())
+                .description(recipe.getDescription())
+                .instructions(recipe.getInstructions())
+                .preparationTimeMinutes(recipe.getPreparationTimeMinutes())
+                .cookingTimeMinutes(recipe.getCookingTimeMinutes())
+                .servings(recipe.getServings())
+                .totalTimeMinutes(recipe.getTotalTimeMinutes())
+                .createdAt(recipe.getCreatedAt())
+                .updatedAt(recipe.getUpdatedAt())
+                .version(recipe.getVersion())
+                .build();
+        for (RecipeIngredient line : recipe.getIngredients()) {
+            Ingredient ingredient = line.getIngredient();
+            copy.getIngredients().add(RecipeIngredient.builder()
+                    .id(line.getId())
+                    .recipe(copy)
+                    .ingredient(Ingredient.builder()
+                            .id(ingredient.getId())
+                            .name(ingredient.getName())
+                            .description(ingredient.getDescription())
+                            .unit(ingredient.getUnit())
+                            .createdAt(ingredient.getCreatedAt())
+                            .updatedAt(ingredient.getUpdatedAt())
+                            .build())
+                    .quantity(line.getQuantity())
+                    .build());
+        }
+        return copy;
+    }
+
+    private static int weigh(Recipe recipe) {
+        return RECIPE_OVERHEAD
+                + 2 * (length(recipe.getTitle()) + length(recipe.getDescription()) + length(recipe.getInstructions()))
+                + LINE_OVERHEAD * recipe.getIngredients().size();
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+}
@@ -3,13 +3,38 @@ package ua.com.edada.culinarynotes.recipe;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.com.edada.culinarynotes.exception.PreconditionFailedException;
+import ua.com.edada.culinarynotes.recipe.dto.PantrySearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchGetResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchResponse;
 import ua.com.edada.culinarynotes.recipe.dto.RecipeCreateRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeDeleteResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipePage;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeTitleMatch;
 import ua.com.edada.culinarynotes.recipe.dto.RecipeUpdateRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/recipes")
@@ -17,7 +42,11 @@ import java.util.List;
 @Slf4j
 public class RecipeController {
 
+    // Request parameter defaults have to be constant strings
+    private static final String DEFAULT_PAGE_SIZE = "" + RecipeService.DEFAULT_PAGE_SIZE;
+
     private final RecipeService recipeService;
+    private final RecipeExportService recipeExportService;
 
     @GetMapping
     public ResponseEntity<List<Recipe>> getAllRecipes() {
@@ -25,11 +54,113 @@ public class RecipeController {
         return ResponseEntity.ok(recipeService.getAllRecipes());
     }
 
+    /**
+     * Returns only the requested fields of every recipe, e.g. {@code fields=id,title,cookingTimeMinutes}.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllRecipes(@RequestParam String fields) {
+        log.info("REST request to get fields {} of all recipes", fields);
+        return ResponseEntity.ok(recipeService.getAllRecipes(RecipeField.parse(fields)));
+    }
+
+    /**
+     * Returns the recipes with the given ids in request order, e.g. {@code ids=3,1,2}, listing
+     * the ids without a recipe separately, so a client needs one request for a whole feed.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<RecipeBatchGetResponse> getRecipesByIds(@RequestParam List<Long> ids) {
+        log.info("REST request to get {} recipes by id", ids.size());
+        return ResponseEntity.ok(recipeService.getRecipesByIds(ids));
+    }
+
+    /**
+     * Returns one keyset page. The strong ETag covers the ids and versions of the recipes on the
+     * page, so a matching {@code If-None-Match} gets a 304 without the page being serialized.
+     * Pages carry no Last-Modified: deleting a recipe changes a page without moving any timestamp.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<RecipePage<Recipe>> getRecipePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        log.info("REST request to get recipe page sorted by {} (size {})", sort, size);
+        RecipeSortField sortField = RecipeSortField.fromParameter(sort);
+        RecipePage<Recipe> page = recipeService.getRecipePage(cursor, size, sortField, withTotal);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(pageEtag(page))
+                .body(page);
+    }
+
+    /**
+     * Returns one keyset page with only the requested fields of each recipe. The ETag is derived
+     * from the page content, so it only changes when a requested field does.
+     */
+    @GetMapping(value = "/page", params = "fields")
+    public ResponseEntity<RecipePage<Map<String, Object>>> getRecipePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam String fields) {
+        log.info("REST request to get fields {} of recipe page sorted by {} (size {})", fields, sort, size);
+        RecipeSortField sortField = RecipeSortField.fromParameter(sort);
+        RecipePage<Map<String, Object>> page =
+                recipeService.getRecipePage(cursor, size, sortField, withTotal, RecipeField.parse(fields));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(contentEtag(page))
+                .body(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRecipes() {
+        log.info("REST request to export all recipes");
+        StreamingResponseBody body = recipeExportService::exportRecipes;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Returns a recipe with its version as strong ETag and its update time as Last-Modified.
+     * Conditional requests are checked against the validators alone, so a 304 is answered
+     * without loading the recipe.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id) {
+    public ResponseEntity<Recipe> getRecipeById(@PathVariable Long id, WebRequest webRequest) {
         log.info("REST request to get recipe with id: {}", id);
+
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<RecipeVersion> version = recipeService.getRecipeVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (webRequest.checkNotModified(String.valueOf(version.get().getVersion()),
+                    toEpochMilli(version.get().getUpdatedAt()))) {
+                // 304 with validators already set on the response
+                return null;
+            }
+        }
         return recipeService.getRecipeById(id)
-                .map(ResponseEntity::ok)
+                .map(RecipeController::okWithValidators)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Returns only the requested fields of a recipe, with an ETag derived from them.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getRecipeById(@PathVariable Long id, @RequestParam String fields) {
+        log.info("REST request to get fields {} of recipe with id: {}", fields, id);
+        return recipeService.getRecipeById(id, RecipeField.parse(fields))
+                .map(recipe -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .eTag(contentEtag(recipe))
+                        .body(recipe))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -39,6 +170,93 @@ public class RecipeController {
         return ResponseEntity.ok(recipeService.searchRecipesByTitle(title));
     }
 
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchRecipes(@RequestParam String title,
+                                                                   @RequestParam String fields) {
+        log.info("REST request to search fields {} of recipes with title containing: {}", fields, title);
+        return ResponseEntity.ok(recipeService.searchRecipesByTitle(title, RecipeField.parse(fields)));
+    }
+
+    /**
+     * Filters recipes by time, servings and date ranges, e.g.
+     * {@code maxTotalTimeMinutes=30&minServings=4&sort=totalTimeMinutes}.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<RecipeFilterResponse> filterRecipes(
+            @Valid RecipeFilterRequest filter,
+            @RequestParam(defaultValue = "totalTimeMinutes") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        log.info("REST request to filter recipes by {} sorted by {} {}", filter, sort, direction);
+        return ResponseEntity.ok(recipeService.filterRecipes(filter, RecipeFilterSortField.fromParameter(sort),
+                Sort.Direction.fromString(direction), page, size));
+    }
+
+    /**
+     * Same as {@link #filterRecipes} but served from the in-memory recipe catalog.
+     */
+    @GetMapping("/filter/instant")
+    public ResponseEntity<RecipeFilterResponse> filterRecipesInMemory(
+            @Valid RecipeFilterRequest filter,
+            @RequestParam(defaultValue = "totalTimeMinutes") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        log.info("REST request to filter recipe catalog by {} sorted by {} {}", filter, sort, direction);
+        return ResponseEntity.ok(recipeService.filterRecipesInMemory(filter, RecipeFilterSortField.fromParameter(sort),
+                Sort.Direction.fromString(direction), page, size));
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<RecipeSearchResponse> searchRecipesFullText(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        log.info("REST request to full-text search recipes for: {}", query);
+        return ResponseEntity.ok(recipeService.searchRecipesFullText(query, page, size));
+    }
+
+    /**
+     * Same as {@link #searchRecipesFullText} with {@code facets=true} adding counts of all hits per
+     * total time bucket and servings range.
+     */
+    @GetMapping(value = "/search/text", params = "facets")
+    public ResponseEntity<RecipeSearchResponse> searchRecipesFullText(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+            @RequestParam boolean facets) {
+        log.info("REST request to full-text search recipes for: {} (facets: {})", query, facets);
+        return ResponseEntity.ok(recipeService.searchRecipesFullText(query, page, size, facets));
+    }
+
+    @GetMapping("/search/instant")
+    public ResponseEntity<List<RecipeSearchResult>> searchRecipesInMemory(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        log.info("REST request to instant search recipes for: {}", query);
+        return ResponseEntity.ok(recipeService.searchRecipesInMemory(query, limit));
+    }
+
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<RecipeTitleMatch>> searchRecipesFuzzy(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        log.info("REST request to fuzzy search recipe titles for: {}", query);
+        return ResponseEntity.ok(recipeService.searchRecipesFuzzy(query, limit));
+    }
+
+    @GetMapping("/search/pantry")
+    public ResponseEntity<PantrySearchResponse> findRecipesForPantry(
+            @RequestParam List<Long> ingredientIds,
+            @RequestParam(defaultValue = "0") int maxMissing,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        log.info("REST request to find recipes for {} pantry ingredients missing at most {}",
+                ingredientIds.size(), maxMissing);
+        return ResponseEntity.ok(recipeService.findRecipesForPantry(ingredientIds, maxMissing, limit));
+    }
+
     @PostMapping
     public ResponseEntity<Recipe> createRecipe(@Valid @RequestBody RecipeCreateRequest request) {
         log.info("REST request to create a new recipe: {}", request.title());
@@ -52,50 +270,148 @@ public class RecipeController {
                 .servings(request.servings())
                 .build();
         
-        return new ResponseEntity<>(recipeService.saveRecipe(recipe), HttpStatus.CREATED);
+        return new ResponseEntity<>(recipeService.saveRecipe(recipe, request.ingredients()), HttpStatus.CREATED);
     }
 
+    /**
+     * Creates up to {@link RecipeService#MAX_BATCH_SIZE} recipes in one transaction. Responds
+     * with 201 and the per-recipe ids, or with 400 and the per-recipe errors when any recipe is
+     * invalid, in which case none is created.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<RecipeBatchResponse> createRecipes(@RequestBody List<RecipeCreateRequest> requests) {
+        log.info("REST request to create a batch of {} recipes", requests.size());
+        RecipeBatchResponse response = recipeService.createRecipes(requests);
+        return new ResponseEntity<>(response, response.invalid() == 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Updates the fields present in the request. With {@code If-Match} carrying the ETag the
+     * client last read, the update only applies to that version of the recipe (412 otherwise);
+     * the check is part of the UPDATE statement rather than an extra read.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Recipe> updateRecipe(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody RecipeUpdateRequest request) {
         log.info("REST request to update recipe with id: {}", id);
-        
-        return recipeService.getRecipeById(id)
-                .map(existingRecipe -> {
-                    if (request.title() != null) {
-                        existingRecipe.setTitle(request.title());
-                    }
-                    if (request.description() != null) {
-                        existingRecipe.setDescription(request.description());
-                    }
-                    if (request.instructions() != null) {
-                        existingRecipe.setInstructions(request.instructions());
-                    }
-                    if (request.preparationTimeMinutes() != null) {
-                        existingRecipe.setPreparationTimeMinutes(request.preparationTimeMinutes());
-                    }
-                    if (request.cookingTimeMinutes() != null) {
-                        existingRecipe.setCookingTimeMinutes(request.cookingTimeMinutes());
-                    }
-                    if (request.servings() != null) {
-                        existingRecipe.setServings(request.servings());
-                    }
-                    
-                    return ResponseEntity.ok(recipeService.saveRecipe(existingRecipe));
-                })
+
+        if (ifMatch == null) {
+            return recipeService.patchRecipe(id, request)
+                    .map(RecipeController::okWithValidators)
+                    .orElse(ResponseEntity.notFound().build());
+        }
+
+        Long expectedVersion = parseIfMatch(ifMatch, id);
+        Optional<Recipe> updated;
+        try {
+            updated = expectedVersion == null
+                    ? recipeService.patchRecipe(id, request)
+                    : recipeService.patchRecipe(id, expectedVersion, request);
+        } catch (OptimisticLockingFailureException ex) {
+            throw new PreconditionFailedException("Recipe " + id + " does not match " + ifMatch);
+        }
+        return updated
+                .map(RecipeController::okWithValidators)
+                .orElseThrow(() -> new PreconditionFailedException("Recipe " + id + " does not exist"));
+    }
+
+    /**
+     * Updates the fields present in the request. With {@code version}, the update only applies
+     * if the recipe is still at that version (409 otherwise), and unless the ingredients change
+     * it is done without reading the recipe first.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Recipe> patchRecipe(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long version,
+            @Valid @RequestBody RecipeUpdateRequest request) {
+        log.info("REST request to patch recipe with id: {}", id);
+
+        Optional<Recipe> patched = version == null
+                ? recipeService.patchRecipe(id, request)
+                : recipeService.patchRecipe(id, version, request);
+        return patched
+                .map(RecipeController::okWithValidators)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRecipe(@PathVariable Long id) {
         log.info("REST request to delete recipe with id: {}", id);
-        
-        if (recipeService.getRecipeById(id).isPresent()) {
-            recipeService.deleteRecipe(id);
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
+
+        return recipeService.deleteRecipe(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Deletes recipes by criteria: either the given {@code ids} in one statement, or everything
+     * created before {@code createdBefore} in bounded chunks, never both. Only the former lists
+     * the deleted ids.
+     */
+    @DeleteMapping
+    public ResponseEntity<RecipeDeleteResponse> deleteRecipes(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore) {
+        if ((ids == null) == (createdBefore == null)) {
+            throw new IllegalArgumentException("Exactly one of ids or createdBefore is required");
         }
+        log.info("REST request to delete recipes {}",
+                ids != null ? "with ids " + ids : "created before " + createdBefore);
+
+        if (ids == null) {
+            return ResponseEntity.ok(new RecipeDeleteResponse(recipeService.deleteRecipesCreatedBefore(createdBefore), null));
+        }
+        List<Long> deletedIds = recipeService.deleteRecipes(ids);
+        return ResponseEntity.ok(new RecipeDeleteResponse(deletedIds.size(), deletedIds));
+    }
+
+    private static ResponseEntity<Recipe> okWithValidators(Recipe recipe) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (recipe.getVersion() != null) {
+            response.eTag(String.valueOf(recipe.getVersion()));
+        }
+        if (recipe.getUpdatedAt() != null) {
+            response.lastModified(toEpochMilli(recipe.getUpdatedAt()));
+        }
+        return response.body(recipe);
+    }
+
+    private static String pageEtag(RecipePage<Recipe> page) {
+        StringBuilder validators = new StringBuilder();
+        page.items().forEach(recipe -> validators.append(recipe.getId()).append(':').append(recipe.getVersion()).append(','));
+        validators.append(page.nextCursor()).append(',').append(page.estimatedTotal());
+        return DigestUtils.md5DigestAsHex(validators.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Strong ETag over a projected representation, for responses without a version to go by.
+     */
+    private static String contentEtag(Object body) {
+        return DigestUtils.md5DigestAsHex(String.valueOf(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the recipe version a strong {@code If-Match} ETag stands for, or {@code null} for {@code *}.
+     */
+    private static Long parseIfMatch(String ifMatch, Long id) {
+        String etag = ifMatch.trim();
+        if (etag.equals("*")) {
+            return null;
+        }
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Not an ETag issued for a recipe, so it cannot match
+            }
+        }
+        throw new PreconditionFailedException("Recipe " + id + " does not match " + ifMatch);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
-}
\ No newline at end of file
+}
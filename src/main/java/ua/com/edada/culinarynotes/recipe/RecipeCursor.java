@@ -0,0 +1,55 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last recipe returned in a keyset page.
+ * <p>
+ * Clients only ever see the encoded form, which is an opaque URL-safe string.
+ *
+ * @param sortField the ordering the cursor belongs to
+ * @param timestamp the sort column value of the last returned recipe
+ * @param id        the id of the last returned recipe
+ */
+public record RecipeCursor(RecipeSortField sortField, LocalDateTime timestamp, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static RecipeCursor of(RecipeSortField sortField, Recipe recipe) {
+        LocalDateTime timestamp = sortField == RecipeSortField.UPDATED_AT
+                ? recipe.getUpdatedAt()
+                : recipe.getCreatedAt();
+        return new RecipeCursor(sortField, timestamp, recipe.getId());
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded the opaque cursor string
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static RecipeCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + encoded);
+            }
+            return new RecipeCursor(
+                    RecipeSortField.valueOf(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + encoded, ex);
+        }
+    }
+}
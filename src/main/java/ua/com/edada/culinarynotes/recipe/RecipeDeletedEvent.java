@@ -0,0 +1,11 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.Collection;
+
+/**
+ * Published by {@link RecipeService} when recipes have been deleted.
+ * In-memory read models listen for it after the transaction commits.
+ *
+ * @param recipeIds ids of the deleted recipes
+ */
+public record RecipeDeletedEvent(Collection<Long> recipeIds) {}
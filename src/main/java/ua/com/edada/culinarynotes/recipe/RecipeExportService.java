@@ -0,0 +1,82 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeExportService {
+
+    private static final int FLUSH_INTERVAL = 500;
+    private static final int FETCH_BATCH_SIZE = 100;
+
+    private final RecipeRepository recipeRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every recipe to the given stream as newline-delimited JSON.
+     * <p>
+     * Rows are read through a database cursor in chunks whose ingredient lines are batch fetched
+     * together, and detached right after they are written, so memory use stays flat regardless
+     * of the catalog size.
+     *
+     * @param outputStream the stream to write to; it is flushed but not closed
+     * @return the number of exported recipes
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportRecipes(OutputStream outputStream) throws IOException {
+        log.debug("Exporting all recipes as NDJSON");
+        long startedAt = System.currentTimeMillis();
+        long count = 0;
+
+        try (Stream<Recipe> recipes = recipeRepository.streamAllOrderById();
+             SequenceWriter writer = objectMapper.writerFor(Recipe.class)
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(outputStream)) {
+            Iterator<Recipe> iterator = recipes.iterator();
+            List<Recipe> chunk = new ArrayList<>(FETCH_BATCH_SIZE);
+            while (iterator.hasNext()) {
+                while (iterator.hasNext() && chunk.size() < FETCH_BATCH_SIZE) {
+                    chunk.add(iterator.next());
+                }
+                RecipeService.fetchIngredientLines(chunk);
+                for (Recipe recipe : chunk) {
+                    writer.write(recipe);
+                    entityManager.detach(recipe);
+                    count++;
+
+                    // Flush the first row immediately so the client starts receiving data right away
+                    if (count == 1 || count % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                }
+                chunk.clear();
+            }
+            writer.flush();
+            if (count > 0) {
+                outputStream.write('\n');
+            }
+        }
+        outputStream.flush();
+
+        log.info("Exported {} recipes in {} ms", count, System.currentTimeMillis() - startedAt);
+        return count;
+    }
+}
@@ -0,0 +1,13 @@
+package ua.com.edada.culinarynotes.recipe;
+
+/**
+ * Projection of the number of full-text search matches sharing a total time and serving count.
+ */
+public interface RecipeFacetRow {
+
+    Integer getTotalTimeMinutes();
+
+    Integer getServings();
+
+    Long getRecipes();
+}
@@ -0,0 +1,86 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Scalar recipe attributes a client can pick with {@code fields=}. Only the picked columns are
+ * selected, so list screens skip the TEXT columns entirely. Ingredient lines are only part of
+ * the full representation.
+ */
+public enum RecipeField {
+
+    ID("id", Recipe::getId),
+    TITLE("title", Recipe::getTitle),
+    DESCRIPTION("description", Recipe::getDescription),
+    INSTRUCTIONS("instructions", Recipe::getInstructions),
+    PREPARATION_TIME_MINUTES("preparationTimeMinutes", Recipe::getPreparationTimeMinutes),
+    COOKING_TIME_MINUTES("cookingTimeMinutes", Recipe::getCookingTimeMinutes),
+    SERVINGS("servings", Recipe::getServings),
+    TOTAL_TIME_MINUTES("totalTimeMinutes", Recipe::getTotalTimeMinutes),
+    CREATED_AT("createdAt", Recipe::getCreatedAt),
+    UPDATED_AT("updatedAt", Recipe::getUpdatedAt),
+    VERSION("version", Recipe::getVersion);
+
+    private final String attributeName;
+    private final Function<Recipe, Object> getter;
+
+    RecipeField(String attributeName, Function<Recipe, Object> getter) {
+        this.attributeName = attributeName;
+        this.getter = getter;
+    }
+
+    /**
+     * The {@link Recipe} attribute name, which is also the JSON property name.
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * Resolves a field from its attribute name (e.g. {@code cookingTimeMinutes}).
+     *
+     * @throws IllegalArgumentException if the name is not a selectable field
+     */
+    public static RecipeField fromParameter(String value) {
+        return Arrays.stream(values())
+                .filter(field -> field.attributeName.equalsIgnoreCase(value) || field.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported recipe field: " + value));
+    }
+
+    /**
+     * Parses a comma-separated {@code fields=} parameter, e.g. {@code id,title,cookingTimeMinutes}.
+     *
+     * @throws IllegalArgumentException if the list is empty or names an unsupported field
+     */
+    public static Set<RecipeField> parse(String commaSeparated) {
+        Set<RecipeField> fields = EnumSet.noneOf(RecipeField.class);
+        for (String name : commaSeparated.split(",")) {
+            if (!name.isBlank()) {
+                fields.add(fromParameter(name.trim()));
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipe field is required");
+        }
+        return fields;
+    }
+
+    /**
+     * Picks the given fields of an already loaded recipe.
+     *
+     * @return the field values by attribute name, in declaration order
+     */
+    public static Map<String, Object> project(Recipe recipe, Set<RecipeField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (RecipeField field : EnumSet.copyOf(fields)) {
+            values.put(field.attributeName, field.getter.apply(recipe));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,40 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.Arrays;
+
+/**
+ * Columns a filtered recipe list can be ordered by. Each has a {@code (column, id)} index, so
+ * a page is read by walking that index in either direction and stops after the requested rows.
+ * Only columns that are never null are offered: null ordering would defeat the backward scan.
+ */
+public enum RecipeFilterSortField {
+
+    TOTAL_TIME_MINUTES("totalTimeMinutes"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String parameterName;
+
+    RecipeFilterSortField(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    /**
+     * The request parameter name, which is also the {@link Recipe} attribute name.
+     */
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    /**
+     * Resolves a sort field from its request parameter name (e.g. {@code totalTimeMinutes}).
+     *
+     * @throws IllegalArgumentException if the value is not a supported sort field
+     */
+    public static RecipeFilterSortField fromParameter(String value) {
+        return Arrays.stream(values())
+                .filter(field -> field.parameterName.equalsIgnoreCase(value) || field.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort field: " + value));
+    }
+}
@@ -0,0 +1,50 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+
+import java.math.BigDecimal;
+
+/**
+ * One ingredient line of a recipe: which ingredient and how much of it, in the ingredient's unit.
+ */
+@Entity
+@Table(name = "recipe_ingredients",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_recipe_ingredients_recipe_ingredient", columnNames = {"recipe_id", "ingredient_id"}),
+        indexes = @Index(name = "idx_recipe_ingredients_ingredient_id", columnList = "ingredient_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeIngredient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_ingredients_seq")
+    @SequenceGenerator(name = "recipe_ingredients_seq", sequenceName = "recipe_ingredients_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "recipe_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Recipe recipe;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "ingredient_id", nullable = false)
+    private Ingredient ingredient;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal quantity;
+}
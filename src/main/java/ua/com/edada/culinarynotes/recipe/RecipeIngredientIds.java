@@ -0,0 +1,11 @@
+package ua.com.edada.culinarynotes.recipe;
+
+/**
+ * Projection of a recipe id and the comma-separated ids of the ingredients it uses.
+ */
+public interface RecipeIngredientIds {
+
+    Long getRecipeId();
+
+    String getIngredientIds();
+}
@@ -0,0 +1,21 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the numeric attributes of a recipe, for the in-memory recipe catalog.
+ */
+public interface RecipeNumbers {
+
+    Long getId();
+
+    Integer getPreparationTimeMinutes();
+
+    Integer getCookingTimeMinutes();
+
+    Integer getServings();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,26 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom {@link RecipeRepository} fragment for updates that must not load the recipe first.
+ */
+public interface RecipePatchRepository {
+
+    /**
+     * Sets the given attributes of a recipe with a single {@code UPDATE ... RETURNING} statement,
+     * provided it still has the expected version. The version is incremented and
+     * {@code updatedAt} refreshed; all other columns are left untouched.
+     * <p>
+     * The recipe must not already be managed by the current persistence context, otherwise the
+     * stale managed instance is returned instead of the updated row.
+     *
+     * @param id              the recipe id
+     * @param expectedVersion the version the caller last read
+     * @param attributes      new values by {@link Recipe} attribute name; only the scalar
+     *                        recipe attributes are supported
+     * @return the updated recipe, empty when no recipe has this id and version
+     */
+    Optional<Recipe> patchIfVersionMatches(Long id, long expectedVersion, Map<String, Object> attributes);
+}
@@ -0,0 +1,48 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class RecipePatchRepositoryImpl implements RecipePatchRepository {
+
+    // Attributes that may be patched, with their columns
+    private static final Map<String, String> COLUMNS = Map.of(
+            "title", "title",
+            "description", "description",
+            "instructions", "instructions",
+            "preparationTimeMinutes", "preparation_time_minutes",
+            "cookingTimeMinutes", "cooking_time_minutes",
+            "servings", "servings");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Recipe> patchIfVersionMatches(Long id, long expectedVersion, Map<String, Object> attributes) {
+        StringBuilder sql = new StringBuilder("UPDATE recipes SET ");
+        for (String attribute : attributes.keySet()) {
+            String column = COLUMNS.get(attribute);
+            if (column == null) {
+                throw new IllegalArgumentException("Recipe attribute " + attribute + " cannot be patched");
+            }
+            sql.append(column).append(" = :").append(attribute).append(", ");
+        }
+        sql.append("version = version + 1, updated_at = :updatedAt WHERE id = :id AND version = :version RETURNING *");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Recipe.class);
+        attributes.forEach(query::setParameter);
+        query.setParameter("updatedAt", LocalDateTime.now());
+        query.setParameter("id", id);
+        query.setParameter("version", expectedVersion);
+
+        @SuppressWarnings("unchecked")
+        List<Recipe> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+}
@@ -0,0 +1,33 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Custom {@link RecipeRepository} fragment reading only the recipe columns a client asked for.
+ * Every row comes back as the selected values by attribute name, in {@link RecipeField} order.
+ */
+public interface RecipeProjectionRepository {
+
+    /**
+     * Returns the given fields of all recipes, ordered by id.
+     */
+    List<Map<String, Object>> findAllProjected(Set<RecipeField> fields);
+
+    Optional<Map<String, Object>> findProjectedById(Long id, Set<RecipeField> fields);
+
+    /**
+     * Returns the given fields of the recipes whose title contains {@code title}, ignoring case.
+     */
+    List<Map<String, Object>> findProjectedByTitleContaining(String title, Set<RecipeField> fields);
+
+    /**
+     * Returns the given fields of one keyset page ordered by {@code (sortField, id)}.
+     *
+     * @param after position of the last row of the previous page, or {@code null} for the first page
+     */
+    List<Map<String, Object>> findProjectedPage(RecipeSortField sortField, RecipeCursor after, int limit,
+                                                Set<RecipeField> fields);
+}
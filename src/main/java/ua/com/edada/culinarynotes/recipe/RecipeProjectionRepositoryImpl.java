@@ -0,0 +1,75 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class RecipeProjectionRepositoryImpl implements RecipeProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllProjected(Set<RecipeField> fields) {
+        return select(fields, "", "r.id", Map.of(), null);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedById(Long id, Set<RecipeField> fields) {
+        return select(fields, "where r.id = :id", "r.id", Map.of("id", id), null).stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjectedByTitleContaining(String title, Set<RecipeField> fields) {
+        String pattern = "%" + title.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return select(fields, "where lower(r.title) like lower(:pattern) escape '\\'", "r.id",
+                Map.of("pattern", pattern), null);
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjectedPage(RecipeSortField sortField, RecipeCursor after, int limit,
+                                                       Set<RecipeField> fields) {
+        String sortAttribute = "r." + sortField.getParameterName();
+        if (after == null) {
+            return select(fields, "", sortAttribute + ", r.id", Map.of(), limit);
+        }
+        return select(fields, "where (" + sortAttribute + ", r.id) > (:timestamp, :id)", sortAttribute + ", r.id",
+                Map.of("timestamp", after.timestamp(), "id", after.id()), limit);
+    }
+
+    private List<Map<String, Object>> select(Set<RecipeField> fields, String where, String orderBy,
+                                             Map<String, Object> parameters, Integer limit) {
+        List<RecipeField> selected = new ArrayList<>(EnumSet.copyOf(fields));
+        String selectList = selected.stream()
+                .map(field -> "r." + field.getAttributeName())
+                .collect(Collectors.joining(", "));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                "select " + selectList + " from Recipe r " + where + " order by " + orderBy, Tuple.class);
+        parameters.forEach(query::setParameter);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+
+        List<Tuple> tuples = query.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < selected.size(); i++) {
+                row.put(selected.get(i).getAttributeName(), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,11 +1,297 @@
 package ua.com.edada.culinarynotes.recipe;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecificationExecutor<Recipe>,
+        RecipePatchRepository, RecipeProjectionRepository {
+
+    @Override
+    @EntityGraph(Recipe.FULL)
+    List<Recipe> findAll();
+
+    @Override
+    @EntityGraph(Recipe.FULL)
+    Optional<Recipe> findById(Long id);
+
+    @EntityGraph(Recipe.FULL)
     List<Recipe> findByTitleContainingIgnoreCase(String title);
-}
\ No newline at end of file
+
+    /**
+     * Returns one page of the recipes matching {@code spec}, with their TEXT columns. Ingredient
+     * lines are left to batch fetching: fetching a collection would make Hibernate page in memory.
+     */
+    @Override
+    @EntityGraph(Recipe.WITH_TEXT)
+    Page<Recipe> findAll(Specification<Recipe> spec, Pageable pageable);
+
+    /**
+     * Returns the first keyset page ordered by {@code (createdAt, id)}, with the TEXT columns.
+     * The page queries are JPQL rather than native SQL: only an entity graph fetches the lazy
+     * TEXT group with the recipes, native results would load it once per recipe. The row-value
+     * comparison of the later pages is rendered as is, so the seek uses the composite index.
+     */
+    @EntityGraph(Recipe.WITH_TEXT)
+    @Query("""
+            SELECT r FROM Recipe r
+            ORDER BY r.createdAt, r.id
+            LIMIT :limit
+            """)
+    List<Recipe> findFirstPageOrderByCreatedAt(@Param("limit") int limit);
+
+    @EntityGraph(Recipe.WITH_TEXT)
+    @Query("""
+            SELECT r FROM Recipe r
+            WHERE (r.createdAt, r.id) > (:createdAt, :id)
+            ORDER BY r.createdAt, r.id
+            LIMIT :limit
+            """)
+    List<Recipe> findPageOrderByCreatedAtAfter(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               @Param("limit") int limit);
+
+    @EntityGraph(Recipe.WITH_TEXT)
+    @Query("""
+            SELECT r FROM Recipe r
+            ORDER BY r.updatedAt, r.id
+            LIMIT :limit
+            """)
+    List<Recipe> findFirstPageOrderByUpdatedAt(@Param("limit") int limit);
+
+    @EntityGraph(Recipe.WITH_TEXT)
+    @Query("""
+            SELECT r FROM Recipe r
+            WHERE (r.updatedAt, r.id) > (:updatedAt, :id)
+            ORDER BY r.updatedAt, r.id
+            LIMIT :limit
+            """)
+    List<Recipe> findPageOrderByUpdatedAtAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                               @Param("id") Long id,
+                                               @Param("limit") int limit);
+
+    /**
+     * Ranks recipes matching a web-style search query (quoted phrases, {@code or}, {@code -word})
+     * against the {@code search_vector} GIN index. Snippets are only built for the rows of the
+     * requested page, since {@code ts_headline} has to re-parse the document text.
+     * <p>
+     * The snippet is raw recipe text with hits between {@link RecipeSearchRow#HIT_START} and
+     * {@link RecipeSearchRow#HIT_END} (U+E000 and U+E001, removed from the text beforehand), so
+     * it has to be escaped before the hits are turned into markup.
+     */
+    @Query(value = """
+            SELECT h.id AS id,
+                   h.title AS title,
+                   h.rank AS rank,
+                   ts_headline('simple', translate(concat_ws(' ', h.description, h.instructions), chr(57344) || chr(57345), ''),
+                               websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query),
+                               'MaxFragments=2, MinWords=5, MaxWords=20, StartSel=' || chr(57344) || ', StopSel=' || chr(57345)) AS snippet
+            FROM (
+                SELECT r.id, r.title, r.description, r.instructions,
+                       CAST(ts_rank_cd(r.search_vector,
+                            websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query))
+                            AS DOUBLE PRECISION) AS rank
+                FROM recipes r
+                WHERE r.search_vector @@ (websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query))
+                ORDER BY rank DESC, r.id
+                LIMIT :limit OFFSET :offset
+            ) h
+            ORDER BY h.rank DESC, h.id
+            """, nativeQuery = true)
+    List<RecipeSearchRow> searchFullText(@Param("query") String query,
+                                         @Param("limit") int limit,
+                                         @Param("offset") long offset);
+
+    @Query(value = """
+            SELECT count(*) FROM recipes r
+            WHERE r.search_vector @@ (websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query))
+            """, nativeQuery = true)
+    long countFullText(@Param("query") String query);
+
+    /**
+     * Counts the full-text matches per distinct {@code (total_time_minutes, servings)} pair in
+     * one pass over the matching rows, for the search facets to be bucketed from.
+     */
+    @RestResource(exported = false)
+    @Query(value = """
+            SELECT r.total_time_minutes AS "totalTimeMinutes", r.servings AS "servings", count(*) AS "recipes"
+            FROM recipes r
+            WHERE r.search_vector @@ (websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query))
+            GROUP BY r.total_time_minutes, r.servings
+            """, nativeQuery = true)
+    List<RecipeFacetRow> countFullTextFacets(@Param("query") String query);
+
+    /**
+     * Limits the run time of every further statement of the current transaction.
+     *
+     * @param timeout PostgreSQL {@code statement_timeout} value, in milliseconds unless it has a unit
+     */
+    @RestResource(exported = false)
+    @Query(value = "SELECT set_config('statement_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalStatementTimeout(@Param("timeout") String timeout);
+
+    /**
+     * Returns the searchable text of the next batch of recipes with an id greater than {@code afterId}.
+     * Used to rebuild in-memory indexes; only the first page of the {@link Pageable} is meaningful.
+     */
+    @RestResource(exported = false)
+    @Query("""
+            select r.id as id, r.title as title, r.description as description, r.instructions as instructions
+            from Recipe r
+            where r.id > :afterId
+            order by r.id
+            """)
+    List<RecipeText> findTextBatchAfter(@Param("afterId") long afterId, Pageable batch);
+
+    /**
+     * Reads recipe titles in id order, one batch after {@code afterId}, for the fuzzy title index.
+     */
+    @RestResource(exported = false)
+    @Query("select r.id as id, r.title as title from Recipe r where r.id > :afterId order by r.id")
+    List<RecipeTitle> findTitleBatchAfter(@Param("afterId") long afterId, Pageable batch);
+
+    /**
+     * Reads the numeric attributes of the next batch of recipes with an id greater than
+     * {@code afterId}, for the in-memory recipe catalog.
+     */
+    @RestResource(exported = false)
+    @Query("""
+            select r.id as id, r.preparationTimeMinutes as preparationTimeMinutes,
+                   r.cookingTimeMinutes as cookingTimeMinutes, r.servings as servings,
+                   r.createdAt as createdAt, r.updatedAt as updatedAt
+            from Recipe r
+            where r.id > :afterId
+            order by r.id
+            """)
+    List<RecipeNumbers> findNumbersBatchAfter(@Param("afterId") long afterId, Pageable batch);
+
+    /**
+     * Loads the given recipes as clients see them, in no particular order.
+     */
+    @EntityGraph(Recipe.FULL)
+    List<Recipe> findByIdIn(Collection<Long> ids);
+
+    @RestResource(exported = false)
+    @Query("select r.id as id, r.title as title from Recipe r where r.id in :ids")
+    List<RecipeTitle> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the ingredient ids of the next {@code limit} recipes with ingredients and an id
+     * greater than {@code afterRecipeId}, for rebuilding the pantry index. Walks the
+     * {@code (recipe_id, ingredient_id)} unique index, so no recipe is split across batches.
+     */
+    @RestResource(exported = false)
+    @Query(value = """
+            SELECT ri.recipe_id AS "recipeId", string_agg(CAST(ri.ingredient_id AS TEXT), ',') AS "ingredientIds"
+            FROM recipe_ingredients ri
+            WHERE ri.recipe_id > :afterRecipeId
+            GROUP BY ri.recipe_id
+            ORDER BY ri.recipe_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<RecipeIngredientIds> findIngredientIdsBatchAfter(@Param("afterRecipeId") long afterRecipeId,
+                                                          @Param("limit") int limit);
+
+    /**
+     * Reads just the cache validators of a recipe, so conditional requests can be answered
+     * without loading its text columns.
+     */
+    @RestResource(exported = false)
+    @Query("select r.id as id, r.version as version, r.updatedAt as updatedAt from Recipe r where r.id = :id")
+    Optional<RecipeVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Marks every recipe using an ingredient as changed, since recipes embed their ingredients.
+     *
+     * @return ids of the touched recipes
+     */
+    @RestResource(exported = false)
+    @Query(value = """
+            UPDATE recipes SET version = version + 1, updated_at = :updatedAt
+            WHERE id IN (SELECT ri.recipe_id FROM recipe_ingredients ri WHERE ri.ingredient_id = :ingredientId)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> touchRecipesUsingIngredient(@Param("ingredientId") Long ingredientId,
+                                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Deletes a recipe with one statement, without loading it first. Its ingredient lines go
+     * with it through the {@code ON DELETE CASCADE} foreign key. Declares the table it writes
+     * so Hibernate does not clear the whole second-level cache.
+     *
+     * @return the number of deleted recipes, 0 or 1
+     */
+    @RestResource(exported = false)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+    @Query(value = "DELETE FROM recipes WHERE id = :id", nativeQuery = true)
+    int deleteRecipeById(@Param("id") Long id);
+
+    /**
+     * Deletes the recipes with the given ids in one set-based statement. Like
+     * {@link #deleteRecipeById(Long)}, it names the table it touches so only recipe cache
+     * regions are invalidated.
+     *
+     * @return ids of the recipes that existed and were deleted
+     */
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+    @Query(value = "DELETE FROM recipes WHERE id IN (:ids) RETURNING id", nativeQuery = true)
+    List<Long> deleteByIdInReturningIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes at most {@code limit} of the recipes created before {@code createdBefore} in one
+     * set-based statement, invalidating only recipe cache regions.
+     *
+     * @return ids of the deleted recipes
+     */
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+    @Query(value = """
+            DELETE FROM recipes
+            WHERE id IN (SELECT id FROM recipes WHERE created_at < :createdBefore LIMIT :limit)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> deleteCreatedBeforeReturningIds(@Param("createdBefore") LocalDateTime createdBefore,
+                                               @Param("limit") int limit);
+
+    /**
+     * Streams all recipes through a server-side cursor. Must be consumed inside a transaction,
+     * otherwise the PostgreSQL driver ignores the fetch size and buffers the whole result.
+     */
+    @RestResource(exported = false)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @EntityGraph(Recipe.WITH_TEXT)
+    @Query("select r from Recipe r order by r.id")
+    Stream<Recipe> streamAllOrderById();
+
+    /**
+     * Returns the planner's row estimate for the recipes table. This is read from the
+     * catalog and costs nothing, unlike {@code count(*)} which scans the whole table.
+     */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS BIGINT) FROM pg_class WHERE oid = to_regclass('recipes')",
+            nativeQuery = true)
+    Long estimateCount();
+}
@@ -0,0 +1,26 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.List;
+
+/**
+ * Published by {@link RecipeService} when a recipe has been created or updated.
+ * In-memory read models listen for it after the transaction commits.
+ *
+ * @param recipe        the saved recipe
+ * @param ingredientIds ids of the ingredients the recipe uses, captured while the
+ *                      ingredient lines were still loadable, or {@code null} when the
+ *                      update did not touch the ingredients
+ */
+public record RecipeSavedEvent(Recipe recipe, List<Long> ingredientIds) {
+
+    public static RecipeSavedEvent of(Recipe recipe) {
+        return new RecipeSavedEvent(recipe, recipe.ingredientIds());
+    }
+
+    /**
+     * Event for an update that left the ingredient lines alone and never loaded them.
+     */
+    public static RecipeSavedEvent withUnchangedIngredients(Recipe recipe) {
+        return new RecipeSavedEvent(recipe, null);
+    }
+}
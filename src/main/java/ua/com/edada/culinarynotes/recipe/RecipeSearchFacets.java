@@ -0,0 +1,142 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacetBucket;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacets;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Facet counts of full-text recipe searches: matches per total time bucket and per servings range.
+ * <p>
+ * All counts of a query come from one grouped query over the matching rows, which also yields
+ * the number of matches, so a faceted search needs no separate count query. The grouped query
+ * runs in its own read-only transaction with a statement timeout of
+ * {@code recipe.search.facets.budget}; a query that overruns it yields no facets instead of
+ * holding up the search.
+ * <p>
+ * Counts are cached by normalized query, bounded by the number of queries. Caffeine only admits
+ * a query more popular than the one it would evict, so one-off queries cannot flush the popular
+ * ones. Any saved or deleted recipe can change the matches of any query, so the whole cache is
+ * cleared after each such commit. Hit and miss counts are published as {@code cache.*} metrics
+ * tagged {@code cache=recipe-search-facets}.
+ */
+@Component
+@Slf4j
+public class RecipeSearchFacets {
+
+    static final String NAME = "recipe-search-facets";
+
+    // Inclusive upper bounds of every bucket but the open-ended last one
+    private static final int[] TOTAL_TIME_BOUNDS = {15, 30, 60, 120};
+    private static final int[] SERVINGS_BOUNDS = {2, 4, 6};
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration budget;
+    private final Cache<String, RecipeFacets> cache;
+
+    public RecipeSearchFacets(RecipeRepository recipeRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${recipe.search.facets.budget:200ms}") Duration budget,
+                              @Value("${recipe.search.facets.cache.max-size:1000}") long maxSize,
+                              @Value("${recipe.search.facets.cache.time-to-live:5m}") Duration timeToLive,
+                              MeterRegistry meterRegistry) {
+        this.recipeRepository = recipeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.budget = budget;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Returns the facet counts over all full-text matches of {@code query}, from the cache or
+     * counted within the time budget. Concurrent misses for the same query share one count.
+     *
+     * @return the counts, empty if counting ran out of time budget
+     */
+    public Optional<RecipeFacets> countFullText(String query) {
+        return Optional.ofNullable(cache.get(normalize(query), key -> count(query)));
+    }
+
+    @TransactionalEventListener
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void onRecipesDeleted(RecipeDeletedEvent event) {
+        cache.invalidateAll();
+    }
+
+    // Null when out of budget, so the miss is not cached
+    private RecipeFacets count(String query) {
+        List<RecipeFacetRow> rows;
+        try {
+            rows = transactionTemplate.execute(status -> {
+                recipeRepository.setLocalStatementTimeout(String.valueOf(Math.max(budget.toMillis(), 1)));
+                return recipeRepository.countFullTextFacets(query);
+            });
+        } catch (QueryTimeoutException ex) {
+            log.warn("Counting search facets for '{}' ran out of time budget", query);
+            return null;
+        }
+
+        long total = 0;
+        long[] totalTimes = new long[TOTAL_TIME_BOUNDS.length + 1];
+        long[] servings = new long[SERVINGS_BOUNDS.length + 1];
+        for (RecipeFacetRow row : rows) {
+            long recipes = row.getRecipes();
+            total += recipes;
+            // The generated total time is never null; an unknown time counts as zero
+            totalTimes[bucket(row.getTotalTimeMinutes() != null ? row.getTotalTimeMinutes() : 0, TOTAL_TIME_BOUNDS)]
+                    += recipes;
+            if (row.getServings() != null) {
+                servings[bucket(row.getServings(), SERVINGS_BOUNDS)] += recipes;
+            }
+        }
+        return new RecipeFacets(total, buckets(totalTimes, TOTAL_TIME_BOUNDS), buckets(servings, SERVINGS_BOUNDS));
+    }
+
+    private static int bucket(int value, int[] bounds) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<RecipeFacetBucket> buckets(long[] counts, int[] bounds) {
+        List<RecipeFacetBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            int min = i == 0 ? 0 : bounds[i - 1] + 1;
+            Integer max = i < bounds.length ? bounds[i] : null;
+            buckets.add(new RecipeFacetBucket(min, max, counts[i]));
+        }
+        return List.copyOf(buckets);
+    }
+
+    // The search configurations ignore case and extra whitespace, so the cache does too
+    private static String normalize(String query) {
+        return query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package ua.com.edada.culinarynotes.recipe;
+
+/**
+ * Projection of a ranked full-text search hit.
+ */
+public interface RecipeSearchRow {
+
+    /**
+     * Marks the start of a hit in the snippet; never part of the indexed text.
+     */
+    char HIT_START = '\uE000';
+
+    /**
+     * Marks the end of a hit in the snippet; never part of the indexed text.
+     */
+    char HIT_END = '\uE001';
+
+    Long getId();
+
+    String getTitle();
+
+    Double getRank();
+
+    /**
+     * Plain recipe text around the hits, with every hit between {@link #HIT_START} and
+     * {@link #HIT_END}; may be {@code null}.
+     */
+    String getSnippet();
+}
@@ -1,19 +1,86 @@
 package ua.com.edada.culinarynotes.recipe;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.util.HtmlUtils;
+import ua.com.edada.culinarynotes.common.search.FuzzyIndex;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientSavedEvent;
+import ua.com.edada.culinarynotes.ingredient.IngredientService;
+import ua.com.edada.culinarynotes.recipe.dto.PantryMatch;
+import ua.com.edada.culinarynotes.recipe.dto.PantrySearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchGetResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchItemResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeCreateRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacets;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeIngredientRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipePage;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeTitleMatch;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeUpdateRequest;
+import ua.com.edada.culinarynotes.recipe.search.PantrySearchIndex;
+import ua.com.edada.culinarynotes.recipe.search.RecipeCatalogIndex;
+import ua.com.edada.culinarynotes.recipe.search.RecipeSearchIndex;
+import ua.com.edada.culinarynotes.recipe.search.RecipeTitleFuzzyIndex;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RecipeService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_MISSING_INGREDIENTS = 10;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_IN_MEMORY_OFFSET = 10_000;
+
     private final RecipeRepository recipeRepository;
+    private final RecipeCache recipeCache;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeTitleFuzzyIndex recipeTitleFuzzyIndex;
+    private final PantrySearchIndex pantrySearchIndex;
+    private final RecipeCatalogIndex recipeCatalogIndex;
+    private final RecipeSearchFacets recipeSearchFacets;
+    private final IngredientService ingredientService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionOperations transactionOperations;
+    private final EntityManager entityManager;
 
     @Transactional(readOnly = true)
     public List<Recipe> getAllRecipes() {
@@ -21,10 +88,151 @@ public class RecipeService {
         return recipeRepository.findAll();
     }
 
+    /**
+     * Returns only the given fields of all recipes; unselected columns are not read.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllRecipes(Set<RecipeField> fields) {
+        log.debug("Getting fields {} of all recipes", fields);
+        return recipeRepository.findAllProjected(fields);
+    }
+
+    /**
+     * Returns one keyset page of recipes ordered by {@code (sortField, id)}.
+     * <p>
+     * The page is located by seeking past the cursor position in the matching composite index,
+     * so every page costs the same regardless of how deep the client has paged.
+     *
+     * @param cursor       opaque cursor from the previous page, or {@code null} for the first page
+     * @param size         requested page size, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @param sortField    ordering for the first page; must match the cursor when one is given
+     * @param includeTotal whether to attach the planner's estimate of the total row count
+     * @return the page with a cursor for the next one
+     */
     @Transactional(readOnly = true)
+    public RecipePage<Recipe> getRecipePage(String cursor, int size, RecipeSortField sortField, boolean includeTotal) {
+        int pageSize = clampPageSize(size);
+        RecipeCursor position = resolveCursor(cursor, sortField);
+        log.debug("Getting recipe page sorted by {} after {} (size {})", sortField, position, pageSize);
+
+        // Fetch one extra row to find out whether another page exists
+        int limit = pageSize + 1;
+        List<Recipe> rows = switch (sortField) {
+            case CREATED_AT -> position == null
+                    ? recipeRepository.findFirstPageOrderByCreatedAt(limit)
+                    : recipeRepository.findPageOrderByCreatedAtAfter(position.timestamp(), position.id(), limit);
+            case UPDATED_AT -> position == null
+                    ? recipeRepository.findFirstPageOrderByUpdatedAt(limit)
+                    : recipeRepository.findPageOrderByUpdatedAtAfter(position.timestamp(), position.id(), limit);
+        };
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Recipe> items = hasNext ? rows.subList(0, pageSize) : rows;
+        fetchIngredientLines(items);
+        String nextCursor = hasNext ? RecipeCursor.of(sortField, items.get(items.size() - 1)).encode() : null;
+        Long estimatedTotal = includeTotal ? recipeRepository.estimateCount() : null;
+
+        return new RecipePage<>(List.copyOf(items), nextCursor, estimatedTotal);
+    }
+
+    /**
+     * Returns one keyset page with only the given fields of each recipe. The sort column and id
+     * are read as well to build the next cursor, but only the requested fields are returned.
+     *
+     * @see #getRecipePage(String, int, RecipeSortField, boolean)
+     */
+    @Transactional(readOnly = true)
+    public RecipePage<Map<String, Object>> getRecipePage(String cursor, int size, RecipeSortField sortField,
+                                                         boolean includeTotal, Set<RecipeField> fields) {
+        int pageSize = clampPageSize(size);
+        RecipeCursor position = resolveCursor(cursor, sortField);
+        log.debug("Getting fields {} of recipe page sorted by {} after {} (size {})", fields, sortField, position, pageSize);
+
+        RecipeField sortColumn = RecipeField.fromParameter(sortField.getParameterName());
+        Set<RecipeField> selected = EnumSet.copyOf(fields);
+        selected.add(RecipeField.ID);
+        selected.add(sortColumn);
+        List<Map<String, Object>> rows = recipeRepository.findProjectedPage(sortField, position, pageSize + 1, selected);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Map<String, Object>> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Map<String, Object> last = items.get(items.size() - 1);
+            nextCursor = new RecipeCursor(sortField, (LocalDateTime) last.get(sortColumn.getAttributeName()),
+                    (Long) last.get(RecipeField.ID.getAttributeName())).encode();
+        }
+        Set<String> requested = fields.stream().map(RecipeField::getAttributeName).collect(Collectors.toSet());
+        items.forEach(row -> row.keySet().retainAll(requested));
+        Long estimatedTotal = includeTotal ? recipeRepository.estimateCount() : null;
+
+        return new RecipePage<>(List.copyOf(items), nextCursor, estimatedTotal);
+    }
+
+    /**
+     * Returns a recipe through the {@link RecipeCache}. Deliberately not transactional, so a
+     * cache hit does not check out a connection; a miss loads the recipe in the repository's
+     * own read-only transaction.
+     */
     public Optional<Recipe> getRecipeById(Long id) {
         log.debug("Getting recipe with id: {}", id);
-        return recipeRepository.findById(id);
+        return recipeCache.get(id, recipeRepository::findById);
+    }
+
+    /**
+     * Returns only the given fields of a recipe, picked from the {@link RecipeCache} when the
+     * recipe is cached and otherwise read from just the selected columns. Not transactional
+     * for the same reason as {@link #getRecipeById(Long)}.
+     */
+    public Optional<Map<String, Object>> getRecipeById(Long id, Set<RecipeField> fields) {
+        log.debug("Getting fields {} of recipe with id: {}", fields, id);
+        return recipeCache.getIfPresent(id)
+                .map(recipe -> RecipeField.project(recipe, fields))
+                .or(() -> recipeRepository.findProjectedById(id, fields));
+    }
+
+    /**
+     * Returns the recipes with the given ids, taken from the {@link RecipeCache} where cached
+     * and otherwise read with one query. Not transactional for the same reason as
+     * {@link #getRecipeById(Long)}.
+     *
+     * @param ids at most {@link #MAX_PAGE_SIZE} recipe ids; repeated ids are answered once
+     * @return the existing recipes in request order, and the ids of the missing ones
+     */
+    public RecipeBatchGetResponse getRecipesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipe id is required");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.contains(null)) {
+            throw new IllegalArgumentException("Recipe ids must not be null");
+        }
+        if (distinctIds.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_PAGE_SIZE + " recipes can be read at once");
+        }
+        log.debug("Getting recipes with ids: {}", distinctIds);
+
+        Map<Long, Recipe> recipesById = findRecipesByIds(distinctIds);
+        List<Recipe> recipes = new ArrayList<>(recipesById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Recipe recipe = recipesById.get(id);
+            if (recipe != null) {
+                recipes.add(recipe);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new RecipeBatchGetResponse(recipes, missingIds);
+    }
+
+    /**
+     * Returns the version and last modification time of a recipe without loading the recipe.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RecipeVersion> getRecipeVersion(Long id) {
+        log.debug("Getting version of recipe with id: {}", id);
+        return recipeRepository.findVersionById(id);
     }
 
     @Transactional(readOnly = true)
@@ -33,15 +241,616 @@ public class RecipeService {
         return recipeRepository.findByTitleContainingIgnoreCase(title);
     }
 
+    /**
+     * Returns only the given fields of the recipes whose title contains {@code title}, ignoring case.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchRecipesByTitle(String title, Set<RecipeField> fields) {
+        log.debug("Searching fields {} of recipes with title containing: {}", fields, title);
+        return recipeRepository.findProjectedByTitleContaining(title, fields);
+    }
+
+    /**
+     * Returns one page of the recipes matching every criterion of {@code filter}, ordered by
+     * {@code (sortField, id)}. The page is read by walking the sort field's composite index, so
+     * a range on the sort field itself bounds the scan and other criteria are checked on the
+     * rows walked until the page is full.
+     *
+     * @param page zero-based page number
+     * @param size requested page size, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @throws IllegalArgumentException if a range of {@code filter} is inverted
+     */
+    @Transactional(readOnly = true)
+    public RecipeFilterResponse filterRecipes(RecipeFilterRequest filter, RecipeFilterSortField sortField,
+                                              Sort.Direction direction, int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = clampPageSize(size);
+        log.debug("Filtering recipes by {} sorted by {} {} (page {}, size {})",
+                filter, sortField, direction, pageNumber, pageSize);
+
+        // Spring Data skips the count query when the first page already holds every match
+        Sort sort = Sort.by(direction, sortField.getParameterName(), "id");
+        Page<Recipe> recipes = recipeRepository.findAll(RecipeSpecifications.matching(filter),
+                PageRequest.of(pageNumber, pageSize, sort));
+        fetchIngredientLines(recipes.getContent());
+
+        return new RecipeFilterResponse(recipes.getContent(), pageNumber, pageSize, recipes.getTotalElements());
+    }
+
+    /**
+     * Same as {@link #filterRecipes} but matched, sorted and paged in the in-memory
+     * {@link RecipeCatalogIndex}; only the recipes of the page are then read, from the
+     * {@link RecipeCache} where cached and otherwise with one query. Deliberately not
+     * transactional, so a page served entirely from the cache does not check out a connection.
+     * Falls back to the database filter until the catalog has been built after startup.
+     *
+     * @throws IllegalArgumentException if the page starts past {@link #MAX_IN_MEMORY_OFFSET}
+     */
+    public RecipeFilterResponse filterRecipesInMemory(RecipeFilterRequest filter, RecipeFilterSortField sortField,
+                                                      Sort.Direction direction, int page, int size) {
+        if (!recipeCatalogIndex.isReady()) {
+            log.debug("Recipe catalog is not built yet, filtering in the database");
+            return filterRecipes(filter, sortField, direction, page, size);
+        }
+        int pageNumber = Math.max(page, 0);
+        int pageSize = clampPageSize(size);
+        // Every page ranks all the matches before it, so deep pages are not served from memory
+        long offset = (long) pageNumber * pageSize;
+        if (offset > MAX_IN_MEMORY_OFFSET) {
+            throw new IllegalArgumentException("Pages past the first " + MAX_IN_MEMORY_OFFSET
+                    + " matches cannot be read from the recipe catalog");
+        }
+        log.debug("Filtering recipe catalog by {} sorted by {} {} (page {}, size {})",
+                filter, sortField, direction, pageNumber, pageSize);
+
+        // Validates the criteria the same way as the database filter
+        RecipeSpecifications.matching(filter);
+        RecipeCatalogIndex.Result result = recipeCatalogIndex.search(filter, sortField, direction.isDescending(),
+                (int) offset, pageSize);
+
+        Map<Long, Recipe> recipesById = findRecipesByIds(result.ids());
+        // Recipes deleted since the catalog was queried are left out
+        List<Recipe> recipes = result.ids().stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new RecipeFilterResponse(recipes, pageNumber, pageSize, result.total());
+    }
+
+    /**
+     * Ranked full-text search over recipe title, description and instructions.
+     *
+     * @param query web-style search query, e.g. {@code борщ "sour cream" -beef}
+     * @param page  zero-based page number
+     * @param size  requested page size, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @return the requested page of ranked hits with highlighted snippets
+     */
+    @Transactional(readOnly = true)
+    public RecipeSearchResponse searchRecipesFullText(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int pageNumber = Math.max(page, 0);
+        int pageSize = clampPageSize(size);
+        log.debug("Full-text searching recipes for '{}' (page {}, size {})", query, pageNumber, pageSize);
+
+        List<RecipeSearchResult> results = searchFullTextPage(query, pageNumber, pageSize);
+
+        // Skip the count query when the first page already holds every hit
+        long total = pageNumber == 0 && results.size() < pageSize
+                ? results.size()
+                : recipeRepository.countFullText(query);
+
+        return new RecipeSearchResponse(results, pageNumber, pageSize, total);
+    }
+
+    /**
+     * {@link #searchRecipesFullText(String, int, int)} with facet counts over all hits, computed
+     * by {@link RecipeSearchFacets} in one pass that also counts the hits. Facets are left out
+     * when they could not be counted within their time budget. Deliberately not transactional:
+     * the facets are counted in a transaction of their own, with its own statement timeout.
+     */
+    public RecipeSearchResponse searchRecipesFullText(String query, int page, int size, boolean withFacets) {
+        if (!withFacets) {
+            return searchRecipesFullText(query, page, size);
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int pageNumber = Math.max(page, 0);
+        int pageSize = clampPageSize(size);
+        log.debug("Full-text searching recipes with facets for '{}' (page {}, size {})", query, pageNumber, pageSize);
+
+        Optional<RecipeFacets> facets = recipeSearchFacets.countFullText(query);
+        List<RecipeSearchResult> results = searchFullTextPage(query, pageNumber, pageSize);
+        long total = facets.map(RecipeFacets::total)
+                .orElseGet(() -> pageNumber == 0 && results.size() < pageSize
+                        ? results.size()
+                        : recipeRepository.countFullText(query));
+
+        return new RecipeSearchResponse(results, pageNumber, pageSize, total, facets.orElse(null));
+    }
+
+    /**
+     * Ranked search served from the in-memory BM25 index, without a database round trip.
+     * Results may lag behind the database until the index has been built after startup.
+     *
+     * @param query free-text query
+     * @param limit maximum number of hits, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @return hits ordered by descending score
+     */
+    public List<RecipeSearchResult> searchRecipesInMemory(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        log.debug("In-memory searching recipes for '{}' (index ready: {})", query, recipeSearchIndex.isReady());
+        return recipeSearchIndex.search(query, clampPageSize(limit))
+                .stream()
+                .map(hit -> new RecipeSearchResult(hit.id(), hit.title(), hit.score(), null))
+                .toList();
+    }
+
+    /**
+     * Typo-tolerant title lookup served from memory: every query word may be a few character
+     * edits away from a title word. Answers within a fixed time budget and returns the best
+     * matches found by then.
+     *
+     * @param query title words, possibly misspelled
+     * @param limit maximum number of matches, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @return matches ordered by ascending edit distance
+     */
+    public List<RecipeTitleMatch> searchRecipesFuzzy(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        FuzzyIndex.Result result = recipeTitleFuzzyIndex.search(query, clampPageSize(limit));
+        if (!result.complete()) {
+            log.warn("Fuzzy recipe title search for '{}' ran out of time budget", query);
+        }
+        return result.matches().stream()
+                .map(match -> new RecipeTitleMatch(match.id(), match.text(), match.distance()))
+                .toList();
+    }
+
+    /**
+     * "What can I cook" lookup served from the in-memory ingredient bitmaps. Only the titles of
+     * the returned page are read from the database.
+     *
+     * @param ingredientIds ids of the ingredients in the pantry
+     * @param maxMissing    how many ingredients a recipe may miss, at most {@code MAX_MISSING_INGREDIENTS}
+     * @param limit         maximum number of matches, clamped to {@code [1, MAX_PAGE_SIZE]}
+     * @return matching recipes, fewest missing ingredients first
+     */
+    @Transactional(readOnly = true)
+    public PantrySearchResponse findRecipesForPantry(Collection<Long> ingredientIds, int maxMissing, int limit) {
+        if (ingredientIds == null || ingredientIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one ingredient id is required");
+        }
+        if (maxMissing < 0 || maxMissing > MAX_MISSING_INGREDIENTS) {
+            throw new IllegalArgumentException("Missing ingredient count must be between 0 and " + MAX_MISSING_INGREDIENTS);
+        }
+        log.debug("Finding recipes for pantry {} missing at most {}", ingredientIds, maxMissing);
+
+        PantrySearchIndex.Result result = pantrySearchIndex.search(
+                ingredientIds, maxMissing, clampPageSize(limit));
+        if (result.matches().isEmpty()) {
+            return new PantrySearchResponse(List.of(), result.total());
+        }
+
+        Map<Long, String> titles = recipeRepository
+                .findTitlesByIdIn(result.matches().stream().map(PantrySearchIndex.Match::recipeId).toList())
+                .stream()
+                .collect(Collectors.toMap(RecipeTitle::getId, RecipeTitle::getTitle));
+        List<PantryMatch> matches = result.matches().stream()
+                .filter(match -> titles.containsKey(match.recipeId()))
+                .map(match -> new PantryMatch(match.recipeId(), titles.get(match.recipeId()),
+                        match.missingIngredientIds().size(), match.missingIngredientIds()))
+                .toList();
+        return new PantrySearchResponse(matches, result.total());
+    }
+
+    /**
+     * Saves a recipe together with its ingredient lines.
+     *
+     * @param recipe      the recipe to save
+     * @param ingredients the new ingredient lines, or {@code null} to keep the current ones
+     * @return the saved recipe
+     * @throws ua.com.edada.culinarynotes.exception.ResourceNotFoundException if an ingredient does not exist
+     */
+    @Transactional
+    public Recipe saveRecipe(Recipe recipe, List<RecipeIngredientRequest> ingredients) {
+        boolean linesChanged = ingredients != null && recipe.replaceIngredients(toIngredientLines(ingredients));
+        Recipe savedRecipe = saveRecipe(recipe);
+        // A new recipe starts at its first version anyway
+        if (linesChanged && recipe.getId() != null) {
+            bumpVersion(savedRecipe);
+        }
+        return savedRecipe;
+    }
+
     @Transactional
     public Recipe saveRecipe(Recipe recipe) {
         log.debug("Saving recipe: {}", recipe.getTitle());
-        return recipeRepository.save(recipe);
+        Recipe savedRecipe = recipeRepository.save(recipe);
+        eventPublisher.publishEvent(RecipeSavedEvent.of(savedRecipe));
+        return savedRecipe;
+    }
+
+    /**
+     * Applies the non-null fields of {@code request} to a recipe within one transaction.
+     * <p>
+     * The recipe is loaded with its ingredient lines and changed in place, so dirty checking
+     * issues one UPDATE of just the changed columns at commit instead of merging a detached
+     * copy, which re-reads the row and rewrites every column.
+     *
+     * @return the updated recipe, empty if it does not exist
+     */
+    @Transactional
+    public Optional<Recipe> patchRecipe(Long id, RecipeUpdateRequest request) {
+        log.debug("Patching recipe with id: {}", id);
+        return recipeRepository.findById(id).map(recipe -> applyPatch(recipe, request));
+    }
+
+    /**
+     * Version-checked {@link #patchRecipe(Long, RecipeUpdateRequest)}. Unless the ingredient
+     * lines change, the recipe is never loaded: a single UPDATE ... RETURNING statement checks
+     * the version, writes the changed columns and returns the updated row.
+     *
+     * @param expectedVersion the version of the recipe the client last read
+     * @return the updated recipe, empty if it does not exist
+     * @throws ObjectOptimisticLockingFailureException if the recipe has changed since {@code expectedVersion}
+     */
+    @Transactional
+    public Optional<Recipe> patchRecipe(Long id, long expectedVersion, RecipeUpdateRequest request) {
+        log.debug("Patching recipe with id: {} at version {}", id, expectedVersion);
+        Map<String, Object> attributes = changedAttributes(request);
+        if (request.ingredients() != null || attributes.isEmpty()) {
+            return recipeRepository.findById(id).map(recipe -> {
+                if (recipe.getVersion() != expectedVersion) {
+                    throw new ObjectOptimisticLockingFailureException(Recipe.class, id);
+                }
+                return applyPatch(recipe, request);
+            });
+        }
+
+        Optional<Recipe> patched = recipeRepository.patchIfVersionMatches(id, expectedVersion, attributes);
+        if (patched.isEmpty()) {
+            if (recipeRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Recipe.class, id);
+            }
+            return Optional.empty();
+        }
+        eventPublisher.publishEvent(RecipeSavedEvent.withUnchangedIngredients(patched.get()));
+        return patched;
     }
 
+    /**
+     * Creates a batch of recipes, all or none of them.
+     * <p>
+     * Every recipe is validated before anything is written, with the ingredients of the whole
+     * batch loaded by one query. Valid batches are persisted in one transaction; ids come from
+     * a pooled sequence, so the recipes and their ingredient lines reach the database as JDBC
+     * batches instead of one round trip per row.
+     *
+     * @param requests the recipes to create, at most {@link #MAX_BATCH_SIZE}
+     * @return per-recipe ids, or per-recipe validation errors when nothing was created
+     */
     @Transactional
-    public void deleteRecipe(Long id) {
+    public RecipeBatchResponse createRecipes(List<RecipeCreateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipe is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " recipes can be created at once");
+        }
+        log.debug("Creating a batch of {} recipes", requests.size());
+
+        Set<Long> ingredientIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(RecipeCreateRequest::ingredients)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(line -> line != null && line.ingredientId() != null)
+                .map(RecipeIngredientRequest::ingredientId)
+                .collect(Collectors.toSet());
+        Map<Long, Ingredient> ingredientsById = ingredientIds.isEmpty()
+                ? Map.of()
+                : ingredientService.findIngredientsByIds(ingredientIds).stream()
+                        .collect(Collectors.toMap(Ingredient::getId, Function.identity()));
+
+        List<Map<String, String>> errors = requests.stream()
+                .map(request -> validate(request, ingredientsById))
+                .toList();
+        int invalid = (int) errors.stream().filter(itemErrors -> !itemErrors.isEmpty()).count();
+        if (invalid > 0) {
+            log.debug("Rejected batch of {} recipes, {} invalid", requests.size(), invalid);
+            return new RecipeBatchResponse(0, invalid, IntStream.range(0, requests.size())
+                    .mapToObj(index -> new RecipeBatchItemResult(index, null, errors.get(index)))
+                    .toList());
+        }
+
+        List<Recipe> recipes = new ArrayList<>(requests.size());
+        for (RecipeCreateRequest request : requests) {
+            recipes.add(toRecipe(request, ingredientsById));
+        }
+        List<Recipe> savedRecipes = recipeRepository.saveAll(recipes);
+        savedRecipes.forEach(savedRecipe -> eventPublisher.publishEvent(RecipeSavedEvent.of(savedRecipe)));
+        return new RecipeBatchResponse(savedRecipes.size(), 0, IntStream.range(0, savedRecipes.size())
+                .mapToObj(index -> new RecipeBatchItemResult(index, savedRecipes.get(index).getId(), Map.of()))
+                .toList());
+    }
+
+    /**
+     * Deletes a recipe with a single statement, without reading it first.
+     *
+     * @return {@code true} if the recipe existed
+     */
+    @Transactional
+    public boolean deleteRecipe(Long id) {
         log.debug("Deleting recipe with id: {}", id);
-        recipeRepository.deleteById(id);
+        if (recipeRepository.deleteRecipeById(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new RecipeDeletedEvent(List.of(id)));
+        return true;
+    }
+
+    /**
+     * Deletes the recipes with the given ids in one set-based statement. Unknown ids are ignored.
+     *
+     * @param ids at most {@link #MAX_BATCH_SIZE} recipe ids
+     * @return ids of the deleted recipes, ascending
+     */
+    @Transactional
+    public List<Long> deleteRecipes(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipe id is required");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " recipes can be deleted at once");
+        }
+        log.debug("Deleting recipes with ids: {}", ids);
+        return publishDeleted(recipeRepository.deleteByIdInReturningIds(ids));
+    }
+
+    /**
+     * Deletes every recipe created before {@code createdBefore}, up to {@link #MAX_BATCH_SIZE}
+     * per statement. Each chunk commits on its own and publishes its own
+     * {@link RecipeDeletedEvent}, so however many recipes match, neither their ids nor their row
+     * locks pile up.
+     *
+     * @return number of deleted recipes
+     */
+    public int deleteRecipesCreatedBefore(LocalDateTime createdBefore) {
+        log.debug("Deleting recipes created before {}", createdBefore);
+        int deleted = 0;
+        List<Long> chunk;
+        do {
+            chunk = transactionOperations.execute(status -> publishDeleted(
+                    recipeRepository.deleteCreatedBeforeReturningIds(createdBefore, MAX_BATCH_SIZE)));
+            deleted += chunk.size();
+        } while (!chunk.isEmpty());
+        return deleted;
+    }
+
+    private List<Long> publishDeleted(List<Long> deletedIds) {
+        List<Long> sorted = deletedIds.stream().sorted().toList();
+        if (!sorted.isEmpty()) {
+            eventPublisher.publishEvent(new RecipeDeletedEvent(sorted));
+        }
+        return sorted;
+    }
+
+    /**
+     * Recipes embed their ingredients, so an ingredient update changes every recipe using it.
+     * Their versions are bumped in the updating transaction to keep recipe ETags accurate.
+     */
+    @EventListener
+    public void onIngredientSaved(IngredientSavedEvent event) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        List<Long> touched = recipeRepository.touchRecipesUsingIngredient(event.ingredient().getId(), updatedAt);
+        log.debug("Ingredient {} changed, bumped version of {} recipes", event.ingredient().getId(), touched.size());
+        if (!touched.isEmpty()) {
+            eventPublisher.publishEvent(new RecipesTouchedEvent(touched, updatedAt));
+        }
+    }
+
+    /**
+     * Initializes the ingredient lines of recipes loaded without the {@link Recipe#FULL} entity graph.
+     * Batch fetching loads the lines of the whole list with one query and their ingredients
+     * with another, instead of one query per recipe during serialization.
+     */
+    static void fetchIngredientLines(List<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            for (RecipeIngredient line : recipe.getIngredients()) {
+                Hibernate.initialize(line.getIngredient());
+            }
+        }
+    }
+
+    /**
+     * Looks the recipes up in the {@link RecipeCache} and reads the uncached ones with a single
+     * query. Recipes that do not exist are absent from the result.
+     */
+    private Map<Long, Recipe> findRecipesByIds(Collection<Long> ids) {
+        Map<Long, Recipe> recipesById = new LinkedHashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : ids) {
+            recipeCache.getIfPresent(id).ifPresentOrElse(recipe -> recipesById.put(id, recipe), () -> uncached.add(id));
+        }
+        if (!uncached.isEmpty()) {
+            recipeRepository.findByIdIn(uncached).forEach(recipe -> recipesById.put(recipe.getId(), recipe));
+        }
+        return recipesById;
+    }
+
+    private List<RecipeSearchResult> searchFullTextPage(String query, int pageNumber, int pageSize) {
+        return recipeRepository
+                .searchFullText(query, pageSize, (long) pageNumber * pageSize)
+                .stream()
+                .map(row -> new RecipeSearchResult(row.getId(), row.getTitle(), row.getRank(),
+                        highlightSnippet(row.getSnippet())))
+                .toList();
+    }
+
+    /**
+     * Escapes the user-written snippet text as HTML, then wraps the hits in {@code <mark>} tags,
+     * so the only markup a client renders is the highlighting.
+     */
+    static String highlightSnippet(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet, StandardCharsets.UTF_8.name())
+                .replace(String.valueOf(RecipeSearchRow.HIT_START), "<mark>")
+                .replace(String.valueOf(RecipeSearchRow.HIT_END), "</mark>");
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Decodes a page cursor, checking that it was issued for the requested ordering.
+     *
+     * @return the cursor position, or {@code null} for the first page
+     */
+    private static RecipeCursor resolveCursor(String cursor, RecipeSortField sortField) {
+        RecipeCursor position = cursor == null || cursor.isBlank() ? null : RecipeCursor.decode(cursor);
+        if (position != null && position.sortField() != sortField) {
+            throw new IllegalArgumentException("Cursor was issued for sort field " + position.sortField().getParameterName());
+        }
+        return position;
+    }
+
+    private Recipe applyPatch(Recipe recipe, RecipeUpdateRequest request) {
+        if (request.title() != null) {
+            recipe.setTitle(request.title());
+        }
+        if (request.description() != null) {
+            recipe.setDescription(request.description());
+        }
+        if (request.instructions() != null) {
+            recipe.setInstructions(request.instructions());
+        }
+        if (request.preparationTimeMinutes() != null) {
+            recipe.setPreparationTimeMinutes(request.preparationTimeMinutes());
+        }
+        if (request.cookingTimeMinutes() != null) {
+            recipe.setCookingTimeMinutes(request.cookingTimeMinutes());
+        }
+        if (request.servings() != null) {
+            recipe.setServings(request.servings());
+        }
+        if (request.ingredients() != null && recipe.replaceIngredients(toIngredientLines(request.ingredients()))) {
+            bumpVersion(recipe);
+        }
+        eventPublisher.publishEvent(RecipeSavedEvent.of(recipe));
+        return recipe;
+    }
+
+    /**
+     * Increments the version of a managed recipe whose ingredient lines changed, so its ETag
+     * changes with them although the recipe row itself is not dirty.
+     */
+    private void bumpVersion(Recipe recipe) {
+        entityManager.lock(recipe, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    /**
+     * The scalar attributes a patch request sets, by {@link Recipe} attribute name, for
+     * {@link RecipeRepository#patchIfVersionMatches}.
+     */
+    private static Map<String, Object> changedAttributes(RecipeUpdateRequest request) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (request.title() != null) {
+            attributes.put("title", request.title());
+        }
+        if (request.description() != null) {
+            attributes.put("description", request.description());
+        }
+        if (request.instructions() != null) {
+            attributes.put("instructions", request.instructions());
+        }
+        if (request.preparationTimeMinutes() != null) {
+            attributes.put("preparationTimeMinutes", request.preparationTimeMinutes());
+        }
+        if (request.cookingTimeMinutes() != null) {
+            attributes.put("cookingTimeMinutes", request.cookingTimeMinutes());
+        }
+        if (request.servings() != null) {
+            attributes.put("servings", request.servings());
+        }
+        return attributes;
+    }
+
+    /**
+     * Collects the bean validation errors of a batch item and checks its ingredient lines
+     * against the ingredients loaded for the batch.
+     */
+    private Map<String, String> validate(RecipeCreateRequest request, Map<Long, Ingredient> ingredientsById) {
+        if (request == null) {
+            return Map.of("recipe", "Recipe is required");
+        }
+        Map<String, String> errors = new TreeMap<>();
+        validator.validate(request)
+                .forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        if (request.ingredients() == null) {
+            return errors;
+        }
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < request.ingredients().size(); i++) {
+            RecipeIngredientRequest line = request.ingredients().get(i);
+            if (line == null) {
+                errors.put("ingredients[" + i + "]", "Ingredient line is required");
+            } else if (line.ingredientId() != null && !seen.add(line.ingredientId())) {
+                errors.put("ingredients[" + i + "].ingredientId",
+                        "Ingredient " + line.ingredientId() + " is listed more than once");
+            } else if (line.ingredientId() != null && !ingredientsById.containsKey(line.ingredientId())) {
+                errors.put("ingredients[" + i + "].ingredientId",
+                        "Ingredient " + line.ingredientId() + " does not exist");
+            }
+        }
+        return errors;
+    }
+
+    private static Recipe toRecipe(RecipeCreateRequest request, Map<Long, Ingredient> ingredientsById) {
+        Recipe recipe = Recipe.builder()
+                .title(request.title())
+                .description(request.description())
+                .instructions(request.instructions())
+                .preparationTimeMinutes(request.preparationTimeMinutes())
+                .cookingTimeMinutes(request.cookingTimeMinutes())
+                .servings(request.servings())
+                .build();
+        if (request.ingredients() != null) {
+            recipe.replaceIngredients(request.ingredients().stream()
+                    .map(line -> RecipeIngredient.builder()
+                            .ingredient(ingredientsById.get(line.ingredientId()))
+                            .quantity(line.quantity())
+                            .build())
+                    .toList());
+        }
+        return recipe;
+    }
+
+    private List<RecipeIngredient> toIngredientLines(List<RecipeIngredientRequest> requests) {
+        Set<Long> ingredientIds = new LinkedHashSet<>();
+        for (RecipeIngredientRequest request : requests) {
+            if (!ingredientIds.add(request.ingredientId())) {
+                throw new IllegalArgumentException("Ingredient " + request.ingredientId() + " is listed more than once");
+            }
+        }
+        Map<Long, Ingredient> ingredientsById = ingredientIds.isEmpty()
+                ? Map.of()
+                : ingredientService.getIngredientsByIds(ingredientIds).stream()
+                        .collect(Collectors.toMap(Ingredient::getId, Function.identity()));
+        return requests.stream()
+                .map(request -> RecipeIngredient.builder()
+                        .ingredient(ingredientsById.get(request.ingredientId()))
+                        .quantity(request.quantity())
+                        .build())
+                .toList();
     }
-}
\ No newline at end of file
+}
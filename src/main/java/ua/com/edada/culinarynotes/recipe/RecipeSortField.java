@@ -0,0 +1,37 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.util.Arrays;
+
+/**
+ * Timestamp columns a recipe page can be ordered by. The recipe id is always
+ * used as the tie-breaker, so every ordering is total and backed by an index.
+ */
+public enum RecipeSortField {
+
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String parameterName;
+
+    RecipeSortField(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    /**
+     * Resolves a sort field from its request parameter name (e.g. {@code createdAt}).
+     *
+     * @param value the request parameter value
+     * @return the matching sort field
+     * @throws IllegalArgumentException if the value is not a supported sort field
+     */
+    public static RecipeSortField fromParameter(String value) {
+        return Arrays.stream(values())
+                .filter(field -> field.parameterName.equalsIgnoreCase(value) || field.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort field: " + value));
+    }
+}
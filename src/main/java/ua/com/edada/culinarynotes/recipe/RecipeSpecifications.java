@@ -0,0 +1,68 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import org.springframework.data.jpa.domain.Specification;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds {@link Specification}s for {@link RecipeRepository} from filter criteria. Unset
+ * criteria add no predicate, so the planner only sees the ranges a client actually asked for.
+ */
+final class RecipeSpecifications {
+
+    private RecipeSpecifications() {
+    }
+
+    /**
+     * Matches the recipes satisfying every criterion of {@code filter}.
+     *
+     * @throws IllegalArgumentException if a range has its lower bound above its upper bound
+     */
+    static Specification<Recipe> matching(RecipeFilterRequest filter) {
+        return Specification.allOf(
+                between("preparationTimeMinutes", filter.minPreparationTimeMinutes(), filter.maxPreparationTimeMinutes()),
+                between("cookingTimeMinutes", filter.minCookingTimeMinutes(), filter.maxCookingTimeMinutes()),
+                between("totalTimeMinutes", filter.minTotalTimeMinutes(), filter.maxTotalTimeMinutes()),
+                between("servings", filter.minServings(), filter.maxServings()),
+                within("createdAt", filter.createdFrom(), filter.createdTo()),
+                within("updatedAt", filter.updatedFrom(), filter.updatedTo()));
+    }
+
+    /**
+     * Matches recipes whose attribute lies in {@code [min, max]}; either bound may be {@code null}.
+     */
+    static Specification<Recipe> between(String attribute, Integer min, Integer max) {
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("Minimum " + attribute + " must not exceed the maximum");
+        }
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.<Integer>get(attribute), min, max);
+            }
+            if (min != null) {
+                return cb.greaterThanOrEqualTo(root.<Integer>get(attribute), min);
+            }
+            return max != null ? cb.lessThanOrEqualTo(root.<Integer>get(attribute), max) : null;
+        };
+    }
+
+    /**
+     * Matches recipes whose timestamp lies in {@code [from, to)}; either bound may be {@code null}.
+     */
+    static Specification<Recipe> within(String attribute, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of the " + attribute + " range must be before its end");
+        }
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(root.<LocalDateTime>get(attribute), from),
+                        cb.lessThan(root.<LocalDateTime>get(attribute), to));
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.<LocalDateTime>get(attribute), from);
+            }
+            return to != null ? cb.lessThan(root.<LocalDateTime>get(attribute), to) : null;
+        };
+    }
+}
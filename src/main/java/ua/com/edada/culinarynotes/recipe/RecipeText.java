@@ -0,0 +1,15 @@
+package ua.com.edada.culinarynotes.recipe;
+
+/**
+ * Projection of the searchable text of a recipe.
+ */
+public interface RecipeText {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getInstructions();
+}
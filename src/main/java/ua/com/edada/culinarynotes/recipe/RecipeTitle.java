@@ -0,0 +1,11 @@
+package ua.com.edada.culinarynotes.recipe;
+
+/**
+ * Projection of a recipe id and title.
+ */
+public interface RecipeTitle {
+
+    Long getId();
+
+    String getTitle();
+}
@@ -0,0 +1,15 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the cache validators of a recipe.
+ */
+public interface RecipeVersion {
+
+    Long getId();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,14 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Published by {@link RecipeService} when recipes were marked as changed without being loaded,
+ * because an ingredient they use changed. In-memory read models listen for it after the
+ * transaction commits.
+ *
+ * @param recipeIds ids of the touched recipes
+ * @param updatedAt their new modification time
+ */
+public record RecipesTouchedEvent(Collection<Long> recipeIds, LocalDateTime updatedAt) {}
@@ -0,0 +1,18 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * A recipe that can be cooked from the given pantry.
+ *
+ * @param recipeId             the recipe id
+ * @param title                the recipe title
+ * @param missingCount         number of the recipe's ingredients that are not in the pantry
+ * @param missingIngredientIds ids of those ingredients
+ */
+public record PantryMatch(
+    Long recipeId,
+    String title,
+    int missingCount,
+    List<Long> missingIngredientIds
+) {}
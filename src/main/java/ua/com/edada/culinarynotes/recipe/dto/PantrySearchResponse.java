@@ -0,0 +1,14 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * Recipes that can be cooked from a pantry, fewest missing ingredients first.
+ *
+ * @param matches      the best matches, at most the requested limit
+ * @param totalMatches number of matching recipes, including those beyond the limit
+ */
+public record PantrySearchResponse(
+    List<PantryMatch> matches,
+    long totalMatches
+) {}
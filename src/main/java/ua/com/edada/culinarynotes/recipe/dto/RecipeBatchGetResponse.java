@@ -0,0 +1,16 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import ua.com.edada.culinarynotes.recipe.Recipe;
+
+import java.util.List;
+
+/**
+ * Recipes requested by id.
+ *
+ * @param recipes    the recipes that exist, in the order their ids were requested
+ * @param missingIds requested ids without a recipe, in request order
+ */
+public record RecipeBatchGetResponse(
+    List<Recipe> recipes,
+    List<Long> missingIds
+) {}
@@ -0,0 +1,16 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.Map;
+
+/**
+ * Outcome of one recipe of a batch create request.
+ *
+ * @param index  position of the recipe in the request
+ * @param id     id of the created recipe, {@code null} when nothing was created
+ * @param errors validation errors of this recipe by field, empty when it is valid
+ */
+public record RecipeBatchItemResult(
+    int index,
+    Long id,
+    Map<String, String> errors
+) {}
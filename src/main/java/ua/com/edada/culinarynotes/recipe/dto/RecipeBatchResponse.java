@@ -0,0 +1,17 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch create request. A batch is created completely or not at all: when any
+ * recipe is invalid, {@code created} is zero and the invalid recipes carry their errors.
+ *
+ * @param created number of recipes created
+ * @param invalid number of recipes that failed validation
+ * @param items   one result per requested recipe, in request order
+ */
+public record RecipeBatchResponse(
+    int created,
+    int invalid,
+    List<RecipeBatchItemResult> items
+) {}
@@ -1,9 +1,12 @@
 package ua.com.edada.culinarynotes.recipe.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.util.List;
+
 public record RecipeCreateRequest(
     @NotBlank(message = "Title is required")
     @Size(min = 3, max = 255, message = "Title must be between 3 and 255 characters")
@@ -20,5 +23,7 @@ public record RecipeCreateRequest(
     Integer cookingTimeMinutes,
 
     @Min(value = 1, message = "Servings must be at least 1")
-    Integer servings
+    Integer servings,
+
+    List<@Valid RecipeIngredientRequest> ingredients
 ) {}
\ No newline at end of file
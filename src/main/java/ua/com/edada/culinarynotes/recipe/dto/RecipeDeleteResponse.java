@@ -0,0 +1,15 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk delete.
+ *
+ * @param deleted    number of recipes deleted
+ * @param deletedIds ids of the deleted recipes, ascending; {@code null} for deletes by creation
+ *                   time, which are not bounded in size
+ */
+public record RecipeDeleteResponse(
+    int deleted,
+    List<Long> deletedIds
+) {}
@@ -0,0 +1,14 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+/**
+ * Number of matching recipes whose value falls into an inclusive range.
+ *
+ * @param min   lower bound of the range
+ * @param max   upper bound of the range, {@code null} for the open-ended last bucket
+ * @param count number of matching recipes in the range
+ */
+public record RecipeFacetBucket(
+    int min,
+    Integer max,
+    long count
+) {}
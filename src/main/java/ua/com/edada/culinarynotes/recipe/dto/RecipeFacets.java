@@ -0,0 +1,16 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * Facet counts over all matches of a recipe search, not just the returned page.
+ *
+ * @param total            total number of matching recipes
+ * @param totalTimeMinutes matches per total time bucket; every match is in exactly one bucket
+ * @param servings         matches per servings range; recipes without a serving count are in none
+ */
+public record RecipeFacets(
+    long total,
+    List<RecipeFacetBucket> totalTimeMinutes,
+    List<RecipeFacetBucket> servings
+) {}
@@ -0,0 +1,48 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria of a recipe filter; every criterion is optional. Minimum and maximum times and
+ * servings are inclusive, date ranges include their start and exclude their end.
+ */
+public record RecipeFilterRequest(
+    @Min(value = 0, message = "Preparation time cannot be negative")
+    Integer minPreparationTimeMinutes,
+
+    @Min(value = 0, message = "Preparation time cannot be negative")
+    Integer maxPreparationTimeMinutes,
+
+    @Min(value = 0, message = "Cooking time cannot be negative")
+    Integer minCookingTimeMinutes,
+
+    @Min(value = 0, message = "Cooking time cannot be negative")
+    Integer maxCookingTimeMinutes,
+
+    @Min(value = 0, message = "Total time cannot be negative")
+    Integer minTotalTimeMinutes,
+
+    @Min(value = 0, message = "Total time cannot be negative")
+    Integer maxTotalTimeMinutes,
+
+    @Min(value = 1, message = "Servings must be at least 1")
+    Integer minServings,
+
+    @Min(value = 1, message = "Servings must be at least 1")
+    Integer maxServings,
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime createdFrom,
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime createdTo,
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime updatedFrom,
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime updatedTo
+) {}
@@ -0,0 +1,20 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import ua.com.edada.culinarynotes.recipe.Recipe;
+
+import java.util.List;
+
+/**
+ * One page of filtered recipes.
+ *
+ * @param recipes       recipes on this page, in the requested order
+ * @param page          zero-based page number
+ * @param size          page size
+ * @param totalElements total number of matching recipes
+ */
+public record RecipeFilterResponse(
+    List<Recipe> recipes,
+    int page,
+    int size,
+    long totalElements
+) {}
@@ -0,0 +1,14 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record RecipeIngredientRequest(
+    @NotNull(message = "Ingredient id is required")
+    Long ingredientId,
+
+    @Positive(message = "Quantity must be positive")
+    BigDecimal quantity
+) {}
@@ -0,0 +1,16 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of recipes.
+ *
+ * @param items          the recipes on this page
+ * @param nextCursor     opaque cursor for the next page, or {@code null} on the last page
+ * @param estimatedTotal planner estimate of the total number of recipes, or {@code null} if not requested
+ */
+public record RecipePage<T>(
+    List<T> items,
+    String nextCursor,
+    Long estimatedTotal
+) {}
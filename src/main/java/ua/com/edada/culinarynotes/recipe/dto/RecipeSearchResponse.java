@@ -0,0 +1,25 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked recipe search results.
+ *
+ * @param results       hits on this page, best match first
+ * @param page          zero-based page number
+ * @param size          page size
+ * @param totalElements total number of matching recipes
+ * @param facets        facet counts over all matches, {@code null} unless requested and computed in time
+ */
+public record RecipeSearchResponse(
+    List<RecipeSearchResult> results,
+    int page,
+    int size,
+    long totalElements,
+    RecipeFacets facets
+) {
+
+    public RecipeSearchResponse(List<RecipeSearchResult> results, int page, int size, long totalElements) {
+        this(results, page, size, totalElements, null);
+    }
+}
@@ -0,0 +1,16 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+/**
+ * A single ranked recipe search hit.
+ *
+ * @param id      the recipe id
+ * @param title   the recipe title
+ * @param rank    relevance score, higher is better
+ * @param snippet HTML-escaped matching fragment with hits wrapped in {@code <mark>} tags, may be {@code null}
+ */
+public record RecipeSearchResult(
+    Long id,
+    String title,
+    double rank,
+    String snippet
+) {}
@@ -0,0 +1,14 @@
+package ua.com.edada.culinarynotes.recipe.dto;
+
+/**
+ * A recipe whose title approximately matches a query.
+ *
+ * @param id       the recipe id
+ * @param title    the recipe title
+ * @param distance number of character edits between the query words and the title, lower is better
+ */
+public record RecipeTitleMatch(
+    Long id,
+    String title,
+    int distance
+) {}
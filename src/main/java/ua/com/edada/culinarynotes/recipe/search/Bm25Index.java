@@ -0,0 +1,294 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import ua.com.edada.culinarynotes.common.search.TextTokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inverted index with BM25 ranking over tokenized documents.
+ * <p>
+ * Documents get dense internal numbers in insertion order, so every posting list stays sorted
+ * and is stored as two parallel {@code int} arrays (document number and term frequency).
+ * Updates append a new document and tombstone the old one; tombstoned postings are skipped
+ * at query time and left out of the copy made by {@link #compacted()}. Like Lucene, document
+ * frequencies include tombstoned documents until the next compaction.
+ * <p>
+ * This class is not thread-safe; callers must guard it with a read/write lock.
+ */
+public class Bm25Index {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    /**
+     * Title tokens count this many times, a cheap approximation of per-field weighting (BM25F).
+     */
+    static final int TITLE_BOOST = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_POOLED_BUFFERS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * A tokenized document ready to be added to the index.
+     *
+     * @param id             the external (recipe) id
+     * @param title          the title returned with search hits
+     * @param termFrequencies term to (boosted) frequency
+     * @param length         number of tokens in the document
+     */
+    public record Document(long id, String title, Map<String, Integer> termFrequencies, int length) {
+
+        /**
+         * Tokenizes a document from its title and body fields.
+         */
+        public static Document of(long id, String title, String... bodyFields) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            List<String> titleTokens = TextTokenizer.tokenize(title);
+            titleTokens.forEach(token -> frequencies.merge(token, TITLE_BOOST, Integer::sum));
+            int length = titleTokens.size();
+            for (String field : bodyFields) {
+                List<String> tokens = TextTokenizer.tokenize(field);
+                tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+                length += tokens.size();
+            }
+            return new Document(id, title, frequencies, length);
+        }
+    }
+
+    /**
+     * A ranked search hit.
+     *
+     * @param id    the external (recipe) id
+     * @param title the document title
+     * @param score the BM25 score
+     */
+    public record Hit(long id, String title, float score) {}
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docNumbersById = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private final BitSet deleted = new BitSet();
+    private int maxDoc;
+    private int liveDocs;
+    private long totalLength;
+
+    // Score accumulators are as large as the index, so a few are pooled instead of one per request thread
+    private final ConcurrentLinkedQueue<float[]> scoreBuffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    /**
+     * Adds a document, replacing any previous version with the same id.
+     */
+    public void add(Document document) {
+        remove(document.id());
+
+        int doc = maxDoc++;
+        ensureCapacity(maxDoc);
+        ids[doc] = document.id();
+        titles[doc] = document.title();
+        lengths[doc] = document.length();
+        docNumbersById.put(document.id(), doc);
+        liveDocs++;
+        totalLength += document.length();
+
+        document.termFrequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new PostingList()).append(doc, frequency));
+    }
+
+    /**
+     * Removes the document with the given id, if present.
+     *
+     * @return {@code true} if a document was removed
+     */
+    public boolean remove(long id) {
+        Integer doc = docNumbersById.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        deleted.set(doc);
+        titles[doc] = null;
+        liveDocs--;
+        totalLength -= lengths[doc];
+        return true;
+    }
+
+    public int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Share of tombstoned documents among all document numbers handed out so far.
+     */
+    public double deletedRatio() {
+        return maxDoc == 0 ? 0 : (double) (maxDoc - liveDocs) / maxDoc;
+    }
+
+    /**
+     * Scores every live document containing at least one of the query terms and returns
+     * the best {@code limit} hits, highest score first.
+     */
+    public List<Hit> search(Collection<String> queryTerms, int limit) {
+        if (liveDocs == 0 || limit <= 0) {
+            return List.of();
+        }
+        float averageLength = (float) totalLength / liveDocs;
+        float[] scores = borrowScoreBuffer();
+        try {
+            return score(queryTerms, limit, averageLength, scores);
+        } finally {
+            releaseScoreBuffer(scores);
+        }
+    }
+
+    private List<Hit> score(Collection<String> queryTerms, int limit, float averageLength, float[] scores) {
+        int[] touched = new int[0];
+        int touchedCount = 0;
+
+        Set<String> uniqueTerms = new LinkedHashSet<>(queryTerms);
+        for (String term : uniqueTerms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            float idf = (float) Math.log(1 + (maxDoc - list.size + 0.5) / (list.size + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                int frequency = list.frequencies[i];
+                float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                if (scores[doc] == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, Math.max(16, touchedCount * 2));
+                    }
+                    touched[touchedCount++] = doc;
+                }
+                scores[doc] += idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(a.score(), b.score()));
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            float score = scores[doc];
+            scores[doc] = 0;
+            if (top.size() < limit) {
+                top.add(new Hit(ids[doc], titles[doc], score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new Hit(ids[doc], titles[doc], score));
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort((a, b) -> Float.compare(b.score(), a.score()));
+        return hits;
+    }
+
+    /**
+     * Returns a copy of this index without tombstoned documents, with live documents renumbered
+     * and posting lists rewritten. Only reads this index, so it can run alongside searches.
+     */
+    public Bm25Index compacted() {
+        Bm25Index copy = new Bm25Index();
+        copy.ensureCapacity(liveDocs);
+        int[] remap = new int[maxDoc];
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                int next = copy.maxDoc++;
+                remap[doc] = next;
+                copy.ids[next] = ids[doc];
+                copy.titles[next] = titles[doc];
+                copy.lengths[next] = lengths[doc];
+                copy.docNumbersById.put(ids[doc], next);
+            }
+        }
+        copy.liveDocs = liveDocs;
+        copy.totalLength = totalLength;
+
+        postings.forEach((term, list) -> {
+            PostingList kept = list.compacted(remap);
+            if (kept.size > 0) {
+                copy.postings.put(term, kept);
+            }
+        });
+        return copy;
+    }
+
+    private float[] borrowScoreBuffer() {
+        float[] buffer = scoreBuffers.poll();
+        if (buffer == null) {
+            return new float[ids.length];
+        }
+        pooledBuffers.decrementAndGet();
+        return buffer.length < maxDoc ? new float[ids.length] : buffer;
+    }
+
+    private void releaseScoreBuffer(float[] buffer) {
+        // Buffers are handed back zeroed: score() resets every slot it touched
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            scoreBuffers.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, newCapacity);
+            titles = Arrays.copyOf(titles, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+        }
+    }
+
+    private static final class PostingList {
+
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void append(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        PostingList compacted(int[] remap) {
+            PostingList kept = new PostingList();
+            kept.docs = new int[Math.max(size, 1)];
+            kept.frequencies = new int[Math.max(size, 1)];
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    kept.docs[kept.size] = doc;
+                    kept.frequencies[kept.size] = frequencies[i];
+                    kept.size++;
+                }
+            }
+            kept.docs = Arrays.copyOf(kept.docs, Math.max(kept.size, 1));
+            kept.frequencies = Arrays.copyOf(kept.frequencies, Math.max(kept.size, 1));
+            return kept;
+        }
+    }
+}
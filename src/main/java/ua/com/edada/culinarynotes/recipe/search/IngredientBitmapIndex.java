@@ -0,0 +1,201 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compressed bitmap index from ingredients to the recipes that use them, answering
+ * "which recipes can I cook from these ingredients, missing at most N of them".
+ * <p>
+ * Besides one bitmap per ingredient, the number of ingredients of every recipe is kept
+ * bit-sliced: slice {@code i} holds the recipes whose ingredient count has bit {@code i} set.
+ * A lookup adds up the pantry ingredient bitmaps into a bit-sliced per-recipe counter and
+ * compares it with the ingredient counts slice by slice, so matching is a handful of
+ * AND/XOR/OR operations over compressed bitmaps instead of a join and GROUP BY.
+ * <p>
+ * Not thread-safe; callers guard access with their own lock.
+ */
+public final class IngredientBitmapIndex {
+
+    private static final int[] NO_INGREDIENTS = new int[0];
+
+    private final Map<Integer, RoaringBitmap> recipesByIngredient = new HashMap<>();
+    private final List<RoaringBitmap> ingredientCountSlices = new ArrayList<>();
+
+    // Sorted ingredient ids of every indexed recipe, indexed by recipe id
+    private int[][] ingredientsByRecipe = new int[1024][];
+    private int size;
+
+    /**
+     * A recipe that can be cooked from the pantry.
+     *
+     * @param recipeId     the recipe id
+     * @param missingCount number of the recipe's ingredients that are not in the pantry
+     */
+    public record Match(int recipeId, int missingCount) {}
+
+    /**
+     * Matches of a lookup.
+     *
+     * @param matches matches ordered by ascending missing count, then ascending recipe id
+     * @param total   number of matching recipes, including those beyond the limit
+     */
+    public record Result(List<Match> matches, long total) {}
+
+    /**
+     * Sets the ingredients of a recipe, replacing any previous ones.
+     *
+     * @return the previous ingredient ids of the recipe, empty if it was not indexed
+     */
+    public int[] put(int recipeId, int[] ingredientIds) {
+        int[] previous = remove(recipeId);
+        int[] current = Arrays.stream(ingredientIds).distinct().sorted().toArray();
+        if (current.length == 0) {
+            return previous;
+        }
+        for (int ingredientId : current) {
+            recipesByIngredient.computeIfAbsent(ingredientId, id -> new RoaringBitmap()).add(recipeId);
+        }
+        for (int bit = 0; current.length >> bit != 0; bit++) {
+            if ((current.length >> bit & 1) != 0) {
+                slice(ingredientCountSlices, bit).add(recipeId);
+            }
+        }
+        if (recipeId >= ingredientsByRecipe.length) {
+            ingredientsByRecipe = Arrays.copyOf(ingredientsByRecipe, Math.max(recipeId + 1, ingredientsByRecipe.length * 2));
+        }
+        ingredientsByRecipe[recipeId] = current;
+        size++;
+        return previous;
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @return the previous ingredient ids of the recipe, empty if it was not indexed
+     */
+    public int[] remove(int recipeId) {
+        int[] previous = ingredientsOf(recipeId);
+        if (previous.length == 0) {
+            return previous;
+        }
+        for (int ingredientId : previous) {
+            RoaringBitmap recipes = recipesByIngredient.get(ingredientId);
+            recipes.remove(recipeId);
+            if (recipes.isEmpty()) {
+                recipesByIngredient.remove(ingredientId);
+            }
+        }
+        for (RoaringBitmap slice : ingredientCountSlices) {
+            slice.remove(recipeId);
+        }
+        ingredientsByRecipe[recipeId] = null;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the sorted ingredient ids of a recipe, empty if it is not indexed.
+     */
+    public int[] ingredientsOf(int recipeId) {
+        if (recipeId < 0 || recipeId >= ingredientsByRecipe.length || ingredientsByRecipe[recipeId] == null) {
+            return NO_INGREDIENTS;
+        }
+        return ingredientsByRecipe[recipeId];
+    }
+
+    /**
+     * Returns the number of recipes with at least one ingredient.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the recipes using at least one pantry ingredient and missing at most {@code maxMissing}
+     * of their ingredients.
+     *
+     * @param pantry     ids of the available ingredients
+     * @param maxMissing how many ingredients a recipe may miss
+     * @param limit      maximum number of matches to return
+     * @return the best matches and the total number of matching recipes
+     */
+    public Result match(int[] pantry, int maxMissing, int limit) {
+        RoaringBitmap[] pantryRecipes = Arrays.stream(pantry)
+                .distinct()
+                .mapToObj(recipesByIngredient::get)
+                .filter(recipes -> recipes != null)
+                .toArray(RoaringBitmap[]::new);
+        if (pantryRecipes.length == 0) {
+            return new Result(List.of(), 0);
+        }
+        RoaringBitmap candidates = FastAggregation.or(pantryRecipes);
+
+        // Bit-sliced number of pantry ingredients per recipe
+        List<RoaringBitmap> available = new ArrayList<>();
+        for (RoaringBitmap recipes : pantryRecipes) {
+            add(available, recipes, 0);
+        }
+
+        List<Match> matches = new ArrayList<>(Math.min(limit, candidates.getCardinality()));
+        long total = 0;
+        for (int missing = 0; missing <= maxMissing; missing++) {
+            // Recipes whose ingredient count is exactly available + missing
+            List<RoaringBitmap> expected = new ArrayList<>(available.size() + 1);
+            available.forEach(slice -> expected.add(slice.clone()));
+            for (int bit = 0; missing >> bit != 0; bit++) {
+                if ((missing >> bit & 1) != 0) {
+                    add(expected, candidates, bit);
+                }
+            }
+            RoaringBitmap exact = equal(ingredientCountSlices, expected, candidates);
+
+            total += exact.getCardinality();
+            IntIterator recipeIds = exact.getIntIterator();
+            while (matches.size() < limit && recipeIds.hasNext()) {
+                matches.add(new Match(recipeIds.next(), missing));
+            }
+        }
+        return new Result(matches, total);
+    }
+
+    /**
+     * Adds one, shifted left by {@code bit}, to the bit-sliced counter of every recipe in {@code recipes}.
+     */
+    private static void add(List<RoaringBitmap> slices, RoaringBitmap recipes, int bit) {
+        RoaringBitmap carry = recipes;
+        for (int i = bit; !carry.isEmpty(); i++) {
+            RoaringBitmap slice = slice(slices, i);
+            RoaringBitmap nextCarry = RoaringBitmap.and(slice, carry);
+            slice.xor(carry);
+            carry = nextCarry;
+        }
+    }
+
+    /**
+     * Returns the recipes in {@code universe} whose bit-sliced values in {@code a} and {@code b} are equal.
+     */
+    private static RoaringBitmap equal(List<RoaringBitmap> a, List<RoaringBitmap> b, RoaringBitmap universe) {
+        RoaringBitmap equal = universe.clone();
+        for (int i = 0; i < Math.max(a.size(), b.size()) && !equal.isEmpty(); i++) {
+            RoaringBitmap sliceA = i < a.size() ? a.get(i) : new RoaringBitmap();
+            RoaringBitmap sliceB = i < b.size() ? b.get(i) : new RoaringBitmap();
+            equal.andNot(RoaringBitmap.xor(sliceA, sliceB));
+        }
+        return equal;
+    }
+
+    private static RoaringBitmap slice(List<RoaringBitmap> slices, int bit) {
+        while (slices.size() <= bit) {
+            slices.add(new RoaringBitmap());
+        }
+        return slices.get(bit);
+    }
+}
@@ -0,0 +1,200 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.com.edada.culinarynotes.ingredient.IngredientAutocompleteIndex;
+import ua.com.edada.culinarynotes.recipe.RecipeDeletedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipeIngredientIds;
+import ua.com.edada.culinarynotes.recipe.RecipeRepository;
+import ua.com.edada.culinarynotes.recipe.RecipeSavedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link IngredientBitmapIndex} answering "what can I cook" pantry lookups.
+ * <p>
+ * Built in the background once the application is ready and kept up to date from
+ * {@link RecipeSavedEvent} and {@link RecipeDeletedEvent} after each commit. Incremental
+ * changes also move the usage counts the ingredient autocomplete ranks by.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PantrySearchIndex {
+
+    private final RecipeRepository recipeRepository;
+    private final IngredientAutocompleteIndex ingredientAutocompleteIndex;
+
+    @Value("${recipe.search.index.rebuild-batch-size:2000}")
+    private int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private IngredientBitmapIndex index = new IngredientBitmapIndex();
+
+    // Changes applied while a rebuild is running, replayed onto the rebuilt index. Guarded by lock
+    private List<Consumer<IngredientBitmapIndex>> pendingChanges;
+
+    /**
+     * A recipe that can be cooked from the pantry.
+     *
+     * @param recipeId             the recipe id
+     * @param missingIngredientIds ingredients of the recipe that are not in the pantry
+     */
+    public record Match(Long recipeId, List<Long> missingIngredientIds) {}
+
+    /**
+     * @param matches matches ordered by ascending number of missing ingredients, then by recipe id
+     * @param total   number of matching recipes, including those beyond the limit
+     */
+    public record Result(List<Match> matches, long total) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread.ofPlatform()
+                .name("pantry-search-index-rebuild")
+                .daemon(true)
+                .start(this::rebuild);
+    }
+
+    /**
+     * Rebuilds the whole index from the database and swaps it in atomically.
+     */
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IngredientBitmapIndex rebuilt = new IngredientBitmapIndex();
+        try {
+            List<RecipeIngredientIds> batch = recipeRepository.findIngredientIdsBatchAfter(0, rebuildBatchSize);
+            while (!batch.isEmpty()) {
+                batch.forEach(row -> rebuilt.put(toIntId(row.getRecipeId()), parseIds(row.getIngredientIds())));
+                long lastRecipeId = batch.get(batch.size() - 1).getRecipeId();
+                batch = batch.size() == rebuildBatchSize
+                        ? recipeRepository.findIngredientIdsBatchAfter(lastRecipeId, rebuildBatchSize)
+                        : List.of();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild pantry search index", ex);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt pantry search index with {} recipes in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Finds the recipes using at least one of the pantry ingredients and missing at most
+     * {@code maxMissing} of their ingredients.
+     */
+    public Result search(Collection<Long> pantry, int maxMissing, int limit) {
+        int[] pantryIds = pantry.stream().mapToInt(PantrySearchIndex::toIntId).sorted().toArray();
+        lock.readLock().lock();
+        try {
+            IngredientBitmapIndex.Result result = index.match(pantryIds, maxMissing, limit);
+            List<Match> matches = new ArrayList<>(result.matches().size());
+            for (IngredientBitmapIndex.Match match : result.matches()) {
+                List<Long> missing = Arrays.stream(index.ingredientsOf(match.recipeId()))
+                        .filter(ingredientId -> Arrays.binarySearch(pantryIds, ingredientId) < 0)
+                        .mapToObj(Long::valueOf)
+                        .toList();
+                matches.add(new Match((long) match.recipeId(), missing));
+            }
+            return new Result(matches, result.total());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        if (event.ingredientIds() == null) {
+            return;
+        }
+        int recipeId = toIntId(event.recipe().getId());
+        int[] ingredientIds = event.ingredientIds().stream().mapToInt(PantrySearchIndex::toIntId).toArray();
+        lock.writeLock().lock();
+        try {
+            int[] previous = index.put(recipeId, ingredientIds);
+            if (pendingChanges != null) {
+                pendingChanges.add(target -> target.put(recipeId, ingredientIds));
+            }
+            adjustUsage(previous, index.ingredientsOf(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecipesDeleted(RecipeDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : event.recipeIds()) {
+                int recipeId = toIntId(id);
+                int[] previous = index.remove(recipeId);
+                if (pendingChanges != null) {
+                    pendingChanges.add(target -> target.remove(recipeId));
+                }
+                adjustUsage(previous, new int[0]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the autocomplete usage counts of the ingredients a recipe stopped or started using.
+     * Both arrays are sorted.
+     */
+    private void adjustUsage(int[] previous, int[] current) {
+        for (int ingredientId : previous) {
+            if (Arrays.binarySearch(current, ingredientId) < 0) {
+                ingredientAutocompleteIndex.adjustUsage((long) ingredientId, -1);
+            }
+        }
+        for (int ingredientId : current) {
+            if (Arrays.binarySearch(previous, ingredientId) < 0) {
+                ingredientAutocompleteIndex.adjustUsage((long) ingredientId, 1);
+            }
+        }
+    }
+
+    private static int[] parseIds(String commaSeparated) {
+        return Arrays.stream(commaSeparated.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    // Bitmaps hold 32-bit values; identity ids stay far below that
+    private static int toIntId(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,406 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Column store of the numeric recipe attributes, answering filter, sort and top-K queries
+ * without touching the database.
+ * <p>
+ * Every attribute lives in its own primitive array, one slot per recipe, with deleted slots
+ * filled from the end so the arrays stay dense. A query scans a block of slots one column at
+ * a time into a bitmask, one bit per slot, evaluating only the predicates it uses with
+ * branch-free loops over contiguous arrays. Only the slots left set are ranked. Every block
+ * keeps its own top-K, so large catalogs are scanned in parallel on the common fork-join
+ * pool and only the per-block winners are merged.
+ * <p>
+ * Times and servings are non-negative, timestamps are epoch microseconds; {@link #MISSING}
+ * marks an unknown value, which never matches a range. Not thread-safe; callers guard access
+ * with their own lock.
+ */
+public final class RecipeCatalog {
+
+    /**
+     * Stored for an unknown time or serving count.
+     */
+    public static final int MISSING = -1;
+
+    // Slots per block; a block is the unit of parallel work and has its own top-K
+    private static final int BLOCK_SIZE = 1 << 14;
+
+    // Below this many recipes a sequential scan is faster than forking
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int NO_SLOT = -1;
+
+    // Match bits of the block being scanned, reused by every thread scanning blocks
+    private static final ThreadLocal<long[]> MATCHES = ThreadLocal.withInitial(() -> new long[BLOCK_SIZE / 64]);
+
+    /**
+     * Attributes results can be ordered by; the recipe id breaks ties.
+     */
+    public enum SortKey { TOTAL_TIME, CREATED_AT, UPDATED_AT }
+
+    /**
+     * Inclusive range of attribute values; like the values, bounds are never negative.
+     */
+    public record Range(long min, long max) {
+
+        /**
+         * Range between optional bounds, or {@code null} (no predicate) when both are absent.
+         */
+        public static Range of(Long min, Long max) {
+            if (min == null && max == null) {
+                return null;
+            }
+            return new Range(min != null ? min : 0, max != null ? max : Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Predicates of a query; a {@code null} range does not constrain its attribute.
+     */
+    public record Filter(Range preparationTime, Range cookingTime, Range totalTime, Range servings,
+                         Range createdAt, Range updatedAt) {
+
+        public static final Filter ALL = new Filter(null, null, null, null, null, null);
+    }
+
+    /**
+     * Ids of one page of matches.
+     *
+     * @param ids   matching recipe ids of the page, in the requested order
+     * @param total number of matching recipes, including those outside the page
+     */
+    public record Result(long[] ids, long total) {}
+
+    private long[] ids = new long[1024];
+    private int[] preparationTimes = new int[1024];
+    private int[] cookingTimes = new int[1024];
+    private int[] totalTimes = new int[1024];
+    private int[] servings = new int[1024];
+    private long[] createdAts = new long[1024];
+    private long[] updatedAts = new long[1024];
+    private int size;
+
+    // Slot of every indexed recipe, indexed by recipe id
+    private int[] slotByRecipe = emptySlots(1024);
+
+    /**
+     * Sets the attributes of a recipe, replacing any previous ones.
+     */
+    public void put(long recipeId, int preparationTime, int cookingTime, int servingCount,
+                    long createdAt, long updatedAt) {
+        int id = Math.toIntExact(recipeId);
+        if (id >= slotByRecipe.length) {
+            int previousLength = slotByRecipe.length;
+            slotByRecipe = Arrays.copyOf(slotByRecipe, Math.max(id + 1, previousLength * 2));
+            Arrays.fill(slotByRecipe, previousLength, slotByRecipe.length, NO_SLOT);
+        }
+        int slot = slotByRecipe[id];
+        if (slot == NO_SLOT) {
+            if (size == ids.length) {
+                grow();
+            }
+            slot = size++;
+            slotByRecipe[id] = slot;
+        }
+        ids[slot] = recipeId;
+        preparationTimes[slot] = preparationTime;
+        cookingTimes[slot] = cookingTime;
+        // Same as the generated total_time_minutes column: an unknown time counts as zero
+        totalTimes[slot] = Math.max(preparationTime, 0) + Math.max(cookingTime, 0);
+        servings[slot] = servingCount;
+        createdAts[slot] = createdAt;
+        updatedAts[slot] = updatedAt;
+    }
+
+    /**
+     * Moves the modification time of a recipe; unknown recipes are ignored.
+     */
+    public void touch(long recipeId, long updatedAt) {
+        int slot = slotOf(recipeId);
+        if (slot != NO_SLOT) {
+            updatedAts[slot] = updatedAt;
+        }
+    }
+
+    /**
+     * Removes a recipe, moving the last slot into its place.
+     *
+     * @return whether the recipe was indexed
+     */
+    public boolean remove(long recipeId) {
+        int slot = slotOf(recipeId);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            preparationTimes[slot] = preparationTimes[last];
+            cookingTimes[slot] = cookingTimes[last];
+            totalTimes[slot] = totalTimes[last];
+            servings[slot] = servings[last];
+            createdAts[slot] = createdAts[last];
+            updatedAts[slot] = updatedAts[last];
+            slotByRecipe[(int) ids[slot]] = slot;
+        }
+        slotByRecipe[(int) recipeId] = NO_SLOT;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ids of the matches ranked {@code [offset, offset + limit)} when ordered by
+     * {@code (sortKey, id)}, together with the number of all matches.
+     */
+    public Result query(Filter filter, SortKey sortKey, boolean descending, int offset, int limit) {
+        int k = (int) Math.min((long) offset + limit, size);
+        int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        TopK[] perBlock = new TopK[blocks];
+        IntStream range = IntStream.range(0, blocks);
+        (size >= PARALLEL_THRESHOLD ? range.parallel() : range)
+                .forEach(block -> perBlock[block] = scanBlock(filter, sortKey, descending, k, block));
+
+        TopK merged = new TopK(k, descending);
+        long total = 0;
+        for (TopK block : perBlock) {
+            total += block.matched;
+            for (int i = 0; i < block.size; i++) {
+                merged.offer(block.keys[i], block.ids[i]);
+            }
+        }
+        long[] ranked = merged.sortedIds();
+        int from = Math.min(offset, ranked.length);
+        return new Result(Arrays.copyOfRange(ranked, from, Math.min(from + limit, ranked.length)), total);
+    }
+
+    private TopK scanBlock(Filter filter, SortKey sortKey, boolean descending, int k, int block) {
+        int from = block * BLOCK_SIZE;
+        int to = Math.min(from + BLOCK_SIZE, size);
+        int words = (to - from + 63) >>> 6;
+        long[] matches = MATCHES.get();
+        boolean narrowed = false;
+        narrowed |= narrow(matches, narrowed, from, to, preparationTimes, filter.preparationTime());
+        narrowed |= narrow(matches, narrowed, from, to, cookingTimes, filter.cookingTime());
+        narrowed |= narrow(matches, narrowed, from, to, totalTimes, filter.totalTime());
+        narrowed |= narrow(matches, narrowed, from, to, servings, filter.servings());
+        narrowed |= narrow(matches, narrowed, from, to, createdAts, filter.createdAt());
+        narrowed |= narrow(matches, narrowed, from, to, updatedAts, filter.updatedAt());
+        if (!narrowed) {
+            Arrays.fill(matches, 0, words, -1L);
+        }
+        // Clear the bits past the end of a partial last block
+        if ((to - from & 63) != 0) {
+            matches[words - 1] &= -1L >>> 64 - (to - from & 63);
+        }
+
+        // A block never holds more than its own slots, however deep the requested page
+        TopK top = new TopK(Math.min(k, to - from), descending);
+        switch (sortKey) {
+            case TOTAL_TIME -> offerMatches(top, matches, words, from, totalTimes);
+            case CREATED_AT -> offerMatches(top, matches, words, from, createdAts);
+            case UPDATED_AT -> offerMatches(top, matches, words, from, updatedAts);
+        }
+        return top;
+    }
+
+    /*
+     * Sets one bit per slot of the block whose value is in range, ANDed into the bits of earlier
+     * predicates. A value is in range when neither value - min nor max - value is negative, so
+     * each bit is taken from a sign bit, without any branch the CPU could mispredict. The bits
+     * of a partial last word are cleared by the caller.
+     *
+     * Returns whether the predicate applied, so blocks without predicates can match everything.
+     */
+    private static boolean narrow(long[] matches, boolean narrowed, int from, int to, int[] column, Range range) {
+        if (range == null) {
+            return false;
+        }
+        // MISSING stays out of range: -1 - min is negative, and so is max - -1 once it overflows
+        int min = (int) Math.min(range.min(), Integer.MAX_VALUE);
+        int max = (int) Math.min(range.max(), Integer.MAX_VALUE);
+        int words = (to - from + 63) >>> 6;
+        for (int word = 0; word < words; word++) {
+            int base = from + (word << 6);
+            long bits = 0;
+            if (base + 64 <= to) {
+                for (int bit = 0; bit < 64; bit++) {
+                    int value = column[base + bit];
+                    bits |= (long) (~(value - min | max - value) >>> 31) << bit;
+                }
+            } else {
+                for (int bit = 0; base + bit < to; bit++) {
+                    int value = column[base + bit];
+                    bits |= (long) (~(value - min | max - value) >>> 31) << bit;
+                }
+            }
+            matches[word] = narrowed ? matches[word] & bits : bits;
+        }
+        return true;
+    }
+
+    private static boolean narrow(long[] matches, boolean narrowed, int from, int to, long[] column, Range range) {
+        if (range == null) {
+            return false;
+        }
+        long min = range.min();
+        long max = range.max();
+        int words = (to - from + 63) >>> 6;
+        for (int word = 0; word < words; word++) {
+            int base = from + (word << 6);
+            long bits = 0;
+            if (base + 64 <= to) {
+                for (int bit = 0; bit < 64; bit++) {
+                    long value = column[base + bit];
+                    bits |= (~(value - min | max - value) >>> 63) << bit;
+                }
+            } else {
+                for (int bit = 0; base + bit < to; bit++) {
+                    long value = column[base + bit];
+                    bits |= (~(value - min | max - value) >>> 63) << bit;
+                }
+            }
+            matches[word] = narrowed ? matches[word] & bits : bits;
+        }
+        return true;
+    }
+
+    private void offerMatches(TopK top, long[] matches, int words, int from, int[] keys) {
+        for (int word = 0; word < words; word++) {
+            long bits = matches[word];
+            top.matched += Long.bitCount(bits);
+            while (bits != 0) {
+                int slot = from + (word << 6) + Long.numberOfTrailingZeros(bits);
+                top.offer(keys[slot], ids[slot]);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private void offerMatches(TopK top, long[] matches, int words, int from, long[] keys) {
+        for (int word = 0; word < words; word++) {
+            long bits = matches[word];
+            top.matched += Long.bitCount(bits);
+            while (bits != 0) {
+                int slot = from + (word << 6) + Long.numberOfTrailingZeros(bits);
+                top.offer(keys[slot], ids[slot]);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private int slotOf(long recipeId) {
+        return recipeId >= 0 && recipeId < slotByRecipe.length ? slotByRecipe[(int) recipeId] : NO_SLOT;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        preparationTimes = Arrays.copyOf(preparationTimes, capacity);
+        cookingTimes = Arrays.copyOf(cookingTimes, capacity);
+        totalTimes = Arrays.copyOf(totalTimes, capacity);
+        servings = Arrays.copyOf(servings, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        updatedAts = Arrays.copyOf(updatedAts, capacity);
+    }
+
+    private static int[] emptySlots(int length) {
+        int[] slots = new int[length];
+        Arrays.fill(slots, NO_SLOT);
+        return slots;
+    }
+
+    /**
+     * Bounded binary heap keeping the first {@code capacity} entries in {@code (key, id)} order.
+     * The root is always the last of the kept entries, the next one to be evicted.
+     */
+    private static final class TopK {
+
+        private final int capacity;
+        private final boolean descending;
+        private final long[] keys;
+        private final long[] ids;
+        private int size;
+        private int matched;
+
+        TopK(int capacity, boolean descending) {
+            this.capacity = capacity;
+            this.descending = descending;
+            this.keys = new long[capacity];
+            this.ids = new long[capacity];
+        }
+
+        void offer(long key, long id) {
+            if (size < capacity) {
+                keys[size] = key;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (capacity > 0 && before(key, id, keys[0], ids[0])) {
+                keys[0] = key;
+                ids[0] = id;
+                siftDown(0, size);
+            }
+        }
+
+        // Empties the heap from the root, filling the result from its end
+        long[] sortedIds() {
+            long[] sorted = new long[size];
+            for (int last = size - 1; last >= 0; last--) {
+                sorted[last] = ids[0];
+                swap(0, last);
+                siftDown(0, last);
+            }
+            size = 0;
+            return sorted;
+        }
+
+        private void siftUp(int child) {
+            while (child > 0) {
+                int parent = (child - 1) / 2;
+                if (!before(keys[parent], ids[parent], keys[child], ids[child])) {
+                    return;
+                }
+                swap(parent, child);
+                child = parent;
+            }
+        }
+
+        private void siftDown(int parent, int length) {
+            while (true) {
+                int last = parent;
+                int left = 2 * parent + 1;
+                int right = left + 1;
+                if (left < length && before(keys[last], ids[last], keys[left], ids[left])) {
+                    last = left;
+                }
+                if (right < length && before(keys[last], ids[last], keys[right], ids[right])) {
+                    last = right;
+                }
+                if (last == parent) {
+                    return;
+                }
+                swap(parent, last);
+                parent = last;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+
+        private boolean before(long key, long id, long otherKey, long otherId) {
+            int order = key != otherKey ? Long.compare(key, otherKey) : Long.compare(id, otherId);
+            return descending ? order > 0 : order < 0;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.com.edada.culinarynotes.recipe.Recipe;
+import ua.com.edada.culinarynotes.recipe.RecipeDeletedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipeFilterSortField;
+import ua.com.edada.culinarynotes.recipe.RecipeNumbers;
+import ua.com.edada.culinarynotes.recipe.RecipeRepository;
+import ua.com.edada.culinarynotes.recipe.RecipeSavedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipesTouchedEvent;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link RecipeCatalog} answering recipe filter queries without the database.
+ * <p>
+ * Built in the background once the application is ready and kept up to date from
+ * {@link RecipeSavedEvent}, {@link RecipesTouchedEvent} and {@link RecipeDeletedEvent}
+ * after each commit. Until the first build has finished, {@link #isReady()} is false and
+ * callers should ask the database instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeCatalogIndex {
+
+    private final RecipeRepository recipeRepository;
+
+    @Value("${recipe.search.index.rebuild-batch-size:2000}")
+    private int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private RecipeCatalog catalog = new RecipeCatalog();
+
+    private volatile boolean ready;
+
+    // Changes applied while a rebuild is running, replayed onto the rebuilt catalog. Guarded by lock
+    private List<Consumer<RecipeCatalog>> pendingChanges;
+
+    /**
+     * @param ids   ids of the requested page of matches, in the requested order
+     * @param total number of matching recipes
+     */
+    public record Result(List<Long> ids, long total) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread.ofPlatform()
+                .name("recipe-catalog-rebuild")
+                .daemon(true)
+                .start(this::rebuild);
+    }
+
+    /**
+     * Rebuilds the whole catalog from the database and swaps it in atomically.
+     */
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        RecipeCatalog rebuilt = new RecipeCatalog();
+        try {
+            List<RecipeNumbers> batch = recipeRepository.findNumbersBatchAfter(0, PageRequest.ofSize(rebuildBatchSize));
+            while (!batch.isEmpty()) {
+                batch.forEach(row -> rebuilt.put(row.getId(), orMissing(row.getPreparationTimeMinutes()),
+                        orMissing(row.getCookingTimeMinutes()), orMissing(row.getServings()),
+                        toEpochMicros(row.getCreatedAt()), toEpochMicros(row.getUpdatedAt())));
+                long lastId = batch.get(batch.size() - 1).getId();
+                batch = batch.size() == rebuildBatchSize
+                        ? recipeRepository.findNumbersBatchAfter(lastId, PageRequest.ofSize(rebuildBatchSize))
+                        : List.of();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild recipe catalog", ex);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            catalog = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt recipe catalog with {} recipes in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of one page of the recipes matching {@code filter}, ordered by
+     * {@code (sortField, id)} like the database filter.
+     */
+    public Result search(RecipeFilterRequest filter, RecipeFilterSortField sortField, boolean descending,
+                         int offset, int limit) {
+        RecipeCatalog.Filter predicates = new RecipeCatalog.Filter(
+                range(filter.minPreparationTimeMinutes(), filter.maxPreparationTimeMinutes()),
+                range(filter.minCookingTimeMinutes(), filter.maxCookingTimeMinutes()),
+                range(filter.minTotalTimeMinutes(), filter.maxTotalTimeMinutes()),
+                range(filter.minServings(), filter.maxServings()),
+                range(filter.createdFrom(), filter.createdTo()),
+                range(filter.updatedFrom(), filter.updatedTo()));
+        RecipeCatalog.SortKey sortKey = switch (sortField) {
+            case TOTAL_TIME_MINUTES -> RecipeCatalog.SortKey.TOTAL_TIME;
+            case CREATED_AT -> RecipeCatalog.SortKey.CREATED_AT;
+            case UPDATED_AT -> RecipeCatalog.SortKey.UPDATED_AT;
+        };
+
+        lock.readLock().lock();
+        try {
+            RecipeCatalog.Result result = catalog.query(predicates, sortKey, descending, offset, limit);
+            return new Result(Arrays.stream(result.ids()).boxed().toList(), result.total());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        Recipe recipe = event.recipe();
+        long id = recipe.getId();
+        int preparationTime = orMissing(recipe.getPreparationTimeMinutes());
+        int cookingTime = orMissing(recipe.getCookingTimeMinutes());
+        int servings = orMissing(recipe.getServings());
+        long createdAt = toEpochMicros(recipe.getCreatedAt());
+        long updatedAt = toEpochMicros(recipe.getUpdatedAt());
+        apply(target -> target.put(id, preparationTime, cookingTime, servings, createdAt, updatedAt));
+    }
+
+    @TransactionalEventListener
+    public void onRecipesTouched(RecipesTouchedEvent event) {
+        long updatedAt = toEpochMicros(event.updatedAt());
+        List<Long> ids = List.copyOf(event.recipeIds());
+        apply(target -> ids.forEach(id -> target.touch(id, updatedAt)));
+    }
+
+    @TransactionalEventListener
+    public void onRecipesDeleted(RecipeDeletedEvent event) {
+        List<Long> ids = List.copyOf(event.recipeIds());
+        apply(target -> ids.forEach(target::remove));
+    }
+
+    private void apply(Consumer<RecipeCatalog> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(catalog);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static RecipeCatalog.Range range(Integer min, Integer max) {
+        return RecipeCatalog.Range.of(min != null ? Long.valueOf(min) : null, max != null ? Long.valueOf(max) : null);
+    }
+
+    // Date ranges include their start and exclude their end, like the database filter
+    private static RecipeCatalog.Range range(LocalDateTime from, LocalDateTime to) {
+        return RecipeCatalog.Range.of(from != null ? toEpochMicros(from) : null,
+                to != null ? toEpochMicros(to) - 1 : null);
+    }
+
+    private static int orMissing(Integer value) {
+        return value != null ? value : RecipeCatalog.MISSING;
+    }
+
+    // Microseconds, the precision PostgreSQL keeps; the offset only has to be the same everywhere
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return RecipeCatalog.MISSING;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,211 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.com.edada.culinarynotes.common.search.TextTokenizer;
+import ua.com.edada.culinarynotes.recipe.Recipe;
+import ua.com.edada.culinarynotes.recipe.RecipeDeletedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipeRepository;
+import ua.com.edada.culinarynotes.recipe.RecipeSavedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipeText;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory BM25 index over recipe title, description and instructions.
+ * <p>
+ * Built from the database once the application is ready and kept up to date from
+ * {@link RecipeSavedEvent} and {@link RecipeDeletedEvent} after each commit. Searches never
+ * touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeSearchIndex {
+
+    private static final double COMPACTION_THRESHOLD = 0.25;
+
+    private final RecipeRepository recipeRepository;
+
+    @Value("${recipe.search.index.rebuild-batch-size:2000}")
+    private int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Bm25Index index = new Bm25Index();
+
+    // Changes made while a rebuild or compaction is running, replayed onto the new index. Guarded by lock
+    private List<Consumer<Bm25Index>> pendingChanges;
+
+    // While compacting, the index being copied stays read-only and changes are only queued. Guarded by lock
+    private boolean compacting;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread.ofPlatform()
+                .name("recipe-search-index-rebuild")
+                .daemon(true)
+                .start(this::rebuild);
+    }
+
+    /**
+     * Rebuilds the whole index from the database and swaps it in atomically.
+     * Searches keep using the previous index until the rebuild has finished.
+     */
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                log.warn("Recipe search index is already being rebuilt or compacted, skipping rebuild");
+                return;
+            }
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bm25Index rebuilt = new Bm25Index();
+        try {
+            // The next batch is read while the current one is tokenized; tokenizing runs on all cores
+            CompletableFuture<List<RecipeText>> nextBatch = fetchBatchAfter(0);
+            List<RecipeText> batch;
+            do {
+                batch = nextBatch.join();
+                nextBatch = batch.size() == rebuildBatchSize
+                        ? fetchBatchAfter(batch.get(batch.size() - 1).getId())
+                        : CompletableFuture.completedFuture(List.of());
+
+                batch.parallelStream()
+                        .map(text -> Bm25Index.Document.of(
+                                text.getId(), text.getTitle(), text.getDescription(), text.getInstructions()))
+                        .toList()
+                        .forEach(rebuilt::add);
+            } while (!batch.isEmpty());
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild recipe search index", ex);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt recipe search index with {} recipes in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Returns the best matching recipes for a free-text query, highest BM25 score first.
+     */
+    public List<Bm25Index.Hit> search(String query, int limit) {
+        List<String> terms = TextTokenizer.tokenize(query);
+        lock.readLock().lock();
+        try {
+            return index.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        Recipe recipe = event.recipe();
+        Bm25Index.Document document = Bm25Index.Document.of(
+                recipe.getId(), recipe.getTitle(), recipe.getDescription(), recipe.getInstructions());
+        apply(target -> target.add(document));
+    }
+
+    @TransactionalEventListener
+    public void onRecipesDeleted(RecipeDeletedEvent event) {
+        apply(target -> event.recipeIds().forEach(target::remove));
+    }
+
+    private void apply(Consumer<Bm25Index> change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (compacting) {
+                return;
+            }
+            change.accept(index);
+            if (pendingChanges == null && index.deletedRatio() > COMPACTION_THRESHOLD) {
+                pendingChanges = new ArrayList<>();
+                compacting = true;
+                Bm25Index source = index;
+                Thread.ofPlatform()
+                        .name("recipe-search-index-compaction")
+                        .daemon(true)
+                        .start(() -> compact(source));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies {@code source} without its tombstones while searches keep reading it, then replays
+     * the changes queued meanwhile onto the copy and swaps it in. Only the replay holds the
+     * write lock.
+     */
+    private void compact(Bm25Index source) {
+        long startedAt = System.currentTimeMillis();
+        Bm25Index compacted;
+        try {
+            compacted = source.compacted();
+        } catch (RuntimeException ex) {
+            // The queued changes still have to reach the index
+            log.error("Failed to compact recipe search index", ex);
+            compacted = source;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Bm25Index> change : pendingChanges) {
+                change.accept(compacted);
+            }
+            pendingChanges = null;
+            compacting = false;
+            index = compacted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Compacted recipe search index with {} recipes in {} ms",
+                compacted.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private CompletableFuture<List<RecipeText>> fetchBatchAfter(long afterId) {
+        return CompletableFuture.supplyAsync(
+                () -> recipeRepository.findTextBatchAfter(afterId, PageRequest.of(0, rebuildBatchSize)));
+    }
+}
@@ -0,0 +1,139 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.com.edada.culinarynotes.common.search.FuzzyIndex;
+import ua.com.edada.culinarynotes.recipe.Recipe;
+import ua.com.edada.culinarynotes.recipe.RecipeDeletedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipeRepository;
+import ua.com.edada.culinarynotes.recipe.RecipeSavedEvent;
+import ua.com.edada.culinarynotes.recipe.RecipeTitle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Typo-tolerant in-memory index over recipe titles.
+ * <p>
+ * Built in the background once the application is ready and kept up to date from
+ * {@link RecipeSavedEvent} and {@link RecipeDeletedEvent} after each commit. Lookups never
+ * touch the database and stop after {@code recipe.search.fuzzy.budget}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeTitleFuzzyIndex {
+
+    private final RecipeRepository recipeRepository;
+
+    @Value("${recipe.search.index.rebuild-batch-size:2000}")
+    private int rebuildBatchSize;
+
+    @Value("${recipe.search.fuzzy.budget:50ms}")
+    private Duration budget;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private FuzzyIndex index = new FuzzyIndex();
+
+    // Changes applied while a rebuild is running, replayed onto the rebuilt index. Guarded by lock
+    private List<Consumer<FuzzyIndex>> pendingChanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread.ofPlatform()
+                .name("recipe-title-fuzzy-index-rebuild")
+                .daemon(true)
+                .start(this::rebuild);
+    }
+
+    /**
+     * Rebuilds the whole index from the database and swaps it in atomically.
+     */
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        FuzzyIndex rebuilt = new FuzzyIndex();
+        try {
+            List<RecipeTitle> batch = recipeRepository.findTitleBatchAfter(0, PageRequest.of(0, rebuildBatchSize));
+            while (!batch.isEmpty()) {
+                batch.forEach(title -> rebuilt.put(title.getId(), title.getTitle()));
+                long lastId = batch.get(batch.size() - 1).getId();
+                batch = batch.size() == rebuildBatchSize
+                        ? recipeRepository.findTitleBatchAfter(lastId, PageRequest.of(0, rebuildBatchSize))
+                        : List.of();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild recipe title fuzzy index", ex);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt recipe title fuzzy index with {} recipes in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Returns recipes whose title words are within a few typos of every query word, closest first.
+     */
+    public FuzzyIndex.Result search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit, budget);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecipeSaved(RecipeSavedEvent event) {
+        Recipe recipe = event.recipe();
+        apply(target -> target.put(recipe.getId(), recipe.getTitle()));
+    }
+
+    @TransactionalEventListener
+    public void onRecipesDeleted(RecipeDeletedEvent event) {
+        apply(target -> event.recipeIds().forEach(target::remove));
+    }
+
+    private void apply(Consumer<FuzzyIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- Schema objects that cannot be expressed through JPA mappings.
+-- Runs after Hibernate has updated the schema, so every statement must be idempotent.
+
+-- Full-text search document for recipes. Content is a mix of Ukrainian and English:
+-- the 'english' config stems English words, the 'simple' config keeps every word as-is,
+-- which is the best available option for Ukrainian (PostgreSQL ships no Ukrainian stemmer).
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(instructions, '')), 'C') ||
+    setweight(to_tsvector('simple', coalesce(instructions, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_recipes_search_vector ON recipes USING GIN (search_vector);
+
+-- Recipe and ingredient line ids used to come from identity columns and now come from pooled
+-- sequences that hand out blocks of 50 ids. Move a sequence past rows inserted through the old
+-- identity column, but never backwards.
+SELECT setval('recipes_seq', (SELECT max(id) FROM recipes))
+WHERE (SELECT max(id) FROM recipes) >= (SELECT last_value FROM recipes_seq);
+
+SELECT setval('recipe_ingredients_seq', (SELECT max(id) FROM recipe_ingredients))
+WHERE (SELECT max(id) FROM recipe_ingredients) >= (SELECT last_value FROM recipe_ingredients_seq);
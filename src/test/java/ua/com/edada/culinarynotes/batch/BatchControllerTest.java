@@ -0,0 +1,104 @@
+package ua.com.edada.culinarynotes.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ua.com.edada.culinarynotes.batch.dto.BatchOperationResult;
+import ua.com.edada.culinarynotes.batch.dto.BatchResponse;
+import ua.com.edada.culinarynotes.exception.GlobalExceptionHandler;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchControllerTest {
+
+    private static final String OPERATIONS = """
+            [
+              {"resource": "category", "action": "delete", "id": 4},
+              {"resource": "category", "action": "delete", "id": 5}
+            ]
+            """;
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BatchService batchService;
+
+    @InjectMocks
+    private BatchController batchController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(batchController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void execute_WhenCommitted_ShouldReturnOk() throws Exception {
+        // Arrange
+        when(batchService.execute(anyList())).thenReturn(new BatchResponse(true, List.of(
+                new BatchOperationResult(0, null, 204, 4L, null),
+                new BatchOperationResult(1, null, 204, 5L, null))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").contentType(MediaType.APPLICATION_JSON).content(OPERATIONS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(true)))
+                .andExpect(jsonPath("$.results", hasSize(2)));
+
+        verify(batchService, times(1)).execute(argThat(operations -> operations.size() == 2));
+    }
+
+    @Test
+    void execute_WhenRolledBack_ShouldAnswerWithStatusOfFailedOperation() throws Exception {
+        // Arrange
+        when(batchService.execute(anyList())).thenReturn(new BatchResponse(false, List.of(
+                new BatchOperationResult(0, null, 204, 4L, null),
+                new BatchOperationResult(1, null, 404, null, "Category not found with id : '5'"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").contentType(MediaType.APPLICATION_JSON).content(OPERATIONS))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.committed", is(false)))
+                .andExpect(jsonPath("$.results[1].error", is("Category not found with id : '5'")));
+    }
+
+    @Test
+    void execute_WhenFlushFails_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(batchService.execute(anyList())).thenReturn(new BatchResponse(false, List.of(
+                new BatchOperationResult(0, null, 204, 4L, null),
+                new BatchOperationResult(1, null, 204, 5L, null),
+                new BatchOperationResult(BatchService.FLUSH_INDEX, null, 409, null, "duplicate key"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").contentType(MediaType.APPLICATION_JSON).content(OPERATIONS))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.results[2].index", is(-1)));
+    }
+
+    @Test
+    void execute_WithInvalidBatch_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(batchService.execute(anyList())).thenThrow(new IllegalArgumentException("At least one operation is required"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,168 @@
+package ua.com.edada.culinarynotes.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ua.com.edada.culinarynotes.batch.dto.BatchOperation;
+import ua.com.edada.culinarynotes.batch.dto.BatchResponse;
+import ua.com.edada.culinarynotes.category.CategoryService;
+import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientService;
+import ua.com.edada.culinarynotes.recipe.Recipe;
+import ua.com.edada.culinarynotes.recipe.RecipeService;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeIngredientRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RecipeService recipeService;
+    private CategoryService categoryService;
+    private IngredientService ingredientService;
+    private PlatformTransactionManager transactionManager;
+    private SimpleTransactionStatus transactionStatus;
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        recipeService = mock(RecipeService.class);
+        categoryService = mock(CategoryService.class);
+        ingredientService = mock(IngredientService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        transactionStatus = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        batchService = new BatchService(recipeService, categoryService, ingredientService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager);
+    }
+
+    @Test
+    void execute_ShouldResolveReferencesToEarlierOperationsAndCommitOnce() throws Exception {
+        // Arrange
+        when(ingredientService.createIngredient(any()))
+                .thenReturn(Ingredient.builder().id(7L).name("Flour").unit("g").build());
+        when(recipeService.saveRecipe(any(), anyList())).thenReturn(Recipe.builder().id(40L).title("Bread").build());
+        when(recipeService.deleteRecipe(40L)).thenReturn(true);
+        List<BatchOperation> operations = operations("""
+                [
+                  {"ref": "flour", "resource": "ingredient", "action": "create", "body": {"name": "Flour", "unit": "g"}},
+                  {"ref": "bread", "resource": "recipe", "action": "create",
+                   "body": {"title": "Bread", "ingredients": [{"ingredientId": "$flour", "quantity": 500}]}},
+                  {"resource": "recipe", "action": "delete", "id": "$bread"}
+                ]
+                """);
+
+        // Act
+        BatchResponse response = batchService.execute(operations);
+
+        // Assert
+        assertThat(response.committed()).isTrue();
+        assertThat(response.results()).extracting("index", "ref", "status", "id")
+                .containsExactly(tuple(0, "flour", 201, 7L), tuple(1, "bread", 201, 40L), tuple(2, null, 204, 40L));
+        verify(recipeService).saveRecipe(any(), argThat((List<RecipeIngredientRequest> lines) ->
+                lines.size() == 1 && lines.get(0).ingredientId() == 7L));
+        verify(transactionManager, times(1)).commit(transactionStatus);
+        assertThat(transactionStatus.isRollbackOnly()).isFalse();
+    }
+
+    @Test
+    void execute_WithFailingOperation_ShouldRollBackAndSkipLaterOperations() throws Exception {
+        // Arrange
+        doThrow(new ResourceNotFoundException("Category", "id", 5L)).when(categoryService).deleteCategory(5L);
+        List<BatchOperation> operations = operations("""
+                [
+                  {"resource": "category", "action": "delete", "id": 4},
+                  {"resource": "category", "action": "delete", "id": 5},
+                  {"resource": "category", "action": "delete", "id": 6}
+                ]
+                """);
+
+        // Act
+        BatchResponse response = batchService.execute(operations);
+
+        // Assert
+        assertThat(response.committed()).isFalse();
+        assertThat(response.results()).extracting("index", "status").containsExactly(tuple(0, 204), tuple(1, 404));
+        assertThat(response.results().get(1).error()).contains("Category");
+        verify(categoryService, never()).deleteCategory(6L);
+        assertThat(transactionStatus.isRollbackOnly()).isTrue();
+    }
+
+    @Test
+    void execute_WhenFlushFails_ShouldReportFailedResultAndRollBack() throws Exception {
+        // Arrange
+        SimpleTransactionStatus failingFlush = new SimpleTransactionStatus() {
+            @Override
+            public void flush() {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+        };
+        when(transactionManager.getTransaction(any())).thenReturn(failingFlush);
+        List<BatchOperation> operations = operations("""
+                [{"resource": "category", "action": "delete", "id": 4}]
+                """);
+
+        // Act
+        BatchResponse response = batchService.execute(operations);
+
+        // Assert
+        assertThat(response.committed()).isFalse();
+        assertThat(response.results()).extracting("index", "status")
+                .containsExactly(tuple(0, 204), tuple(BatchService.FLUSH_INDEX, 409));
+        assertThat(response.results().get(1).error()).contains("duplicate key");
+        assertThat(failingFlush.isRollbackOnly()).isTrue();
+    }
+
+    @Test
+    void execute_WithInvalidRecipeOrUnknownReference_ShouldReportBadRequest() throws Exception {
+        // Arrange
+        List<BatchOperation> invalidRecipe = operations("""
+                [{"resource": "recipe", "action": "create", "body": {"title": "ab", "servings": 0}}]
+                """);
+        List<BatchOperation> unknownReference = operations("""
+                [{"resource": "recipe", "action": "update", "id": "$missing", "body": {"title": "Bread"}}]
+                """);
+
+        // Act
+        BatchResponse invalidResponse = batchService.execute(invalidRecipe);
+        BatchResponse unknownResponse = batchService.execute(unknownReference);
+
+        // Assert
+        assertThat(invalidResponse.results().get(0).status()).isEqualTo(400);
+        assertThat(invalidResponse.results().get(0).error()).contains("title", "servings");
+        assertThat(unknownResponse.results().get(0).status()).isEqualTo(400);
+        assertThat(unknownResponse.results().get(0).error()).contains("$missing");
+        verifyNoInteractions(recipeService);
+    }
+
+    @Test
+    void execute_WithTooManyOperations_ShouldThrowException() {
+        // Arrange
+        List<BatchOperation> operations = Collections.nCopies(BatchService.MAX_OPERATIONS + 1,
+                new BatchOperation(null, BatchOperation.Resource.RECIPE, BatchOperation.Action.DELETE, null, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> batchService.execute(operations))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(transactionManager);
+    }
+
+    private List<BatchOperation> operations(String json) throws Exception {
+        return List.of(objectMapper.readValue(json, BatchOperation[].class));
+    }
+}
@@ -0,0 +1,174 @@
+package ua.com.edada.culinarynotes.common;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ua.com.edada.culinarynotes.category.Category;
+import ua.com.edada.culinarynotes.category.CategoryRepository;
+import ua.com.edada.culinarynotes.category.CategoryService;
+import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientRepository;
+import ua.com.edada.culinarynotes.ingredient.IngredientService;
+import ua.com.edada.culinarynotes.recipe.RecipeRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ua.com.edada.culinarynotes.common.SqlStatementCounter.assertStatementCount;
+
+/**
+ * Checks that category and ingredient lookups are served from the second-level and query caches
+ * once warm, and that writes invalidate them. Not transactional: cached query results only
+ * become valid once the writes they depend on have committed. Runs against a throwaway
+ * PostgreSQL container.
+ */
+@SpringBootTest(properties = SqlStatementCounter.PROPERTY)
+@Testcontainers
+class ReferenceDataCacheTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+    private Ingredient ingredient;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        category = categoryService.createCategory(Category.builder().name("Category " + suffix).build());
+        ingredient = ingredientService.createIngredient(Ingredient.builder().name("Ingredient " + suffix).unit("g").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteById(category.getId());
+        ingredientRepository.deleteById(ingredient.getId());
+    }
+
+    @Test
+    void categoryLookups_OnceWarm_ShouldNotQueryDatabase() {
+        // Arrange
+        categoryService.getCategoryById(category.getId());
+        categoryService.getCategoryByName(category.getName());
+        Statistics statistics = statistics();
+        long entityHits = statistics.getDomainDataRegionStatistics(Category.CACHE_REGION).getHitCount();
+        long queryHits = statistics.getQueryRegionStatistics(Category.QUERY_CACHE_REGION).getHitCount();
+
+        // Act
+        Category byId = assertStatementCount(0, () -> categoryService.getCategoryById(category.getId()));
+        Optional<Category> byName = assertStatementCount(0, () -> categoryService.getCategoryByName(category.getName()));
+
+        // Assert
+        assertThat(byId.getName()).isEqualTo(category.getName());
+        assertThat(byName).hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(category.getId()));
+        assertThat(statistics.getDomainDataRegionStatistics(Category.CACHE_REGION).getHitCount())
+                .isGreaterThan(entityHits);
+        assertThat(statistics.getQueryRegionStatistics(Category.QUERY_CACHE_REGION).getHitCount())
+                .isGreaterThan(queryHits);
+    }
+
+    @Test
+    void updateCategory_ShouldInvalidateCachedLookups() {
+        // Arrange
+        String oldName = category.getName();
+        categoryService.getCategoryByName(oldName);
+        categoryService.getCategoryById(category.getId());
+
+        // Act
+        categoryService.updateCategory(category.getId(), Category.builder().name(oldName + " renamed").build());
+
+        // Assert
+        assertThat(categoryService.getCategoryByName(oldName)).isEmpty();
+        assertThat(categoryService.getCategoryByName(oldName + " renamed")).isPresent();
+        assertThat(categoryService.getCategoryById(category.getId()).getName()).isEqualTo(oldName + " renamed");
+    }
+
+    @Test
+    void deleteCategory_ShouldInvalidateCachedLookups() {
+        // Arrange
+        categoryService.getCategoryByName(category.getName());
+        categoryService.getCategoryById(category.getId());
+        Category deleted = category;
+        category = categoryService.createCategory(Category.builder().name(deleted.getName() + " kept").build());
+
+        // Act
+        categoryService.deleteCategory(deleted.getId());
+
+        // Assert
+        assertThat(categoryService.getCategoryByName(deleted.getName())).isEmpty();
+        assertThatThrownBy(() -> categoryService.getCategoryById(deleted.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void ingredientLookups_OnceWarm_ShouldNotQueryDatabaseUntilUpdated() {
+        // Arrange
+        ingredientService.getIngredientById(ingredient.getId());
+        ingredientService.getIngredientByNameAndUnit(ingredient.getName(), "g");
+
+        // Act
+        Optional<Ingredient> warm = assertStatementCount(0,
+                () -> ingredientService.getIngredientByNameAndUnit(ingredient.getName(), "g"));
+        ingredientService.updateIngredient(ingredient.getId(),
+                Ingredient.builder().name(ingredient.getName()).unit("kg").build());
+
+        // Assert
+        assertThat(warm).isPresent();
+        assertThat(ingredientService.getIngredientByNameAndUnit(ingredient.getName(), "g")).isEmpty();
+        assertThat(ingredientService.getIngredientByNameAndUnit(ingredient.getName(), "kg")).isPresent();
+        assertThat(assertStatementCount(0, () -> ingredientService.getIngredientById(ingredient.getId())).getUnit())
+                .isEqualTo("kg");
+    }
+
+    @Test
+    void nativeRecipeDelete_ShouldKeepReferenceDataCached() {
+        // Arrange
+        categoryService.getCategoryById(category.getId());
+
+        // Act
+        new TransactionTemplate(transactionManager).execute(status -> recipeRepository.deleteRecipeById(-1L));
+
+        // Assert
+        assertStatementCount(0, () -> categoryService.getCategoryById(category.getId()));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
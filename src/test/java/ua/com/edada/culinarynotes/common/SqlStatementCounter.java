@@ -0,0 +1,62 @@
+package ua.com.edada.culinarynotes.common;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * <p>
+ * Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=ua.com.edada.culinarynotes.common.SqlStatementCounter}
+ * and wrap the code under test in {@link #assertStatementCount(int, Supplier)}. Counting is per
+ * thread, so background index rebuilds do not interfere.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+            "ua.com.edada.culinarynotes.common.SqlStatementCounter";
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    /**
+     * Runs {@code action} and fails unless it issued exactly {@code expected} SQL statements.
+     *
+     * @return the result of the action
+     */
+    public static <T> T assertStatementCount(int expected, Supplier<T> action) {
+        List<Object> result = new ArrayList<>(1);
+        List<String> statements = captureStatements(() -> result.add(action.get()));
+        assertThat(statements)
+                .as("SQL statements issued:%n%s", String.join(System.lineSeparator(), statements))
+                .hasSize(expected);
+        @SuppressWarnings("unchecked")
+        T value = (T) result.get(0);
+        return value;
+    }
+
+    /**
+     * Runs {@code action} and returns the SQL statements it prepared. A JDBC batch is prepared
+     * once however many rows it carries.
+     */
+    public static List<String> captureStatements(Runnable action) {
+        STATEMENTS.get().clear();
+        try {
+            action.run();
+            return List.copyOf(STATEMENTS.get());
+        } finally {
+            STATEMENTS.remove();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ua.com.edada.culinarynotes.common.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyIndexTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(1);
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.put(1, "Tomato soup");
+        index.put(2, "Ukrainian borscht");
+        index.put(3, "Борщ український");
+        index.put(4, "Cherry tomato salad");
+    }
+
+    @Test
+    void search_ShouldFindWordsWithinEditDistance() {
+        // Act
+        FuzzyIndex.Result result = index.search("tomatoe", 10, BUDGET);
+
+        // Assert
+        assertThat(result.complete()).isTrue();
+        assertThat(result.matches()).containsExactly(
+                new FuzzyIndex.Match(1, "Tomato soup", 1),
+                new FuzzyIndex.Match(4, "Cherry tomato salad", 1));
+    }
+
+    @Test
+    void search_ShouldMatchCyrillicMisspellings() {
+        // Act & Assert
+        assertThat(index.search("борщь", 10, BUDGET).matches())
+                .extracting(FuzzyIndex.Match::id)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldRequireEveryQueryWordAndSumDistances() {
+        // Act & Assert
+        assertThat(index.search("tomatto salat", 10, BUDGET).matches())
+                .containsExactly(new FuzzyIndex.Match(4, "Cherry tomato salad", 2));
+    }
+
+    @Test
+    void search_ShouldRankCloserMatchesFirstThenByPriority() {
+        // Arrange
+        index.put(5, "Tomatoes");
+
+        // Act & Assert
+        assertThat(index.search("tomatoes", 10, BUDGET).matches())
+                .extracting(FuzzyIndex.Match::id)
+                .containsExactly(5L, 1L, 4L);
+        assertThat(index.search("tomato", 10, BUDGET, id -> (int) id).matches())
+                .extracting(FuzzyIndex.Match::id)
+                .containsExactly(4L, 1L, 5L);
+    }
+
+    @Test
+    void search_ShouldNotTolerateTyposInShortWords() {
+        // Arrange
+        index.put(5, "Ox tail");
+
+        // Act & Assert
+        assertThat(index.search("ox", 10, BUDGET).matches()).extracting(FuzzyIndex.Match::id).containsExactly(5L);
+        assertThat(index.search("ax", 10, BUDGET).matches()).isEmpty();
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        // Act & Assert
+        assertThat(index.search("tomato", 1, BUDGET).matches()).extracting(FuzzyIndex.Match::id).containsExactly(1L);
+    }
+
+    @Test
+    void put_ShouldReplaceExistingDocument() {
+        // Act
+        index.put(1, "Onion soup");
+
+        // Assert
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search("tomato", 10, BUDGET).matches()).extracting(FuzzyIndex.Match::id).containsExactly(4L);
+        assertThat(index.search("oniom", 10, BUDGET).matches()).extracting(FuzzyIndex.Match::id).containsExactly(1L);
+    }
+
+    @Test
+    void remove_ShouldDropDocumentAndUnusedWords() {
+        // Act
+        index.remove(2);
+
+        // Assert
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("borscht", 10, BUDGET).matches()).isEmpty();
+    }
+
+    @Test
+    void boundedDistance_ShouldStopOnceLimitIsExceeded() {
+        // Act & Assert
+        assertThat(FuzzyIndex.boundedDistance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(FuzzyIndex.boundedDistance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(FuzzyIndex.boundedDistance("soup", "soup", 0)).isZero();
+        assertThat(FuzzyIndex.boundedDistance("a", "abcd", 1)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,188 @@
+package ua.com.edada.culinarynotes.file;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import ua.com.edada.culinarynotes.exception.GlobalExceptionHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class FileControllerTest {
+
+    private static final String FILE_NAME = "0b6f1c1e-5a63-4c59-9b43-3b0f1f6a7c21.txt";
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path uploadDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(uploadDir.resolve(FILE_NAME), CONTENT);
+        FileStorageService fileStorageService = new FileStorageService(Optional.empty());
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "maxUploadSize", DataSize.ofBytes(64));
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new FileController(fileStorageService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void downloadFile_ShouldSendWholeFileWithValidatorsAndImmutableCaching() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + FILE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"));
+    }
+
+    @Test
+    void downloadFile_WithScriptableType_ShouldSendAttachmentWithoutSniffing() throws Exception {
+        // Arrange
+        String html = "5d0c7a52-2f3e-4f8e-a7d3-91c4e0b1a2f4.html";
+        String svg = "5d0c7a52-2f3e-4f8e-a7d3-91c4e0b1a2f5.svg";
+        Files.writeString(uploadDir.resolve(html), "<script>alert(1)</script>");
+        Files.writeString(uploadDir.resolve(svg), "<svg onload=\"alert(1)\"/>");
+
+        // Act & Assert
+        for (String fileName : new String[]{html, svg, FILE_NAME}) {
+            mockMvc.perform(get("/api/files/" + fileName))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("attachment")));
+        }
+    }
+
+    @Test
+    void downloadFile_WithImage_ShouldSendInline() throws Exception {
+        // Arrange
+        String image = "5d0c7a52-2f3e-4f8e-a7d3-91c4e0b1a2f6.png";
+        Files.writeString(uploadDir.resolve(image), CONTENT);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + image))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.IMAGE_PNG_VALUE))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    @Test
+    void downloadFile_WithMatchingETag_ShouldAnswerNotModified() throws Exception {
+        // Arrange
+        String etag = mockMvc.perform(get("/api/files/" + FILE_NAME))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void downloadFile_WithSingleRange_ShouldSendPartialContent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=10-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-14/20"))
+                .andExpect(content().string("abcde"));
+    }
+
+    @Test
+    void downloadFile_WithMultipleRanges_ShouldSendByteRanges() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/files/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=0-1,-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString("multipart/byteranges")))
+                .andReturn();
+
+        // Assert
+        String body = result.getResponse().getContentAsString(StandardCharsets.US_ASCII);
+        assertThat(body).contains("Content-Range: bytes 0-1/20\r\n\r\n01\r\n");
+        assertThat(body).contains("Content-Range: bytes 17-19/20\r\n\r\nhij\r\n");
+        assertThat(result.getResponse().getContentLengthLong()).isEqualTo(body.length());
+    }
+
+    @Test
+    void downloadFile_WithStaleIfRange_ShouldSendWholeFile() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + FILE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=0-4")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void downloadFile_WithRangePastEnd_ShouldAnswerRangeNotSatisfiable() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void uploadFile_ShouldStreamBodyIntoNewFileWithSizeAndChecksum() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/files").param("name", "cake.jpg")
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .content(CONTENT))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size", is(CONTENT.length())))
+                .andExpect(jsonPath("$.sha256", is(sha256Hex(CONTENT))))
+                .andReturn();
+
+        // Assert
+        String fileName = JsonPath.read(result.getResponse().getContentAsString(), "$.fileName");
+        assertThat(fileName).endsWith(".jpg");
+        assertThat(result.getResponse().getHeader(HttpHeaders.LOCATION)).isEqualTo("/api/files/" + fileName);
+        assertThat(Files.readString(uploadDir.resolve(fileName))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void uploadFile_OverLimit_ShouldAnswerPayloadTooLargeAndLeaveNoFile() throws Exception {
+        // Arrange
+        byte[] body = new byte[65];
+
+        // Act & Assert
+        mockMvc.perform(post("/api/files").param("name", "big.bin")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(body))
+                .andExpect(status().isPayloadTooLarge());
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            assertThat(files).containsExactly(uploadDir.resolve(FILE_NAME));
+        }
+    }
+
+    private static String sha256Hex(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
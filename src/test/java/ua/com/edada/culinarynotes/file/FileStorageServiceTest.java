@@ -0,0 +1,129 @@
+package ua.com.edada.culinarynotes.file;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import ua.com.edada.culinarynotes.file.dto.StoredFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FileStorageServiceTest {
+
+    private static final byte[] CONTENT = "stock image".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService(Optional.empty());
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "maxUploadSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(fileStorageService, "deduplicate", true);
+    }
+
+    @Test
+    void storeStream_WithSameContent_ShouldLinkNamesToOneBlob() throws Exception {
+        // Act
+        StoredFile first = fileStorageService.storeStream(new ByteArrayInputStream(CONTENT), "a.jpg", CONTENT.length);
+        String second = fileStorageService.storeFile(new MockMultipartFile("file", "b.jpg", "image/jpeg", CONTENT));
+
+        // Assert
+        assertThat(second).isNotEqualTo(first.fileName());
+        Path blob = uploadDir.resolve(".blobs").resolve(first.sha256());
+        assertThat(Files.isSameFile(uploadDir.resolve(first.fileName()), blob)).isTrue();
+        assertThat(Files.isSameFile(uploadDir.resolve(second), blob)).isTrue();
+        assertThat(Files.getAttribute(blob, "unix:nlink")).isEqualTo(3);
+        try (Stream<Path> blobs = Files.list(uploadDir.resolve(".blobs"))) {
+            assertThat(blobs).containsExactly(blob);
+        }
+    }
+
+    @Test
+    void deleteFile_ShouldRemoveBlobOnlyWithItsLastName() throws Exception {
+        // Arrange
+        StoredFile first = fileStorageService.storeStream(new ByteArrayInputStream(CONTENT), "a.jpg", -1);
+        StoredFile second = fileStorageService.storeStream(new ByteArrayInputStream(CONTENT), "b.jpg", -1);
+        Path blob = uploadDir.resolve(".blobs").resolve(first.sha256());
+
+        // Act & Assert
+        assertThat(fileStorageService.deleteFile(first.fileName())).isTrue();
+        assertThat(Files.exists(blob)).isTrue();
+        assertThat(Files.readAllBytes(fileStorageService.loadFileAsPath(second.fileName()))).isEqualTo(CONTENT);
+
+        assertThat(fileStorageService.deleteFile(second.fileName())).isTrue();
+        assertThat(Files.exists(blob)).isFalse();
+        assertThat(fileStorageService.deleteFile(second.fileName())).isFalse();
+    }
+
+    @Test
+    void deleteFile_ShouldFindBlobByTheHashSavedOnIt() throws Exception {
+        // Arrange
+        StoredFile stored = fileStorageService.storeStream(new ByteArrayInputStream(CONTENT), "a.jpg", -1);
+        Path blob = uploadDir.resolve(".blobs").resolve(stored.sha256());
+        UserDefinedFileAttributeView attributes = Files.getFileAttributeView(blob, UserDefinedFileAttributeView.class);
+        assumeTrue(attributes != null && attributes.list().contains("culinary-notes.sha256"),
+                "Extended attributes are not supported here");
+        // Content no longer matching its name shows the blob is not found by hashing it again
+        Files.write(blob, new byte[]{0});
+
+        // Act
+        boolean deleted = fileStorageService.deleteFile(stored.fileName());
+
+        // Assert
+        assertThat(deleted).isTrue();
+        assertThat(Files.exists(blob)).isFalse();
+    }
+
+    @Test
+    void storeStream_WhenSharded_ShouldStoreUnderShardDirectories() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(fileStorageService, "sharded", true);
+
+        // Act
+        StoredFile stored = fileStorageService.storeStream(new ByteArrayInputStream(CONTENT), "a.jpg", -1);
+
+        // Assert
+        String fileName = stored.fileName();
+        Path expected = uploadDir.resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName);
+        assertThat(fileStorageService.loadFileAsPath(fileName)).isEqualTo(expected);
+        assertThat(Files.readAllBytes(expected)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void migrateToShards_ShouldMoveFlatFilesAndKeepThemReachable() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(fileStorageService, "deduplicate", false);
+        ReflectionTestUtils.setField(fileStorageService, "sharded", true);
+        String flatName = "0b6f1c1e-5a63-4c59-9b43-3b0f1f6a7c21.jpg";
+        Files.write(uploadDir.resolve(flatName), CONTENT);
+        Files.write(uploadDir.resolve("logo.png"), CONTENT);
+        assertThat(fileStorageService.loadFileAsPath(flatName)).isEqualTo(uploadDir.resolve(flatName));
+
+        // Act
+        int moved = fileStorageService.migrateToShards();
+
+        // Assert
+        Path shardedPath = uploadDir.resolve("0b").resolve("6f").resolve(flatName);
+        assertThat(moved).isEqualTo(1);
+        assertThat(fileStorageService.loadFileAsPath(flatName)).isEqualTo(shardedPath);
+        assertThat(fileStorageService.loadFileAsResource(flatName).exists()).isTrue();
+        assertThat(fileStorageService.loadFileAsPath("logo.png")).isEqualTo(uploadDir.resolve("logo.png"));
+        assertThat(fileStorageService.deleteFile(flatName)).isTrue();
+        assertThat(Files.exists(shardedPath)).isFalse();
+    }
+}
@@ -0,0 +1,225 @@
+package ua.com.edada.culinarynotes.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentFileStoreTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private SegmentFileStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    void store_ShouldServeContentFromSegmentUntilDeleted() throws Exception {
+        // Act
+        store.store("a.jpg", source("thumbnail a"));
+        store.store("b.jpg", source("thumbnail b"));
+
+        // Assert
+        assertThat(read("a.jpg")).isEqualTo("thumbnail a");
+        assertThat(read("b.jpg")).isEqualTo("thumbnail b");
+        assertThat(store.delete("a.jpg")).isTrue();
+        assertThat(store.open("a.jpg")).isEmpty();
+        assertThat(store.delete("a.jpg")).isFalse();
+    }
+
+    @Test
+    void open_AfterRestart_ShouldRecoverFromCheckpointAndReplayLaterRecords() throws Exception {
+        // Arrange
+        store.store("a.jpg", source("thumbnail a"));
+        store.store("b.jpg", source("thumbnail b"));
+        store.checkpoint();
+        store.store("c.jpg", source("thumbnail c"));
+        store.delete("a.jpg");
+        reopen();
+
+        // Act & Assert
+        assertThat(store.open("a.jpg")).isEmpty();
+        assertThat(read("b.jpg")).isEqualTo("thumbnail b");
+        assertThat(read("c.jpg")).isEqualTo("thumbnail c");
+    }
+
+    @Test
+    void open_AfterCrashMidRecord_ShouldCutOffTornRecord() throws Exception {
+        // Arrange
+        store.store("a.jpg", source("thumbnail a"));
+        reopen();
+        Path segment = segments()[0];
+        long intact = Files.size(segment);
+        Files.write(segment, new byte[]{0x43, 0x4E, 0x53}, StandardOpenOption.APPEND);
+
+        // Act
+        reopen();
+        store.store("b.jpg", source("thumbnail b"));
+
+        // Assert
+        assertThat(read("a.jpg")).isEqualTo("thumbnail a");
+        assertThat(read("b.jpg")).isEqualTo("thumbnail b");
+        assertThat(Files.size(segment)).isEqualTo(intact);
+    }
+
+    @Test
+    void compact_ShouldMoveLiveFilesOutOfMostlyDeadSegments() throws Exception {
+        // Arrange: 64 byte segments hold one record each
+        for (String name : new String[]{"a.jpg", "b.jpg", "c.jpg", "d.jpg"}) {
+            store.store(name, source("thumbnail " + name));
+        }
+        store.delete("a.jpg");
+        store.delete("b.jpg");
+        Path[] before = segments();
+
+        // Act
+        store.compact();
+
+        // Assert
+        assertThat(read("c.jpg")).isEqualTo("thumbnail c.jpg");
+        assertThat(read("d.jpg")).isEqualTo("thumbnail d.jpg");
+        assertThat(Files.exists(before[0])).isFalse();
+        assertThat(Files.exists(before[1])).isFalse();
+
+        reopen();
+        assertThat(store.open("a.jpg")).isEmpty();
+        assertThat(read("c.jpg")).isEqualTo("thumbnail c.jpg");
+    }
+
+    @Test
+    void compact_ShouldKeepTombstonesWhileOlderSegmentsHoldTheDeletedFiles() throws Exception {
+        // Arrange: 160 byte segments hold three records; a.jpg stays in the first, which is
+        // mostly live, while its tombstone lands in the second, which is mostly dead
+        store.close();
+        store = open(160);
+        for (String name : new String[]{"a.jpg", "b.jpg", "c.jpg", "d.jpg"}) {
+            store.store(name, source("thumbnail " + name));
+        }
+        store.delete("a.jpg");
+        store.delete("d.jpg");
+        store.store("e.jpg", source("thumbnail e.jpg"));
+        store.store("f.jpg", source("thumbnail f.jpg"));
+        Path[] before = segments();
+
+        // Act
+        store.compact();
+        Files.delete(uploadDir.resolve(".segments").resolve("index.checkpoint"));
+        reopen();
+
+        // Assert: the replay of every segment still sees the deletes
+        assertThat(Files.exists(before[0])).isTrue();
+        assertThat(Files.exists(before[1])).isFalse();
+        assertThat(store.open("a.jpg")).isEmpty();
+        assertThat(store.open("d.jpg")).isEmpty();
+        assertThat(read("b.jpg")).isEqualTo("thumbnail b.jpg");
+        assertThat(read("e.jpg")).isEqualTo("thumbnail e.jpg");
+    }
+
+    @Test
+    void compact_ShouldDropTombstonesOnceTheirDataSegmentIsGone() throws Exception {
+        // Arrange: the tombstone of a.jpg outlives its segment, which still holds a.jpg
+        store.close();
+        store = open(160);
+        for (String name : new String[]{"a.jpg", "b.jpg", "c.jpg", "d.jpg"}) {
+            store.store(name, source("thumbnail " + name));
+        }
+        store.delete("a.jpg");
+        store.delete("d.jpg");
+        store.store("e.jpg", source("thumbnail e.jpg"));
+        store.store("f.jpg", source("thumbnail f.jpg"));
+        store.compact();
+        assertThat(tombstones()).isEqualTo(1);
+
+        // Act: the first segment dies, taking the need for every tombstone with it
+        for (String name : new String[]{"f.jpg", "e.jpg", "b.jpg", "c.jpg"}) {
+            store.delete(name);
+        }
+        store.store("g.jpg", source("thumbnail g.jpg"));
+        store.store("h.jpg", source("thumbnail h.jpg"));
+        store.compact();
+
+        // Assert
+        assertThat(tombstones()).isZero();
+        assertThat(segments()).hasSize(1);
+        assertThat(read("g.jpg")).isEqualTo("thumbnail g.jpg");
+        assertThat(read("h.jpg")).isEqualTo("thumbnail h.jpg");
+        store.compact();
+        assertThat(tombstones()).isZero();
+    }
+
+    private SegmentFileStore open() {
+        return open(64);
+    }
+
+    private SegmentFileStore open(long segmentSize) {
+        return new SegmentFileStore(uploadDir.toString(), DataSize.ofBytes(segmentSize), DataSize.ofBytes(32), 0.5,
+                Duration.ofHours(1), Duration.ofHours(1));
+    }
+
+    // Opens the store again before the old one closes, so it recovers like after a crash
+    private void reopen() throws Exception {
+        SegmentFileStore crashed = store;
+        store = open();
+        crashed.close();
+    }
+
+    private Path source(String content) throws Exception {
+        return Files.writeString(Files.createTempFile(uploadDir, ".upload-", ".part"), content);
+    }
+
+    private String read(String fileName) throws Exception {
+        FileContent content = store.open(fileName).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.transferTo(0, content.size(), Channels.newChannel(out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // Counts the tombstone records left in every segment
+    private int tombstones() throws Exception {
+        int tombstones = 0;
+        for (Path segment : segments()) {
+            ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(segment));
+            while (records.hasRemaining()) {
+                records.getInt();
+                byte type = records.get();
+                records.getLong();
+                short nameLength = records.getShort();
+                int dataLength = records.getInt();
+                records.getInt();
+                records.position(records.position() + nameLength + dataLength);
+                if (type == 2) {
+                    tombstones++;
+                }
+            }
+        }
+        return tombstones;
+    }
+
+    private Path[] segments() throws Exception {
+        try (Stream<Path> files = Files.list(uploadDir.resolve(".segments"))) {
+            return files.filter(path -> path.toString().endsWith(".seg")).sorted().toArray(Path[]::new);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ua.com.edada.culinarynotes.ingredient.dto.IngredientSuggestion;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientAutocompleteIndexTest {
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    private IngredientAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IngredientAutocompleteIndex(ingredientRepository);
+        ReflectionTestUtils.setField(index, "fuzzyBudget", Duration.ofSeconds(1));
+        when(ingredientRepository.findAll()).thenReturn(List.of(
+                Ingredient.builder().id(1L).name("Tomato").unit("pcs").build(),
+                Ingredient.builder().id(2L).name("Cherry tomato").unit("g").build(),
+                Ingredient.builder().id(3L).name("Ґречка").unit("g").build()));
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_ShouldMatchNameAndLaterWordPrefixes() {
+        // Act
+        List<IngredientSuggestion> suggestions = index.suggest("TOM", 10);
+
+        // Assert
+        assertThat(suggestions).extracting(IngredientSuggestion::id).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void suggest_ShouldRankByUsage() {
+        // Arrange
+        index.adjustUsage(2L, 3);
+
+        // Act
+        List<IngredientSuggestion> suggestions = index.suggest("tom", 10);
+
+        // Assert
+        assertThat(suggestions).extracting(IngredientSuggestion::id).containsExactly(2L, 1L);
+        assertThat(suggestions.get(0).usage()).isEqualTo(3);
+    }
+
+    @Test
+    void rebuild_ShouldRankByRecipeUsageCounts() {
+        // Arrange
+        when(ingredientRepository.findUsageCounts()).thenReturn(List.of(usage(2L, 7)));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertThat(index.suggest("tom", 10))
+                .extracting(IngredientSuggestion::id, IngredientSuggestion::usage)
+                .containsExactly(tuple(2L, 7), tuple(1L, 0));
+    }
+
+    @Test
+    void suggest_ShouldFoldUkrainianLetters() {
+        // Act & Assert
+        assertThat(index.suggest("гре", 10)).extracting(IngredientSuggestion::name).containsExactly("Ґречка");
+    }
+
+    @Test
+    void searchFuzzy_ShouldFindMisspelledNamesRankedByDistanceThenUsage() {
+        // Arrange
+        index.adjustUsage(1L, 5);
+
+        // Act
+        List<IngredientSuggestion> suggestions = index.searchFuzzy("tomatoe", 10);
+
+        // Assert
+        assertThat(suggestions).extracting(IngredientSuggestion::id).containsExactly(1L, 2L);
+        assertThat(index.searchFuzzy("cheery tomatoe", 10)).extracting(IngredientSuggestion::id).containsExactly(2L);
+        assertThat(index.searchFuzzy("гречкп", 10)).extracting(IngredientSuggestion::name).containsExactly("Ґречка");
+    }
+
+    @Test
+    void onIngredientSaved_ShouldReplaceOldNameAndKeepUsage() {
+        // Arrange
+        index.adjustUsage(1L, 2);
+
+        // Act
+        index.onIngredientSaved(new IngredientSavedEvent(
+                Ingredient.builder().id(1L).name("Plum tomato").unit("pcs").build()));
+
+        // Assert
+        assertThat(index.suggest("plum", 10)).extracting(IngredientSuggestion::usage).containsExactly(2);
+        assertThat(index.suggest("tomato", 10)).extracting(IngredientSuggestion::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void onIngredientDeleted_ShouldRemoveSuggestions() {
+        // Act
+        index.onIngredientDeleted(new IngredientDeletedEvent(1L));
+
+        // Assert
+        assertThat(index.suggest("tom", 10)).extracting(IngredientSuggestion::id).containsExactly(2L);
+        assertThat(index.searchFuzzy("tomato", 10)).extracting(IngredientSuggestion::id).containsExactly(2L);
+    }
+
+    private static IngredientUsage usage(Long ingredientId, long usage) {
+        return new IngredientUsage() {
+            @Override
+            public Long getIngredientId() {
+                return ingredientId;
+            }
+
+            @Override
+            public long getUsage() {
+                return usage;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ua.com.edada.culinarynotes.exception.GlobalExceptionHandler;
+import ua.com.edada.culinarynotes.ingredient.dto.IngredientSuggestion;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private IngredientService ingredientService;
+
+    @InjectMocks
+    private IngredientController ingredientController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(ingredientController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void autocompleteIngredients_ShouldReturnSuggestions() throws Exception {
+        // Arrange
+        when(ingredientService.autocompleteIngredients("tom", 5))
+                .thenReturn(List.of(new IngredientSuggestion(1L, "Tomato", "pcs", 42)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/ingredients/autocomplete").param("prefix", "tom").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Tomato")))
+                .andExpect(jsonPath("$[0].usage", is(42)));
+
+        verify(ingredientService, times(1)).autocompleteIngredients("tom", 5);
+    }
+
+    @Test
+    void searchIngredientsFuzzy_ShouldReturnMatches() throws Exception {
+        // Arrange
+        when(ingredientService.searchIngredientsFuzzy("tomatoe", 10))
+                .thenReturn(List.of(new IngredientSuggestion(1L, "Tomato", "pcs", 42)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/ingredients/search/fuzzy").param("q", "tomatoe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Tomato")));
+
+        verify(ingredientService, times(1)).searchIngredientsFuzzy("tomatoe", 10);
+    }
+
+    @Test
+    void searchIngredientsFuzzy_WithBlankQuery_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(ingredientService.searchIngredientsFuzzy(" ", 10))
+                .thenThrow(new IllegalArgumentException("Search query must not be blank"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/ingredients/search/fuzzy").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,80 @@
+package ua.com.edada.culinarynotes.ingredient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientNameTrieTest {
+
+    private IngredientNameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new IngredientNameTrie();
+        trie.put("tomato", 1L, 5);
+        trie.put("tomatillo", 2L, 9);
+        trie.put("tom yum paste", 3L, 1);
+        trie.put("potato", 4L, 7);
+    }
+
+    @Test
+    void topK_ShouldReturnPrefixMatchesByDescendingWeight() {
+        // Act & Assert
+        assertThat(trie.topK("tom", 10)).containsExactly(2L, 1L, 3L);
+        assertThat(trie.topK("toma", 10)).containsExactly(2L, 1L);
+        assertThat(trie.topK("", 2)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void topK_WithEqualWeights_ShouldOrderAlphabetically() {
+        // Arrange
+        IngredientNameTrie equalWeights = new IngredientNameTrie();
+        equalWeights.put("sugar", 1L, 0);
+        equalWeights.put("salt", 2L, 0);
+        equalWeights.put("saffron", 3L, 0);
+
+        // Act & Assert
+        assertThat(equalWeights.topK("s", 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void topK_WithUnknownPrefix_ShouldReturnEmpty() {
+        // Act & Assert
+        assertThat(trie.topK("tomx", 10)).isEmpty();
+        assertThat(trie.topK("b", 10)).isEmpty();
+    }
+
+    @Test
+    void topK_ShouldReturnEachIdOnce() {
+        // Arrange
+        trie.put("cherry tomato", 5L, 3);
+        trie.put("tomato", 5L, 3);
+
+        // Act & Assert
+        assertThat(trie.topK("", 10)).containsExactly(2L, 4L, 1L, 5L, 3L);
+    }
+
+    @Test
+    void put_WithExistingPair_ShouldUpdateWeight() {
+        // Act
+        trie.put("tomato", 1L, 20);
+
+        // Assert
+        assertThat(trie.size()).isEqualTo(4);
+        assertThat(trie.topK("tom", 1)).containsExactly(1L);
+    }
+
+    @Test
+    void remove_ShouldDropPairAndKeepSiblingsReachable() {
+        // Act
+        boolean removed = trie.remove("tomatillo", 2L);
+
+        // Assert
+        assertThat(removed).isTrue();
+        assertThat(trie.remove("tomatillo", 2L)).isFalse();
+        assertThat(trie.size()).isEqualTo(3);
+        assertThat(trie.topK("tom", 10)).containsExactly(1L, 3L);
+        assertThat(trie.topK("tomati", 10)).isEmpty();
+    }
+}
@@ -6,12 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.ingredient.dto.IngredientSuggestion;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,6 +29,12 @@ class IngredientServiceTest {
     @Mock
     private IngredientRepository ingredientRepository;
 
+    @Mock
+    private IngredientAutocompleteIndex autocompleteIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private IngredientService ingredientService;
 
@@ -135,6 +144,42 @@ class IngredientServiceTest {
         verify(ingredientRepository, times(1)).findByNameContainingIgnoreCase("Flour");
     }
 
+    @Test
+    void autocompleteIngredients_ShouldDelegateToIndexWithClampedLimit() {
+        // Arrange
+        IngredientSuggestion suggestion = new IngredientSuggestion(1L, "Flour", "cups", 12);
+        when(autocompleteIndex.suggest("fl", IngredientService.MAX_SUGGESTIONS)).thenReturn(List.of(suggestion));
+
+        // Act
+        List<IngredientSuggestion> result = ingredientService.autocompleteIngredients("fl", 1_000);
+
+        // Assert
+        assertThat(result).containsExactly(suggestion);
+        verifyNoInteractions(ingredientRepository);
+    }
+
+    @Test
+    void searchIngredientsFuzzy_ShouldDelegateToIndex() {
+        // Arrange
+        IngredientSuggestion suggestion = new IngredientSuggestion(1L, "Flour", "cups", 12);
+        when(autocompleteIndex.searchFuzzy("fluor", 10)).thenReturn(List.of(suggestion));
+
+        // Act
+        List<IngredientSuggestion> result = ingredientService.searchIngredientsFuzzy("fluor", 10);
+
+        // Assert
+        assertThat(result).containsExactly(suggestion);
+        verifyNoInteractions(ingredientRepository);
+    }
+
+    @Test
+    void searchIngredientsFuzzy_WithBlankQuery_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> ingredientService.searchIngredientsFuzzy(" ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(autocompleteIndex);
+    }
+
     @Test
     void createIngredient_WithUniqueNameAndUnit_ShouldCreateIngredient() {
         // Arrange
@@ -156,6 +201,7 @@ class IngredientServiceTest {
         assertThat(createdIngredient.getUnit()).isEqualTo("teaspoons");
         verify(ingredientRepository, times(1)).existsByNameAndUnit("Salt", "teaspoons");
         verify(ingredientRepository, times(1)).save(newIngredient);
+        verify(eventPublisher, times(1)).publishEvent(new IngredientSavedEvent(newIngredient));
     }
 
     @Test
@@ -246,6 +292,7 @@ class IngredientServiceTest {
         // Assert
         verify(ingredientRepository, times(1)).existsById(1L);
         verify(ingredientRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(new IngredientDeletedEvent(1L));
     }
 
     @Test
@@ -259,5 +306,43 @@ class IngredientServiceTest {
                 .hasMessageContaining("Ingredient not found with id: '999'");
         verify(ingredientRepository, times(1)).existsById(999L);
         verify(ingredientRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteIngredient_UsedByRecipes_ShouldThrowException() {
+        // Arrange
+        when(ingredientRepository.existsById(1L)).thenReturn(true);
+        when(ingredientRepository.countRecipeUsages(1L)).thenReturn(3L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> ingredientService.deleteIngredient(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("used by 3 recipes");
+        verify(ingredientRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getIngredientsByIds_ShouldLoadAllInOneQuery() {
+        // Arrange
+        when(ingredientRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(ingredient1, ingredient2));
+
+        // Act
+        List<Ingredient> result = ingredientService.getIngredientsByIds(Set.of(1L, 2L));
+
+        // Assert
+        assertThat(result).containsExactly(ingredient1, ingredient2);
+    }
+
+    @Test
+    void getIngredientsByIds_WithUnknownId_ShouldThrowException() {
+        // Arrange
+        when(ingredientRepository.findAllById(List.of(1L, 999L))).thenReturn(List.of(ingredient1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> ingredientService.getIngredientsByIds(List.of(1L, 999L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("'999'");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientSavedEvent;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecipeCache recipeCache;
+    private AtomicInteger loads;
+    private Function<Long, Optional<Recipe>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recipeCache = new RecipeCache(true, DataSize.ofMegabytes(1), Duration.ofMinutes(10), meterRegistry);
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return id < 100 ? Optional.of(recipe(id, 1L)) : Optional.empty();
+        };
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeRepeatedReadsFromCache() {
+        // Act
+        Optional<Recipe> first = recipeCache.get(1L, loader);
+        Optional<Recipe> second = recipeCache.get(1L, loader);
+
+        // Assert
+        assertThat(first).isPresent();
+        assertThat(second.orElseThrow()).isEqualTo(first.orElseThrow());
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", RecipeCache.NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", RecipeCache.NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldHandEveryReaderItsOwnCopy() {
+        // Arrange
+        Recipe loaded = recipe(1L, 1L);
+        recipeCache.get(1L, id -> Optional.of(loaded));
+
+        // Act: changes to the loaded entity and to a copy handed out must not reach the cache
+        loaded.setTitle("Changed in the persistence context");
+        Recipe first = recipeCache.get(1L, loader).orElseThrow();
+        first.setTitle("Changed by a reader");
+        first.getIngredients().add(new RecipeIngredient());
+        Recipe second = recipeCache.getIfPresent(1L).orElseThrow();
+
+        // Assert
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTitle()).isEqualTo("Recipe 1");
+        assertThat(second.getDescription()).isEqualTo("Description of recipe 1");
+        assertThat(second.getIngredients()).isEmpty();
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void get_WithNonExistingId_ShouldNotCacheAbsence() {
+        // Act
+        Optional<Recipe> first = recipeCache.get(999L, loader);
+        Optional<Recipe> second = recipeCache.get(999L, loader);
+
+        // Assert
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_WithConcurrentMissesForSameId_ShouldShareOneLoad() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, Optional<Recipe>> slowLoader = id -> {
+            loading.countDown();
+            await(release);
+            return loader.apply(id);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<Optional<Recipe>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> recipeCache.get(1L, slowLoader)));
+            await(loading);
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> recipeCache.get(1L, slowLoader)));
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<Optional<Recipe>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isPresent();
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void onRecipeSaved_ShouldEvictSavedRecipeOnly() {
+        // Arrange
+        recipeCache.get(1L, loader);
+        recipeCache.get(2L, loader);
+
+        // Act
+        recipeCache.onRecipeSaved(RecipeSavedEvent.withUnchangedIngredients(recipe(1L, 2L)));
+        recipeCache.get(1L, loader);
+        recipeCache.get(2L, loader);
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void onRecipesDeleted_ShouldEvictAllDeletedRecipes() {
+        // Arrange
+        recipeCache.get(1L, loader);
+        recipeCache.get(2L, loader);
+        recipeCache.get(3L, loader);
+
+        // Act
+        recipeCache.onRecipesDeleted(new RecipeDeletedEvent(List.of(1L, 2L)));
+        recipeCache.get(1L, loader);
+        recipeCache.get(2L, loader);
+        recipeCache.get(3L, loader);
+
+        // Assert
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void onIngredientSaved_ShouldEvictOnlyRecipesUsingIngredient() {
+        // Arrange
+        Function<Long, Optional<Recipe>> withIngredients = id -> {
+            loads.incrementAndGet();
+            Recipe recipe = recipe(id, 1L);
+            recipe.getIngredients().add(RecipeIngredient.builder()
+                    .recipe(recipe)
+                    .ingredient(Ingredient.builder().id(id * 10).name("Ingredient " + id).unit("g").build())
+                    .quantity(BigDecimal.ONE)
+                    .build());
+            return Optional.of(recipe);
+        };
+        recipeCache.get(1L, withIngredients);
+        recipeCache.get(2L, withIngredients);
+
+        // Act
+        recipeCache.onIngredientSaved(new IngredientSavedEvent(Ingredient.builder().id(20L).name("Salt").unit("g").build()));
+        recipeCache.get(1L, withIngredients);
+        recipeCache.get(2L, withIngredients);
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldAlwaysLoad() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RecipeCache disabled = new RecipeCache(false, DataSize.ofMegabytes(1), Duration.ofMinutes(10), registry);
+
+        // Act
+        disabled.get(1L, loader);
+        disabled.get(1L, loader);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+        assertThat(registry.find("cache.gets").meters()).isEmpty();
+    }
+
+    private static Recipe recipe(Long id, Long version) {
+        return Recipe.builder()
+                .id(id)
+                .title("Recipe " + id)
+                .description("Description of recipe " + id)
+                .version(version)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,21 +7,48 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ua.com.edada.culinarynotes.exception.GlobalExceptionHandler;
+import ua.com.edada.culinarynotes.recipe.dto.PantryMatch;
+import ua.com.edada.culinarynotes.recipe.dto.PantrySearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchGetResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchItemResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchResponse;
 import ua.com.edada.culinarynotes.recipe.dto.RecipeCreateRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacetBucket;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacets;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeIngredientRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipePage;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeTitleMatch;
 import ua.com.edada.culinarynotes.recipe.dto.RecipeUpdateRequest;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +61,9 @@ class RecipeControllerTest {
     @Mock
     private RecipeService recipeService;
 
+    @Mock
+    private RecipeExportService recipeExportService;
+
     @InjectMocks
     private RecipeController recipeController;
 
@@ -94,6 +124,89 @@ class RecipeControllerTest {
         verify(recipeService, times(1)).getAllRecipes();
     }
 
+    @Test
+    void getRecipePage_ShouldReturnPageWithNextCursor() throws Exception {
+        // Arrange
+        when(recipeService.getRecipePage(null, 1, RecipeSortField.UPDATED_AT, false))
+                .thenReturn(new RecipePage<>(List.of(recipe1), "next", null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/page").param("size", "1").param("sort", "updatedAt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")))
+                .andExpect(jsonPath("$.estimatedTotal", nullValue()));
+
+        verify(recipeService, times(1)).getRecipePage(null, 1, RecipeSortField.UPDATED_AT, false);
+    }
+
+    @Test
+    void getRecipePage_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        recipe1.setVersion(3L);
+        when(recipeService.getRecipePage(null, 20, RecipeSortField.CREATED_AT, false))
+                .thenReturn(new RecipePage<>(List.of(recipe1), null, null));
+        String etag = mockMvc.perform(get("/api/recipes/page"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/page").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        recipe1.setVersion(4L);
+        mockMvc.perform(get("/api/recipes/page").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getRecipePage_WithUnsupportedSort_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/page").param("sort", "title"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).getRecipePage(any(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    void exportRecipes_ShouldStreamNdjson() throws Exception {
+        // Arrange
+        when(recipeExportService.exportRecipes(any())).thenReturn(2L);
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/api/recipes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"recipes.ndjson\""));
+
+        verify(recipeExportService, times(1)).exportRecipes(any());
+    }
+
+    @Test
+    void getRecipesByIds_ShouldReturnRecipesInRequestOrderAndMissingIds() throws Exception {
+        // Arrange
+        when(recipeService.getRecipesByIds(List.of(2L, 9L, 1L)))
+                .thenReturn(new RecipeBatchGetResponse(List.of(recipe2, recipe1), List.of(9L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes").param("ids", "2,9,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recipes", hasSize(2)))
+                .andExpect(jsonPath("$.recipes[0].id", is(2)))
+                .andExpect(jsonPath("$.recipes[1].id", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(9)));
+
+        verify(recipeService, never()).getAllRecipes();
+    }
+
     @Test
     void getRecipeById_WithExistingId_ShouldReturnRecipe() throws Exception {
         // Arrange
@@ -114,6 +227,48 @@ class RecipeControllerTest {
         verify(recipeService, times(1)).getRecipeById(1L);
     }
 
+    @Test
+    void getRecipeById_ShouldSendVersionAsETagAndLastModified() throws Exception {
+        // Arrange
+        recipe1.setVersion(3L);
+        when(recipeService.getRecipeById(1L)).thenReturn(Optional.of(recipe1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getRecipeById_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingRecipe() throws Exception {
+        // Arrange
+        when(recipeService.getRecipeVersion(1L)).thenReturn(Optional.of(recipeVersion(1L, 3L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(recipeService, never()).getRecipeById(anyLong());
+    }
+
+    @Test
+    void getRecipeById_WithStaleIfNoneMatch_ShouldReturnRecipe() throws Exception {
+        // Arrange
+        recipe1.setVersion(4L);
+        when(recipeService.getRecipeVersion(1L)).thenReturn(Optional.of(recipeVersion(1L, 4L)));
+        when(recipeService.getRecipeById(1L)).thenReturn(Optional.of(recipe1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.title", is("Chocolate Cake")));
+    }
+
     @Test
     void getRecipeById_WithNonExistingId_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -126,6 +281,71 @@ class RecipeControllerTest {
         verify(recipeService, times(1)).getRecipeById(999L);
     }
 
+    @Test
+    void getRecipeById_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+        // Arrange
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", 1L);
+        fields.put("title", "Chocolate Cake");
+        when(recipeService.getRecipeById(1L, EnumSet.of(RecipeField.ID, RecipeField.TITLE)))
+                .thenReturn(Optional.of(fields));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/recipes/1").param("fields", "title, id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Chocolate Cake")))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(get("/api/recipes/1").param("fields", "id,title")
+                        .header("If-None-Match", result.getResponse().getHeader("ETag")))
+                .andExpect(status().isNotModified());
+        verify(recipeService, never()).getRecipeById(anyLong());
+    }
+
+    @Test
+    void getRecipeById_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/1").param("fields", "id,ingredients"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(recipeService);
+    }
+
+    @Test
+    void getRecipePage_WithFields_ShouldReturnProjectedItems() throws Exception {
+        // Arrange
+        Set<RecipeField> fields = EnumSet.of(RecipeField.ID, RecipeField.TITLE, RecipeField.COOKING_TIME_MINUTES);
+        when(recipeService.getRecipePage(null, 2, RecipeSortField.CREATED_AT, false, fields))
+                .thenReturn(new RecipePage<>(List.of(Map.of("id", 1L, "title", "Chocolate Cake", "cookingTimeMinutes", 30)),
+                        "next", null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/page").param("size", "2").param("fields", "id,title,cookingTimeMinutes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].cookingTimeMinutes", is(30)))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", is("next")))
+                .andExpect(header().exists("ETag"));
+
+        verify(recipeService, never()).getRecipePage(any(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    void searchRecipes_WithFields_ShouldReturnProjectedRecipes() throws Exception {
+        // Arrange
+        when(recipeService.searchRecipesByTitle("Chocolate", EnumSet.of(RecipeField.TITLE)))
+                .thenReturn(List.of(Map.of("title", "Chocolate Cake")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/search").param("title", "Chocolate").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Chocolate Cake")));
+    }
+
     @Test
     void searchRecipes_ShouldReturnMatchingRecipes() throws Exception {
         // Arrange
@@ -142,6 +362,230 @@ class RecipeControllerTest {
         verify(recipeService, times(1)).searchRecipesByTitle("Chocolate");
     }
 
+    @Test
+    void filterRecipes_ShouldPassCriteriaAndSortToService() throws Exception {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, 60, 8, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), null, null, null);
+        when(recipeService.filterRecipes(filter, RecipeFilterSortField.TOTAL_TIME_MINUTES, Sort.Direction.DESC, 0, 20))
+                .thenReturn(new RecipeFilterResponse(List.of(recipe1), 0, 20, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/filter")
+                        .param("maxTotalTimeMinutes", "60")
+                        .param("minServings", "8")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recipes", hasSize(1)))
+                .andExpect(jsonPath("$.recipes[0].title", is("Chocolate Cake")))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        verify(recipeService, times(1))
+                .filterRecipes(filter, RecipeFilterSortField.TOTAL_TIME_MINUTES, Sort.Direction.DESC, 0, 20);
+    }
+
+    @Test
+    void filterRecipes_WithInvalidCriteriaOrSort_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/filter").param("minServings", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/recipes/filter").param("sort", "servings"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).filterRecipes(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void filterRecipesInMemory_ShouldReturnCatalogPage() throws Exception {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, null, null, null,
+                null, null, null, null);
+        when(recipeService.filterRecipesInMemory(filter, RecipeFilterSortField.CREATED_AT, Sort.Direction.ASC, 2, 10))
+                .thenReturn(new RecipeFilterResponse(List.of(recipe2), 2, 10, 21));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/filter/instant")
+                        .param("sort", "createdAt")
+                        .param("page", "2")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recipes[0].id", is(2)))
+                .andExpect(jsonPath("$.totalElements", is(21)));
+    }
+
+    @Test
+    void searchRecipesFullText_ShouldReturnRankedResults() throws Exception {
+        // Arrange
+        RecipeSearchResponse response = new RecipeSearchResponse(
+                List.of(new RecipeSearchResult(1L, "Chocolate Cake", 0.8, "<mark>Chocolate</mark> cake")),
+                0, 20, 1);
+        when(recipeService.searchRecipesFullText("chocolate", 0, 20)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/search/text").param("q", "chocolate"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.results", hasSize(1)))
+                .andExpect(jsonPath("$.results[0].id", is(1)))
+                .andExpect(jsonPath("$.results[0].snippet", is("<mark>Chocolate</mark> cake")))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        verify(recipeService, times(1)).searchRecipesFullText("chocolate", 0, 20);
+    }
+
+    @Test
+    void searchRecipesFullText_WithFacets_ShouldReturnFacetCounts() throws Exception {
+        // Arrange
+        RecipeFacets facets = new RecipeFacets(3,
+                List.of(new RecipeFacetBucket(0, 15, 1), new RecipeFacetBucket(16, null, 2)),
+                List.of(new RecipeFacetBucket(0, 2, 3)));
+        RecipeSearchResponse response = new RecipeSearchResponse(
+                List.of(new RecipeSearchResult(1L, "Chocolate Cake", 0.8, null)), 0, 1, 3, facets);
+        when(recipeService.searchRecipesFullText("cake", 0, 1, true)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/search/text")
+                        .param("q", "cake")
+                        .param("size", "1")
+                        .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.facets.totalTimeMinutes", hasSize(2)))
+                .andExpect(jsonPath("$.facets.totalTimeMinutes[1].min", is(16)))
+                .andExpect(jsonPath("$.facets.totalTimeMinutes[1].max", nullValue()))
+                .andExpect(jsonPath("$.facets.totalTimeMinutes[1].count", is(2)))
+                .andExpect(jsonPath("$.facets.servings[0].count", is(3)));
+
+        verify(recipeService, never()).searchRecipesFullText(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchRecipesInMemory_ShouldReturnIndexHits() throws Exception {
+        // Arrange
+        when(recipeService.searchRecipesInMemory("cake", 5))
+                .thenReturn(List.of(new RecipeSearchResult(2L, "Vanilla Cake", 1.5, null)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/search/instant").param("q", "cake").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].title", is("Vanilla Cake")));
+
+        verify(recipeService, times(1)).searchRecipesInMemory("cake", 5);
+    }
+
+    @Test
+    void searchRecipesFuzzy_ShouldReturnMatches() throws Exception {
+        // Arrange
+        when(recipeService.searchRecipesFuzzy("vanila", 20))
+                .thenReturn(List.of(new RecipeTitleMatch(2L, "Vanilla Cake", 1)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/search/fuzzy").param("q", "vanila"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Vanilla Cake")))
+                .andExpect(jsonPath("$[0].distance", is(1)));
+
+        verify(recipeService, times(1)).searchRecipesFuzzy("vanila", 20);
+    }
+
+    @Test
+    void findRecipesForPantry_ShouldReturnMatches() throws Exception {
+        // Arrange
+        when(recipeService.findRecipesForPantry(List.of(4L, 7L), 1, 20))
+                .thenReturn(new PantrySearchResponse(
+                        List.of(new PantryMatch(2L, "Vanilla Cake", 1, List.of(9L))), 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recipes/search/pantry")
+                        .param("ingredientIds", "4,7")
+                        .param("maxMissing", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMatches", is(1)))
+                .andExpect(jsonPath("$.matches[0].recipeId", is(2)))
+                .andExpect(jsonPath("$.matches[0].missingIngredientIds[0]", is(9)));
+
+        verify(recipeService, times(1)).findRecipesForPantry(List.of(4L, 7L), 1, 20);
+    }
+
+    @Test
+    void createRecipe_WithIngredients_ShouldPassIngredientLinesToService() throws Exception {
+        // Arrange
+        List<RecipeIngredientRequest> ingredients = List.of(
+                new RecipeIngredientRequest(4L, new BigDecimal("200")),
+                new RecipeIngredientRequest(7L, null));
+        RecipeCreateRequest request = new RecipeCreateRequest(
+                "New Recipe", null, null, null, null, null, ingredients);
+
+        when(recipeService.saveRecipe(any(Recipe.class), eq(ingredients))).thenReturn(recipe1);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        verify(recipeService, times(1)).saveRecipe(any(Recipe.class), eq(ingredients));
+    }
+
+    @Test
+    void createRecipe_WithInvalidIngredientLine_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        RecipeCreateRequest request = new RecipeCreateRequest(
+                "New Recipe", null, null, null, null, null,
+                List.of(new RecipeIngredientRequest(null, new BigDecimal("-1"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).saveRecipe(any(Recipe.class), any());
+    }
+
+    @Test
+    void createRecipes_WithValidBatch_ShouldReturnCreated() throws Exception {
+        // Arrange
+        List<RecipeCreateRequest> requests = List.of(
+                new RecipeCreateRequest("Bread", null, null, null, null, null, null),
+                new RecipeCreateRequest("Tea", null, null, null, null, null, null));
+        when(recipeService.createRecipes(requests)).thenReturn(new RecipeBatchResponse(2, 0, List.of(
+                new RecipeBatchItemResult(0, 100L, Map.of()),
+                new RecipeBatchItemResult(1, 101L, Map.of()))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/recipes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].id", is(101)));
+    }
+
+    @Test
+    void createRecipes_WithInvalidItem_ShouldReturnBadRequestWithItemErrors() throws Exception {
+        // Arrange
+        List<RecipeCreateRequest> requests = List.of(
+                new RecipeCreateRequest("Bread", null, null, null, null, null, null),
+                new RecipeCreateRequest("", null, null, null, null, null, null));
+        when(recipeService.createRecipes(requests)).thenReturn(new RecipeBatchResponse(0, 1, List.of(
+                new RecipeBatchItemResult(0, null, Map.of()),
+                new RecipeBatchItemResult(1, null, Map.of("title", "Title is required")))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/recipes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created", is(0)))
+                .andExpect(jsonPath("$.items[1].errors.title", is("Title is required")));
+    }
+
     @Test
     void createRecipe_WithValidData_ShouldCreateRecipe() throws Exception {
         // Arrange
@@ -151,7 +595,8 @@ class RecipeControllerTest {
                 "New instructions",
                 10,
                 20,
-                4
+                4,
+                null
         );
 
         Recipe newRecipe = Recipe.builder()
@@ -166,7 +611,7 @@ class RecipeControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(recipeService.saveRecipe(any(Recipe.class))).thenReturn(newRecipe);
+        when(recipeService.saveRecipe(any(Recipe.class), any())).thenReturn(newRecipe);
 
         // Act & Assert
         mockMvc.perform(post("/api/recipes")
@@ -182,7 +627,7 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.cookingTimeMinutes", is(20)))
                 .andExpect(jsonPath("$.servings", is(4)));
 
-        verify(recipeService, times(1)).saveRecipe(any(Recipe.class));
+        verify(recipeService, times(1)).saveRecipe(any(Recipe.class), any());
     }
 
     @Test
@@ -194,7 +639,8 @@ class RecipeControllerTest {
                 "New instructions",
                 -5, // Invalid: preparation time cannot be negative
                 20,
-                0 // Invalid: servings must be at least 1
+                0, // Invalid: servings must be at least 1
+                null
         );
 
         // Act & Assert
@@ -203,7 +649,7 @@ class RecipeControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(recipeService, never()).saveRecipe(any(Recipe.class));
+        verify(recipeService, never()).saveRecipe(any(Recipe.class), any());
     }
 
     @Test
@@ -215,7 +661,8 @@ class RecipeControllerTest {
                 "Updated instructions",
                 25,
                 40,
-                6
+                6,
+                null
         );
 
         Recipe updatedRecipe = Recipe.builder()
@@ -230,8 +677,7 @@ class RecipeControllerTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(recipeService.getRecipeById(1L)).thenReturn(Optional.of(recipe1));
-        when(recipeService.saveRecipe(any(Recipe.class))).thenReturn(updatedRecipe);
+        when(recipeService.patchRecipe(1L, request)).thenReturn(Optional.of(updatedRecipe));
 
         // Act & Assert
         mockMvc.perform(put("/api/recipes/1")
@@ -247,8 +693,7 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.cookingTimeMinutes", is(40)))
                 .andExpect(jsonPath("$.servings", is(6)));
 
-        verify(recipeService, times(1)).getRecipeById(1L);
-        verify(recipeService, times(1)).saveRecipe(any(Recipe.class));
+        verify(recipeService, times(1)).patchRecipe(1L, request);
     }
 
     @Test
@@ -260,10 +705,11 @@ class RecipeControllerTest {
                 "Updated instructions",
                 25,
                 40,
-                6
+                6,
+                null
         );
 
-        when(recipeService.getRecipeById(anyLong())).thenReturn(Optional.empty());
+        when(recipeService.patchRecipe(999L, request)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(put("/api/recipes/999")
@@ -271,34 +717,186 @@ class RecipeControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNotFound());
 
-        verify(recipeService, times(1)).getRecipeById(999L);
-        verify(recipeService, never()).saveRecipe(any(Recipe.class));
+        verify(recipeService, times(1)).patchRecipe(999L, request);
+        verify(recipeService, never()).saveRecipe(any(Recipe.class), any());
+    }
+
+    @Test
+    void updateRecipe_WithIfMatch_ShouldUpdateVersionChecked() throws Exception {
+        // Arrange
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 6, null);
+        recipe1.setVersion(4L);
+        when(recipeService.patchRecipe(1L, 3L, request)).thenReturn(Optional.of(recipe1));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/recipes/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(recipeService, never()).getRecipeById(anyLong());
+    }
+
+    @Test
+    void updateRecipe_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 6, null);
+        when(recipeService.patchRecipe(1L, 3L, request))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Recipe.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/recipes/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateRecipe_WithWeakOrForeignIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 6, null);
+
+        // Act & Assert
+        for (String ifMatch : List.of("W/\"3\"", "\"abc\"")) {
+            mockMvc.perform(put("/api/recipes/1")
+                            .header("If-Match", ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        verifyNoInteractions(recipeService);
+    }
+
+    @Test
+    void patchRecipe_WithoutVersion_ShouldPatchRecipe() throws Exception {
+        // Arrange
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 6, null);
+        recipe1.setServings(6);
+        when(recipeService.patchRecipe(1L, request)).thenReturn(Optional.of(recipe1));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/recipes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.servings", is(6)));
+
+        verify(recipeService, never()).patchRecipe(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void patchRecipe_WithVersion_ShouldPatchVersionChecked() throws Exception {
+        // Arrange
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 6, null);
+        recipe1.setVersion(4L);
+        when(recipeService.patchRecipe(1L, 3L, request)).thenReturn(Optional.of(recipe1));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/recipes/1")
+                        .param("version", "3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    void patchRecipe_WithStaleVersion_ShouldReturnConflict() throws Exception {
+        // Arrange
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 6, null);
+        when(recipeService.patchRecipe(1L, 3L, request))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Recipe.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/recipes/1")
+                        .param("version", "3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
     }
 
     @Test
     void deleteRecipe_WithExistingId_ShouldDeleteRecipe() throws Exception {
         // Arrange
-        when(recipeService.getRecipeById(1L)).thenReturn(Optional.of(recipe1));
-        doNothing().when(recipeService).deleteRecipe(1L);
+        when(recipeService.deleteRecipe(1L)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/recipes/1"))
                 .andExpect(status().isNoContent());
 
-        verify(recipeService, times(1)).getRecipeById(1L);
         verify(recipeService, times(1)).deleteRecipe(1L);
+        verify(recipeService, never()).getRecipeById(anyLong());
     }
 
     @Test
     void deleteRecipe_WithNonExistingId_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(recipeService.getRecipeById(anyLong())).thenReturn(Optional.empty());
+        when(recipeService.deleteRecipe(999L)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/recipes/999"))
                 .andExpect(status().isNotFound());
 
-        verify(recipeService, times(1)).getRecipeById(999L);
-        verify(recipeService, never()).deleteRecipe(anyLong());
+        verify(recipeService, times(1)).deleteRecipe(999L);
+    }
+
+    @Test
+    void deleteRecipes_WithIds_ShouldReturnDeletedIds() throws Exception {
+        // Arrange
+        when(recipeService.deleteRecipes(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/recipes").param("ids", "1", "2", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)))
+                .andExpect(jsonPath("$.deletedIds", hasSize(2)));
+    }
+
+    @Test
+    void deleteRecipes_WithCreatedBefore_ShouldDeleteOlderRecipes() throws Exception {
+        // Arrange
+        LocalDateTime createdBefore = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(recipeService.deleteRecipesCreatedBefore(createdBefore)).thenReturn(1);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/recipes").param("createdBefore", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(1)))
+                .andExpect(jsonPath("$.deletedIds").doesNotExist());
+    }
+
+    @Test
+    void deleteRecipes_WithoutOrWithBothCriteria_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/recipes"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/recipes").param("ids", "1").param("createdBefore", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(recipeService);
+    }
+
+    private static RecipeVersion recipeVersion(Long id, Long version) {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        return new RecipeVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+        };
     }
 }
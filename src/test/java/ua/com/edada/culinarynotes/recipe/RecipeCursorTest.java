@@ -0,0 +1,44 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecipeCursorTest {
+
+    @Test
+    void encodeAndDecode_ShouldRoundTrip() {
+        // Arrange
+        RecipeCursor cursor = new RecipeCursor(
+                RecipeSortField.UPDATED_AT, LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+        // Act
+        RecipeCursor decoded = RecipeCursor.decode(cursor.encode());
+
+        // Assert
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void encode_ShouldProduceUrlSafeString() {
+        // Arrange
+        RecipeCursor cursor = new RecipeCursor(RecipeSortField.CREATED_AT, LocalDateTime.now(), 7L);
+
+        // Act
+        String encoded = cursor.encode();
+
+        // Assert
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decode_WithMalformedCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> RecipeCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
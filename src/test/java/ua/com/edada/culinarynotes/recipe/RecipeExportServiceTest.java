@@ -0,0 +1,98 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeExportServiceTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private RecipeExportService recipeExportService;
+
+    private Recipe recipe1;
+    private Recipe recipe2;
+
+    @BeforeEach
+    void setUp() {
+        recipeExportService = new RecipeExportService(recipeRepository, entityManager, objectMapper);
+
+        recipe1 = Recipe.builder()
+                .id(1L)
+                .title("Chocolate Cake")
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        recipe2 = Recipe.builder()
+                .id(2L)
+                .title("Vanilla Cake")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void exportRecipes_ShouldWriteOneJsonDocumentPerLine() throws Exception {
+        // Arrange
+        when(recipeRepository.streamAllOrderById()).thenReturn(Stream.of(recipe1, recipe2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = recipeExportService.exportRecipes(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("title").asText()).isEqualTo("Chocolate Cake");
+        assertThat(objectMapper.readTree(lines[1]).get("title").asText()).isEqualTo("Vanilla Cake");
+    }
+
+    @Test
+    void exportRecipes_ShouldDetachEveryExportedRecipe() throws Exception {
+        // Arrange
+        when(recipeRepository.streamAllOrderById()).thenReturn(Stream.of(recipe1, recipe2));
+
+        // Act
+        recipeExportService.exportRecipes(new ByteArrayOutputStream());
+
+        // Assert
+        verify(entityManager, times(1)).detach(recipe1);
+        verify(entityManager, times(1)).detach(recipe2);
+    }
+
+    @Test
+    void exportRecipes_WithEmptyCatalog_ShouldWriteNothing() throws Exception {
+        // Arrange
+        when(recipeRepository.streamAllOrderById()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = recipeExportService.exportRecipes(out);
+
+        // Assert
+        assertThat(exported).isZero();
+        assertThat(out.size()).isZero();
+        verifyNoInteractions(entityManager);
+    }
+}
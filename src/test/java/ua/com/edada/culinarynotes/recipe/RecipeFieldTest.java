@@ -0,0 +1,49 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecipeFieldTest {
+
+    @Test
+    void parse_ShouldAcceptAttributeNamesWithSpacesAndDuplicates() {
+        // Act
+        Set<RecipeField> fields = RecipeField.parse("title, id,cookingTimeMinutes,,title");
+
+        // Assert
+        assertThat(fields).containsExactly(RecipeField.ID, RecipeField.TITLE, RecipeField.COOKING_TIME_MINUTES);
+    }
+
+    @Test
+    void parse_WithUnknownField_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> RecipeField.parse("id,ingredients"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ingredients");
+    }
+
+    @Test
+    void parse_WithoutFields_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> RecipeField.parse(" , "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void project_ShouldPickFieldsInDeclarationOrder() {
+        // Arrange
+        Recipe recipe = Recipe.builder().id(7L).title("Borscht").description("Beet soup").servings(4).build();
+
+        // Act
+        Map<String, Object> values = RecipeField.project(recipe, EnumSet.of(RecipeField.SERVINGS, RecipeField.TITLE));
+
+        // Assert
+        assertThat(values).containsExactly(Map.entry("title", "Borscht"), Map.entry("servings", 4));
+    }
+}
@@ -0,0 +1,108 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacetBucket;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacets;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RecipeSearchFacetsTest {
+
+    private RecipeRepository recipeRepository;
+    private RecipeSearchFacets recipeSearchFacets;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        recipeSearchFacets = new RecipeSearchFacets(recipeRepository, mock(PlatformTransactionManager.class),
+                Duration.ofMillis(150), 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void countFullText_ShouldBucketGroupedCountsUnderStatementTimeout() {
+        // Arrange
+        when(recipeRepository.countFullTextFacets("cake")).thenReturn(List.of(
+                facetRow(10, 2, 3),
+                facetRow(15, 4, 1),
+                facetRow(45, null, 2),
+                facetRow(200, 8, 4)));
+
+        // Act
+        RecipeFacets facets = recipeSearchFacets.countFullText("cake").orElseThrow();
+
+        // Assert
+        assertThat(facets.total()).isEqualTo(10);
+        assertThat(facets.totalTimeMinutes()).containsExactly(
+                new RecipeFacetBucket(0, 15, 4),
+                new RecipeFacetBucket(16, 30, 0),
+                new RecipeFacetBucket(31, 60, 2),
+                new RecipeFacetBucket(61, 120, 0),
+                new RecipeFacetBucket(121, null, 4));
+        assertThat(facets.servings()).containsExactly(
+                new RecipeFacetBucket(0, 2, 3),
+                new RecipeFacetBucket(3, 4, 1),
+                new RecipeFacetBucket(5, 6, 0),
+                new RecipeFacetBucket(7, null, 4));
+        verify(recipeRepository).setLocalStatementTimeout("150");
+    }
+
+    @Test
+    void countFullText_ShouldServeRepeatedQueriesFromCacheUntilRecipeSaved() {
+        // Arrange
+        when(recipeRepository.countFullTextFacets(anyString())).thenReturn(List.of(facetRow(10, 2, 1)));
+
+        // Act
+        recipeSearchFacets.countFullText("Chocolate  cake");
+        recipeSearchFacets.countFullText(" chocolate cake");
+        recipeSearchFacets.onRecipeSaved(RecipeSavedEvent.of(Recipe.builder().id(1L).title("Cake").build()));
+        recipeSearchFacets.countFullText("chocolate cake");
+
+        // Assert
+        verify(recipeRepository, times(2)).countFullTextFacets(anyString());
+    }
+
+    @Test
+    void countFullText_OutOfBudget_ShouldReturnEmptyAndNotCache() {
+        // Arrange
+        when(recipeRepository.countFullTextFacets("cake"))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .thenReturn(List.of(facetRow(10, 2, 1)));
+
+        // Act
+        Optional<RecipeFacets> first = recipeSearchFacets.countFullText("cake");
+        Optional<RecipeFacets> second = recipeSearchFacets.countFullText("cake");
+
+        // Assert
+        assertThat(first).isEmpty();
+        assertThat(second).map(RecipeFacets::total).contains(1L);
+    }
+
+    private static RecipeFacetRow facetRow(Integer totalTimeMinutes, Integer servings, long recipes) {
+        return new RecipeFacetRow() {
+            @Override
+            public Integer getTotalTimeMinutes() {
+                return totalTimeMinutes;
+            }
+
+            @Override
+            public Integer getServings() {
+                return servings;
+            }
+
+            @Override
+            public Long getRecipes() {
+                return recipes;
+            }
+        };
+    }
+}
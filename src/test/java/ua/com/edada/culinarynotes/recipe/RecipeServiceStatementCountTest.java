@@ -0,0 +1,345 @@
+package ua.com.edada.culinarynotes.recipe;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ua.com.edada.culinarynotes.common.SqlStatementCounter;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientRepository;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeCreateRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeIngredientRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipePage;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeUpdateRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ua.com.edada.culinarynotes.common.SqlStatementCounter.assertStatementCount;
+import static ua.com.edada.culinarynotes.common.SqlStatementCounter.captureStatements;
+
+/**
+ * Pins the number of SQL statements {@link RecipeService} issues, so lazy loading regressions
+ * (one query per recipe) fail the build. Runs against a throwaway PostgreSQL container and
+ * rolls back.
+ */
+@SpringBootTest(properties = SqlStatementCounter.PROPERTY)
+@Testcontainers
+@Transactional
+class RecipeServiceStatementCountTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    private static final int RECIPE_COUNT = 30;
+
+    // RecipeControllerTestConfig replaces the recipeService bean with a mock, so create a real one
+    private RecipeService recipeService;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private LocalDateTime startedAt;
+    private String titlePrefix;
+    private List<Ingredient> ingredients;
+    private Long firstRecipeId;
+
+    @BeforeEach
+    void setUp() {
+        recipeService = beanFactory.createBean(RecipeService.class);
+        startedAt = LocalDateTime.now();
+        titlePrefix = "Statement count " + UUID.randomUUID();
+        ingredients = ingredientRepository.saveAll(List.of(
+                Ingredient.builder().name(titlePrefix + " flour").unit("g").build(),
+                Ingredient.builder().name(titlePrefix + " sugar").unit("g").build(),
+                Ingredient.builder().name(titlePrefix + " eggs").unit("pcs").build()));
+
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            Recipe recipe = Recipe.builder()
+                    .title(titlePrefix + " #" + i)
+                    .description("Description #" + i)
+                    .instructions("Mix and bake")
+                    .preparationTimeMinutes(5 + i % 3 * 5)
+                    .cookingTimeMinutes(i % 5 * 10)
+                    .servings(1 + i % 6)
+                    .build();
+            recipe.replaceIngredients(List.of(
+                    RecipeIngredient.builder().ingredient(ingredients.get(i % 3)).quantity(BigDecimal.ONE).build(),
+                    RecipeIngredient.builder().ingredient(ingredients.get((i + 1) % 3)).quantity(BigDecimal.TEN).build()));
+            Recipe saved = recipeRepository.save(recipe);
+            if (firstRecipeId == null) {
+                firstRecipeId = saved.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getRecipePage_ShouldLoadRecipesLinesAndIngredientsWithThreeStatements() {
+        RecipePage<Recipe> page = assertStatementCount(3,
+                () -> recipeService.getRecipePage(null, 25, RecipeSortField.UPDATED_AT, false));
+
+        assertThat(page.items()).hasSize(25);
+        assertRecipesLoaded(page.items());
+    }
+
+    @Test
+    void getAllRecipes_ShouldUseSingleStatement() {
+        List<Recipe> recipes = assertStatementCount(1, () -> recipeService.getAllRecipes());
+
+        assertRecipesLoaded(recipes);
+    }
+
+    @Test
+    void searchRecipesByTitle_ShouldUseSingleStatement() {
+        List<Recipe> recipes = assertStatementCount(1, () -> recipeService.searchRecipesByTitle(titlePrefix));
+
+        assertThat(recipes).hasSize(RECIPE_COUNT);
+        assertRecipesLoaded(recipes);
+    }
+
+    @Test
+    void getRecipeById_ShouldUseSingleStatement() {
+        Optional<Recipe> recipe = assertStatementCount(1, () -> recipeService.getRecipeById(firstRecipeId));
+
+        assertThat(recipe).isPresent();
+        assertRecipesLoaded(List.of(recipe.get()));
+    }
+
+    @Test
+    void patchRecipe_ShouldLoadOnceAndUpdateOnlyChangedColumns() {
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 12, null);
+
+        List<String> statements = captureStatements(() -> {
+            recipeService.patchRecipe(firstRecipeId, request);
+            entityManager.flush();
+        });
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(1))
+                .startsWith("update recipes set servings=?,updated_at=?,version=?")
+                .doesNotContain("description", "instructions", "title");
+    }
+
+    @Test
+    void patchRecipe_WithVersion_ShouldUseSingleStatement() {
+        RecipeUpdateRequest request = new RecipeUpdateRequest(null, null, null, null, null, 12, null);
+
+        Optional<Recipe> patched = assertStatementCount(1,
+                () -> recipeService.patchRecipe(firstRecipeId, 0L, request));
+
+        assertThat(patched).hasValueSatisfying(recipe -> {
+            assertThat(recipe.getServings()).isEqualTo(12);
+            assertThat(recipe.getVersion()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void deleteRecipe_ShouldUseSingleStatementAndCascadeToLines() {
+        boolean deleted = assertStatementCount(1, () -> recipeService.deleteRecipe(firstRecipeId));
+
+        assertThat(deleted).isTrue();
+        assertThat(countLines(firstRecipeId)).isZero();
+        assertThat(assertStatementCount(1, () -> recipeService.deleteRecipe(firstRecipeId))).isFalse();
+    }
+
+    @Test
+    void deleteRecipes_ShouldDeleteAllIdsWithSingleStatement() {
+        List<Long> ids = recipeService.searchRecipesByTitle(titlePrefix).stream().map(Recipe::getId).toList();
+        entityManager.clear();
+
+        List<Long> deletedIds = assertStatementCount(1, () -> recipeService.deleteRecipes(ids));
+
+        assertThat(deletedIds).hasSize(RECIPE_COUNT).isSorted();
+    }
+
+    @Test
+    void getRecipeById_ShouldFetchTextColumnsWithRecipe() {
+        Recipe recipe = assertStatementCount(1, () -> {
+            Recipe loaded = recipeService.getRecipeById(firstRecipeId).orElseThrow();
+            assertThat(loaded.getDescription()).isEqualTo("Description #0");
+            assertThat(loaded.getInstructions()).isEqualTo("Mix and bake");
+            return loaded;
+        });
+
+        assertRecipesLoaded(List.of(recipe));
+    }
+
+    @Test
+    void findRecipeWithoutEntityGraph_ShouldDeferTextColumnsUntilRead() {
+        List<String> statements = captureStatements(() -> {
+            Recipe recipe = entityManager.find(Recipe.class, firstRecipeId);
+            assertThat(recipe.getTitle()).endsWith("#0");
+            assertThat(recipe.getInstructions()).isEqualTo("Mix and bake");
+            assertThat(recipe.getDescription()).isEqualTo("Description #0");
+        });
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).doesNotContain("description", "instructions");
+        assertThat(statements.get(1)).contains("description", "instructions");
+    }
+
+    @Test
+    void getRecipePage_WithFields_ShouldSelectOnlyRequestedColumns() {
+        Set<RecipeField> fields = EnumSet.of(RecipeField.TITLE, RecipeField.COOKING_TIME_MINUTES);
+
+        List<String> statements = captureStatements(() -> {
+            RecipePage<Map<String, Object>> first = recipeService.getRecipePage(null, 5, RecipeSortField.CREATED_AT, false, fields);
+            RecipePage<Map<String, Object>> second = recipeService.getRecipePage(first.nextCursor(), 5, RecipeSortField.CREATED_AT, false, fields);
+
+            assertThat(first.items()).hasSize(5)
+                    .allSatisfy(row -> assertThat(row).containsOnlyKeys("title", "cookingTimeMinutes"));
+            assertThat(second.items()).isNotEmpty().doesNotContainAnyElementsOf(first.items());
+        });
+
+        assertThat(statements).hasSize(2)
+                .allSatisfy(sql -> assertThat(sql).doesNotContain("description", "instructions", "servings"));
+    }
+
+    @Test
+    void searchRecipesByTitle_WithFields_ShouldSelectOnlyRequestedColumns() {
+        List<String> statements = captureStatements(() -> {
+            List<Map<String, Object>> rows = recipeService.searchRecipesByTitle(titlePrefix.toUpperCase(),
+                    EnumSet.of(RecipeField.ID, RecipeField.TITLE));
+
+            assertThat(rows).hasSize(RECIPE_COUNT)
+                    .allSatisfy(row -> assertThat(row).containsOnlyKeys("id", "title"));
+        });
+
+        assertThat(statements).singleElement().satisfies(sql -> assertThat(sql).doesNotContain("description"));
+    }
+
+    @Test
+    void getRecipeById_WithFields_ShouldReadOnlyRequestedColumns() {
+        List<String> statements = captureStatements(() -> assertThat(
+                recipeService.getRecipeById(firstRecipeId, EnumSet.of(RecipeField.TITLE, RecipeField.VERSION)))
+                .hasValue(Map.of("title", titlePrefix + " #0", "version", 0L)));
+
+        assertThat(statements).singleElement().satisfies(sql -> assertThat(sql).doesNotContain("description"));
+    }
+
+    @Test
+    void getRecipeVersion_ShouldUseSingleStatementWithoutTextColumns() {
+        Optional<RecipeVersion> version = assertStatementCount(1, () -> recipeService.getRecipeVersion(firstRecipeId));
+
+        assertThat(version).hasValueSatisfying(validators -> assertThat(validators.getVersion()).isZero());
+    }
+
+    @Test
+    void patchRecipe_ChangingOnlyIngredientQuantity_ShouldBumpVersion() {
+        Long ingredientId = recipeService.getRecipeById(firstRecipeId).orElseThrow().ingredientIds().get(0);
+
+        Recipe patched = recipeService.patchRecipe(firstRecipeId, new RecipeUpdateRequest(null, null, null, null, null, null,
+                List.of(new RecipeIngredientRequest(ingredientId, new BigDecimal("7"))))).orElseThrow();
+        entityManager.flush();
+        // The forced increment runs just before commit, which this rolled back test never reaches
+        entityManager.unwrap(SessionImplementor.class).getActionQueue().beforeTransactionCompletion();
+
+        assertThat(patched.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void createRecipes_ShouldInsertRecipesAndLinesInJdbcBatches() {
+        List<RecipeCreateRequest> requests = IntStream.range(0, 40)
+                .mapToObj(i -> new RecipeCreateRequest(titlePrefix + " batch #" + i, null, null, null, null, null,
+                        List.of(new RecipeIngredientRequest(ingredients.get(0).getId(), BigDecimal.ONE),
+                                new RecipeIngredientRequest(ingredients.get(1).getId(), BigDecimal.TEN))))
+                .toList();
+
+        List<String> statements = captureStatements(() -> {
+            RecipeBatchResponse response = recipeService.createRecipes(requests);
+            assertThat(response.created()).isEqualTo(40);
+            entityManager.flush();
+        });
+
+        // Each insert is prepared once and executed in batches, not once per row
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert into recipes ")).hasSize(1);
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert into recipe_ingredients ")).hasSize(1);
+    }
+
+    @Test
+    void filterRecipes_ShouldMatchGeneratedTotalTimeAndSortByIt() {
+        // Total time ≤ 30 and servings ≥ 4 among this test's recipes only
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, 30, 4, null,
+                startedAt, null, null, null);
+
+        RecipeFilterResponse response = assertStatementCount(3, () -> recipeService.filterRecipes(filter,
+                RecipeFilterSortField.TOTAL_TIME_MINUTES, Sort.Direction.DESC, 0, 50));
+
+        long expected = IntStream.range(0, RECIPE_COUNT)
+                .filter(i -> 5 + i % 3 * 5 + i % 5 * 10 <= 30 && 1 + i % 6 >= 4)
+                .count();
+        assertThat(response.totalElements()).isEqualTo(expected);
+        assertThat(response.recipes()).hasSize((int) expected)
+                .allSatisfy(recipe -> {
+                    assertThat(recipe.getTotalTimeMinutes())
+                            .isEqualTo(recipe.getPreparationTimeMinutes() + recipe.getCookingTimeMinutes())
+                            .isLessThanOrEqualTo(30);
+                    assertThat(recipe.getServings()).isGreaterThanOrEqualTo(4);
+                })
+                .extracting(Recipe::getTotalTimeMinutes)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+        assertRecipesLoaded(response.recipes());
+    }
+
+    @Test
+    void saveRecipe_ShouldKeepTotalTimeInStepWithDatabase() {
+        Recipe recipe = recipeRepository.findById(firstRecipeId).orElseThrow();
+        recipe.setCookingTimeMinutes(45);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(recipe.getTotalTimeMinutes()).isEqualTo(50);
+        assertThat(recipeRepository.findById(firstRecipeId).orElseThrow().getTotalTimeMinutes()).isEqualTo(50);
+    }
+
+    private long countLines(Long recipeId) {
+        return ((Number) entityManager
+                .createNativeQuery("SELECT count(*) FROM recipe_ingredients WHERE recipe_id = :recipeId")
+                .setParameter("recipeId", recipeId)
+                .getSingleResult()).longValue();
+    }
+
+    private void assertRecipesLoaded(List<Recipe> recipes) {
+        // Reading the TEXT columns and the lines must not issue any further statement
+        assertStatementCount(0, () -> recipes.stream()
+                .map(recipe -> recipe.getDescription() + recipe.getInstructions())
+                .toList());
+        assertStatementCount(0, () -> recipes.stream()
+                .flatMap(recipe -> recipe.getIngredients().stream())
+                .map(line -> line.getIngredient().getName())
+                .toList());
+    }
+}
@@ -1,21 +1,76 @@
 package ua.com.edada.culinarynotes.recipe;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+import ua.com.edada.culinarynotes.common.search.FuzzyIndex;
+import ua.com.edada.culinarynotes.exception.ResourceNotFoundException;
+import ua.com.edada.culinarynotes.ingredient.Ingredient;
+import ua.com.edada.culinarynotes.ingredient.IngredientSavedEvent;
+import ua.com.edada.culinarynotes.ingredient.IngredientService;
+import ua.com.edada.culinarynotes.recipe.dto.PantryMatch;
+import ua.com.edada.culinarynotes.recipe.dto.PantrySearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchGetResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchItemResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeBatchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeCreateRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFacets;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeFilterResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeIngredientRequest;
+import ua.com.edada.culinarynotes.recipe.dto.RecipePage;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResponse;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeSearchResult;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeTitleMatch;
+import ua.com.edada.culinarynotes.recipe.dto.RecipeUpdateRequest;
+import ua.com.edada.culinarynotes.recipe.search.Bm25Index;
+import ua.com.edada.culinarynotes.recipe.search.PantrySearchIndex;
+import ua.com.edada.culinarynotes.recipe.search.RecipeCatalogIndex;
+import ua.com.edada.culinarynotes.recipe.search.RecipeSearchIndex;
+import ua.com.edada.culinarynotes.recipe.search.RecipeTitleFuzzyIndex;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +79,41 @@ class RecipeServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    // Disabled, so every lookup goes to the repository; RecipeCacheTest covers the cache itself
+    @Spy
+    private RecipeCache recipeCache = new RecipeCache(false, DataSize.ofMegabytes(1), Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+
+    @Mock
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    private RecipeTitleFuzzyIndex recipeTitleFuzzyIndex;
+
+    @Mock
+    private PantrySearchIndex pantrySearchIndex;
+
+    @Mock
+    private RecipeCatalogIndex recipeCatalogIndex;
+
+    @Mock
+    private RecipeSearchFacets recipeSearchFacets;
+
+    @Mock
+    private IngredientService ingredientService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private RecipeService recipeService;
 
@@ -72,6 +162,96 @@ class RecipeServiceTest {
         verify(recipeRepository, times(1)).findAll();
     }
 
+    @Test
+    void getRecipePage_WithoutCursor_ShouldReturnFirstPageAndNextCursor() {
+        // Arrange
+        when(recipeRepository.findFirstPageOrderByCreatedAt(2)).thenReturn(List.of(recipe1, recipe2));
+
+        // Act
+        RecipePage<Recipe> page = recipeService.getRecipePage(null, 1, RecipeSortField.CREATED_AT, false);
+
+        // Assert
+        assertThat(page.items()).containsExactly(recipe1);
+        assertThat(page.nextCursor()).isNotNull();
+        assertThat(page.estimatedTotal()).isNull();
+        assertThat(RecipeCursor.decode(page.nextCursor()))
+                .isEqualTo(new RecipeCursor(RecipeSortField.CREATED_AT, recipe1.getCreatedAt(), 1L));
+        verify(recipeRepository, never()).estimateCount();
+    }
+
+    @Test
+    void getRecipePage_WithCursor_ShouldSeekPastCursorPosition() {
+        // Arrange
+        String cursor = RecipeCursor.of(RecipeSortField.UPDATED_AT, recipe1).encode();
+        when(recipeRepository.findPageOrderByUpdatedAtAfter(recipe1.getUpdatedAt(), 1L, 21))
+                .thenReturn(List.of(recipe2));
+        when(recipeRepository.estimateCount()).thenReturn(2L);
+
+        // Act
+        RecipePage<Recipe> page = recipeService.getRecipePage(cursor, 20, RecipeSortField.UPDATED_AT, true);
+
+        // Assert
+        assertThat(page.items()).containsExactly(recipe2);
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.estimatedTotal()).isEqualTo(2L);
+    }
+
+    @Test
+    void getRecipePage_WithOversizedPage_ShouldClampPageSize() {
+        // Arrange
+        when(recipeRepository.findFirstPageOrderByCreatedAt(RecipeService.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of(recipe1, recipe2));
+
+        // Act
+        RecipePage<Recipe> page = recipeService.getRecipePage(null, 10_000, RecipeSortField.CREATED_AT, false);
+
+        // Assert
+        assertThat(page.items()).hasSize(2);
+        verify(recipeRepository, times(1)).findFirstPageOrderByCreatedAt(RecipeService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void getRecipePage_WithCursorForOtherSortField_ShouldThrowException() {
+        // Arrange
+        String cursor = RecipeCursor.of(RecipeSortField.CREATED_AT, recipe1).encode();
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.getRecipePage(cursor, 20, RecipeSortField.UPDATED_AT, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void getRecipePage_WithFields_ShouldReadCursorColumnsButReturnOnlyRequestedFields() {
+        // Arrange
+        Set<RecipeField> selected = EnumSet.of(RecipeField.ID, RecipeField.TITLE, RecipeField.CREATED_AT);
+        when(recipeRepository.findProjectedPage(RecipeSortField.CREATED_AT, null, 2, selected))
+                .thenReturn(List.of(row(recipe1), row(recipe2)));
+
+        // Act
+        RecipePage<Map<String, Object>> page = recipeService.getRecipePage(null, 1, RecipeSortField.CREATED_AT, false,
+                EnumSet.of(RecipeField.TITLE));
+
+        // Assert
+        assertThat(page.items()).containsExactly(Map.of("title", "Chocolate Cake"));
+        assertThat(RecipeCursor.decode(page.nextCursor()))
+                .isEqualTo(new RecipeCursor(RecipeSortField.CREATED_AT, recipe1.getCreatedAt(), 1L));
+    }
+
+    @Test
+    void getRecipeById_WithFields_ShouldReadOnlyRequestedColumns() {
+        // Arrange
+        Set<RecipeField> fields = EnumSet.of(RecipeField.ID, RecipeField.TITLE);
+        when(recipeRepository.findProjectedById(1L, fields)).thenReturn(Optional.of(Map.of("id", 1L, "title", "Chocolate Cake")));
+
+        // Act
+        Optional<Map<String, Object>> result = recipeService.getRecipeById(1L, fields);
+
+        // Assert
+        assertThat(result).hasValue(Map.of("id", 1L, "title", "Chocolate Cake"));
+        verify(recipeRepository, never()).findById(anyLong());
+    }
+
     @Test
     void getRecipeById_WithExistingId_ShouldReturnRecipe() {
         // Arrange
@@ -114,6 +294,230 @@ class RecipeServiceTest {
         verify(recipeRepository, times(1)).findByTitleContainingIgnoreCase("Chocolate");
     }
 
+    @Test
+    void filterRecipes_ShouldRequestPageOrderedBySortFieldThenId() {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, 60, 8, null,
+                null, null, null, null);
+        Pageable expectedPage = PageRequest.of(1, RecipeService.MAX_PAGE_SIZE, Sort.by(Sort.Direction.DESC, "totalTimeMinutes", "id"));
+        when(recipeRepository.findAll(any(Specification.class), eq(expectedPage)))
+                .thenReturn(new PageImpl<>(List.of(recipe1), expectedPage, 101));
+
+        // Act
+        RecipeFilterResponse response = recipeService.filterRecipes(filter, RecipeFilterSortField.TOTAL_TIME_MINUTES,
+                Sort.Direction.DESC, 1, 500);
+
+        // Assert
+        assertThat(response.recipes()).containsExactly(recipe1);
+        assertThat(response.page()).isEqualTo(1);
+        assertThat(response.size()).isEqualTo(RecipeService.MAX_PAGE_SIZE);
+        assertThat(response.totalElements()).isEqualTo(101);
+    }
+
+    @Test
+    void filterRecipes_WithInvertedRange_ShouldThrowException() {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, null, 6, 4,
+                null, null, null, null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.filterRecipes(filter, RecipeFilterSortField.CREATED_AT,
+                Sort.Direction.ASC, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("servings");
+        verify(recipeRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void getRecipesByIds_ShouldKeepRequestOrderAndReportMissingIds() {
+        // Arrange: only recipe 2 is cached
+        doReturn(Optional.empty()).when(recipeCache).getIfPresent(anyLong());
+        doReturn(Optional.of(recipe2)).when(recipeCache).getIfPresent(2L);
+        when(recipeRepository.findByIdIn(List.of(3L, 1L))).thenReturn(List.of(recipe1));
+
+        // Act
+        RecipeBatchGetResponse response = recipeService.getRecipesByIds(List.of(3L, 2L, 1L, 2L));
+
+        // Assert
+        assertThat(response.recipes()).containsExactly(recipe2, recipe1);
+        assertThat(response.missingIds()).containsExactly(3L);
+        verify(recipeRepository, times(1)).findByIdIn(anyList());
+    }
+
+    @Test
+    void getRecipesByIds_WithTooManyIds_ShouldThrowException() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, RecipeService.MAX_PAGE_SIZE + 1).boxed().toList();
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.getRecipesByIds(ids))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void filterRecipesInMemory_ShouldHydratePageFromCacheAndOneQueryInCatalogOrder() {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, 60, null, null,
+                null, null, null, null);
+        when(recipeCatalogIndex.isReady()).thenReturn(true);
+        when(recipeCatalogIndex.search(filter, RecipeFilterSortField.TOTAL_TIME_MINUTES, false, 20, 20))
+                .thenReturn(new RecipeCatalogIndex.Result(List.of(2L, 3L, 1L), 23));
+        doReturn(Optional.of(recipe2)).when(recipeCache).getIfPresent(2L);
+        when(recipeRepository.findByIdIn(List.of(3L, 1L))).thenReturn(List.of(recipe1));
+
+        // Act
+        RecipeFilterResponse response = recipeService.filterRecipesInMemory(filter,
+                RecipeFilterSortField.TOTAL_TIME_MINUTES, Sort.Direction.ASC, 1, 20);
+
+        // Assert: recipe 3 was deleted after the catalog was queried
+        assertThat(response.recipes()).containsExactly(recipe2, recipe1);
+        assertThat(response.totalElements()).isEqualTo(23);
+        verify(recipeRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void filterRecipesInMemory_PastMaxOffset_ShouldReject() {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, null, null, null,
+                null, null, null, null);
+        when(recipeCatalogIndex.isReady()).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.filterRecipesInMemory(filter, RecipeFilterSortField.CREATED_AT,
+                Sort.Direction.ASC, RecipeService.MAX_IN_MEMORY_OFFSET / 20 + 1, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(recipeCatalogIndex, never()).search(any(), any(), anyBoolean(), anyInt(), anyInt());
+    }
+
+    @Test
+    void filterRecipesInMemory_BeforeCatalogIsBuilt_ShouldFilterInDatabase() {
+        // Arrange
+        RecipeFilterRequest filter = new RecipeFilterRequest(null, null, null, null, null, null, null, null,
+                null, null, null, null);
+        when(recipeCatalogIndex.isReady()).thenReturn(false);
+        when(recipeRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(recipe1)));
+
+        // Act
+        RecipeFilterResponse response = recipeService.filterRecipesInMemory(filter, RecipeFilterSortField.CREATED_AT,
+                Sort.Direction.ASC, 0, 20);
+
+        // Assert
+        assertThat(response.recipes()).containsExactly(recipe1);
+        verify(recipeCatalogIndex, never()).search(any(), any(), anyBoolean(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchRecipesFullText_ShouldMapRankedRows() {
+        // Arrange
+        RecipeSearchRow row = searchRow(1L, "Chocolate Cake", 0.8, "\uE000Chocolate\uE001 cake <script>");
+        when(recipeRepository.searchFullText("chocolate", 20, 0L)).thenReturn(List.of(row));
+
+        // Act
+        RecipeSearchResponse response = recipeService.searchRecipesFullText("chocolate", 0, 20);
+
+        // Assert
+        assertThat(response.results()).hasSize(1);
+        assertThat(response.results().get(0).id()).isEqualTo(1L);
+        assertThat(response.results().get(0).snippet()).isEqualTo("<mark>Chocolate</mark> cake &lt;script&gt;");
+        assertThat(response.totalElements()).isEqualTo(1);
+        verify(recipeRepository, never()).countFullText(anyString());
+    }
+
+    @Test
+    void searchRecipesFullText_OnLaterPage_ShouldCountAllMatches() {
+        // Arrange
+        when(recipeRepository.searchFullText("cake", 1, 1L))
+                .thenReturn(List.of(searchRow(2L, "Vanilla Cake", 0.5, null)));
+        when(recipeRepository.countFullText("cake")).thenReturn(2L);
+
+        // Act
+        RecipeSearchResponse response = recipeService.searchRecipesFullText("cake", 1, 1);
+
+        // Assert
+        assertThat(response.results()).extracting("id").containsExactly(2L);
+        assertThat(response.page()).isEqualTo(1);
+        assertThat(response.totalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void searchRecipesFullText_WithFacets_ShouldTakeTotalFromFacets() {
+        // Arrange
+        RecipeFacets facets = new RecipeFacets(2, List.of(), List.of());
+        when(recipeSearchFacets.countFullText("cake")).thenReturn(Optional.of(facets));
+        when(recipeRepository.searchFullText("cake", 1, 1L))
+                .thenReturn(List.of(searchRow(2L, "Vanilla Cake", 0.5, null)));
+
+        // Act
+        RecipeSearchResponse response = recipeService.searchRecipesFullText("cake", 1, 1, true);
+
+        // Assert
+        assertThat(response.facets()).isSameAs(facets);
+        assertThat(response.totalElements()).isEqualTo(2);
+        verify(recipeRepository, never()).countFullText(anyString());
+    }
+
+    @Test
+    void searchRecipesFullText_WithFacetsOutOfBudget_ShouldCountMatchesWithoutFacets() {
+        // Arrange
+        when(recipeSearchFacets.countFullText("cake")).thenReturn(Optional.empty());
+        when(recipeRepository.searchFullText("cake", 1, 1L))
+                .thenReturn(List.of(searchRow(2L, "Vanilla Cake", 0.5, null)));
+        when(recipeRepository.countFullText("cake")).thenReturn(2L);
+
+        // Act
+        RecipeSearchResponse response = recipeService.searchRecipesFullText("cake", 1, 1, true);
+
+        // Assert
+        assertThat(response.facets()).isNull();
+        assertThat(response.totalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void searchRecipesFullText_WithBlankQuery_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.searchRecipesFullText(" ", 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void searchRecipesInMemory_ShouldMapIndexHits() {
+        // Arrange
+        when(recipeSearchIndex.search("chocolate", 20))
+                .thenReturn(List.of(new Bm25Index.Hit(1L, "Chocolate Cake", 2.5f)));
+
+        // Act
+        List<RecipeSearchResult> results = recipeService.searchRecipesInMemory("chocolate", 20);
+
+        // Assert
+        assertThat(results).containsExactly(new RecipeSearchResult(1L, "Chocolate Cake", 2.5f, null));
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void searchRecipesFuzzy_ShouldMapMatchesWithClampedLimit() {
+        // Arrange
+        when(recipeTitleFuzzyIndex.search("chocolat cake", RecipeService.MAX_PAGE_SIZE))
+                .thenReturn(new FuzzyIndex.Result(List.of(new FuzzyIndex.Match(1L, "Chocolate Cake", 1)), true));
+
+        // Act
+        List<RecipeTitleMatch> results = recipeService.searchRecipesFuzzy("chocolat cake", 1_000);
+
+        // Assert
+        assertThat(results).containsExactly(new RecipeTitleMatch(1L, "Chocolate Cake", 1));
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void searchRecipesFuzzy_WithBlankQuery_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.searchRecipesFuzzy("", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recipeTitleFuzzyIndex);
+    }
+
     @Test
     void saveRecipe_ShouldSaveAndReturnRecipe() {
         // Arrange
@@ -131,17 +535,408 @@ class RecipeServiceTest {
         assertThat(savedRecipe).isNotNull();
         assertThat(savedRecipe.getTitle()).isEqualTo("New Recipe");
         verify(recipeRepository, times(1)).save(newRecipe);
+        verify(eventPublisher, times(1)).publishEvent(new RecipeSavedEvent(newRecipe, List.of()));
+    }
+
+    @Test
+    void saveRecipe_WithIngredients_ShouldAttachLinesAndPublishIngredientIds() {
+        // Arrange
+        Ingredient flour = Ingredient.builder().id(4L).name("Flour").unit("g").build();
+        Ingredient sugar = Ingredient.builder().id(7L).name("Sugar").unit("g").build();
+        when(ingredientService.getIngredientsByIds(Set.of(4L, 7L))).thenReturn(List.of(flour, sugar));
+        when(recipeRepository.save(recipe1)).thenReturn(recipe1);
+
+        // Act
+        Recipe savedRecipe = recipeService.saveRecipe(recipe1, List.of(
+                new RecipeIngredientRequest(7L, new BigDecimal("50")),
+                new RecipeIngredientRequest(4L, new BigDecimal("200"))));
+
+        // Assert
+        assertThat(savedRecipe.getIngredients())
+                .extracting(line -> line.getIngredient().getName(), RecipeIngredient::getQuantity)
+                .containsExactly(tuple("Sugar", new BigDecimal("50")), tuple("Flour", new BigDecimal("200")));
+        assertThat(savedRecipe.getIngredients()).allSatisfy(line -> assertThat(line.getRecipe()).isSameAs(recipe1));
+        verify(eventPublisher, times(1)).publishEvent(new RecipeSavedEvent(recipe1, List.of(7L, 4L)));
+    }
+
+    @Test
+    void saveRecipe_WithExistingIngredient_ShouldUpdateLineInPlace() {
+        // Arrange
+        Ingredient flour = Ingredient.builder().id(4L).name("Flour").unit("g").build();
+        RecipeIngredient existingLine = RecipeIngredient.builder()
+                .id(11L).recipe(recipe1).ingredient(flour).quantity(new BigDecimal("100")).build();
+        recipe1.getIngredients().add(existingLine);
+        when(ingredientService.getIngredientsByIds(Set.of(4L))).thenReturn(List.of(flour));
+        when(recipeRepository.save(recipe1)).thenReturn(recipe1);
+
+        // Act
+        recipeService.saveRecipe(recipe1, List.of(new RecipeIngredientRequest(4L, new BigDecimal("250"))));
+
+        // Assert
+        assertThat(recipe1.getIngredients()).containsExactly(existingLine);
+        assertThat(existingLine.getQuantity()).isEqualTo(new BigDecimal("250"));
+        verify(entityManager).lock(recipe1, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    @Test
+    void saveRecipe_WithUnchangedIngredients_ShouldNotBumpVersion() {
+        // Arrange
+        Ingredient flour = Ingredient.builder().id(4L).name("Flour").unit("g").build();
+        recipe1.getIngredients().add(RecipeIngredient.builder()
+                .id(11L).recipe(recipe1).ingredient(flour).quantity(new BigDecimal("100")).build());
+        when(ingredientService.getIngredientsByIds(Set.of(4L))).thenReturn(List.of(flour));
+        when(recipeRepository.save(recipe1)).thenReturn(recipe1);
+
+        // Act
+        recipeService.saveRecipe(recipe1, List.of(new RecipeIngredientRequest(4L, new BigDecimal("100.00"))));
+
+        // Assert
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void patchRecipe_ShouldChangeOnlyGivenFieldsOfLoadedRecipe() {
+        // Arrange
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe1));
+
+        // Act
+        Optional<Recipe> patched = recipeService.patchRecipe(1L,
+                new RecipeUpdateRequest(null, null, null, null, null, 2, null));
+
+        // Assert
+        assertThat(patched).containsSame(recipe1);
+        assertThat(recipe1.getServings()).isEqualTo(2);
+        assertThat(recipe1.getTitle()).isEqualTo("Chocolate Cake");
+        verify(recipeRepository, never()).save(any(Recipe.class));
+        verify(eventPublisher, times(1)).publishEvent(new RecipeSavedEvent(recipe1, List.of()));
+    }
+
+    @Test
+    void patchRecipe_WithNonExistingId_ShouldReturnEmpty() {
+        // Arrange
+        when(recipeRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThat(recipeService.patchRecipe(999L, new RecipeUpdateRequest("Soup", null, null, null, null, null, null)))
+                .isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void patchRecipe_WithVersion_ShouldUpdateWithoutLoading() {
+        // Arrange
+        when(recipeRepository.patchIfVersionMatches(1L, 3L, Map.of("servings", 2))).thenReturn(Optional.of(recipe1));
+
+        // Act
+        Optional<Recipe> patched = recipeService.patchRecipe(1L, 3L,
+                new RecipeUpdateRequest(null, null, null, null, null, 2, null));
+
+        // Assert
+        assertThat(patched).containsSame(recipe1);
+        verify(recipeRepository, never()).findById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(RecipeSavedEvent.withUnchangedIngredients(recipe1));
+    }
+
+    @Test
+    void patchRecipe_WithStaleVersion_ShouldThrowConflict() {
+        // Arrange
+        when(recipeRepository.patchIfVersionMatches(eq(1L), eq(3L), any())).thenReturn(Optional.empty());
+        when(recipeRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.patchRecipe(1L, 3L,
+                new RecipeUpdateRequest(null, null, null, null, null, 2, null)))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void patchRecipe_WithVersionAndIngredients_ShouldCheckVersionOfLoadedRecipe() {
+        // Arrange
+        recipe1.setVersion(5L);
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.patchRecipe(1L, 3L, new RecipeUpdateRequest(
+                null, null, null, null, null, null, List.of(new RecipeIngredientRequest(4L, BigDecimal.ONE)))))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(recipeRepository, never()).patchIfVersionMatches(anyLong(), anyLong(), any());
+        verifyNoInteractions(ingredientService);
+    }
+
+    @Test
+    void createRecipes_WithValidBatch_ShouldSaveAllAndReportIds() {
+        // Arrange
+        Ingredient flour = Ingredient.builder().id(4L).name("Flour").unit("g").build();
+        when(ingredientService.findIngredientsByIds(Set.of(4L))).thenReturn(List.of(flour));
+        when(recipeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Recipe> recipes = invocation.getArgument(0);
+            for (int i = 0; i < recipes.size(); i++) {
+                recipes.get(i).setId(100L + i);
+            }
+            return recipes;
+        });
+
+        // Act
+        RecipeBatchResponse response = recipeService.createRecipes(List.of(
+                new RecipeCreateRequest("Bread", null, null, 10, 40, 4,
+                        List.of(new RecipeIngredientRequest(4L, new BigDecimal("500")))),
+                new RecipeCreateRequest("Tea", null, null, null, 5, 1, null)));
+
+        // Assert
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.invalid()).isZero();
+        assertThat(response.items()).containsExactly(
+                new RecipeBatchItemResult(0, 100L, Map.of()),
+                new RecipeBatchItemResult(1, 101L, Map.of()));
+        verify(ingredientService, times(1)).findIngredientsByIds(Set.of(4L));
+        verify(eventPublisher, times(2)).publishEvent(any(RecipeSavedEvent.class));
+    }
+
+    @Test
+    void createRecipes_WithInvalidItems_ShouldSaveNothingAndReportErrorsPerItem() {
+        // Arrange
+        when(ingredientService.findIngredientsByIds(Set.of(4L, 9L)))
+                .thenReturn(List.of(Ingredient.builder().id(4L).name("Flour").unit("g").build()));
+
+        // Act
+        RecipeBatchResponse response = recipeService.createRecipes(List.of(
+                new RecipeCreateRequest("Bread", null, null, null, null, null,
+                        List.of(new RecipeIngredientRequest(4L, BigDecimal.ONE))),
+                new RecipeCreateRequest("", null, null, -1, null, null,
+                        List.of(new RecipeIngredientRequest(9L, BigDecimal.ONE))),
+                new RecipeCreateRequest("Soup", null, null, null, null, null,
+                        List.of(new RecipeIngredientRequest(4L, BigDecimal.ONE),
+                                new RecipeIngredientRequest(4L, BigDecimal.TEN)))));
+
+        // Assert
+        assertThat(response.created()).isZero();
+        assertThat(response.invalid()).isEqualTo(2);
+        assertThat(response.items()).extracting(RecipeBatchItemResult::id).containsOnlyNulls();
+        assertThat(response.items().get(0).errors()).isEmpty();
+        assertThat(response.items().get(1).errors())
+                .containsKeys("title", "preparationTimeMinutes", "ingredients[0].ingredientId");
+        assertThat(response.items().get(2).errors()).containsOnlyKeys("ingredients[1].ingredientId");
+        verify(recipeRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createRecipes_WithTooManyRecipes_ShouldThrowException() {
+        // Arrange
+        List<RecipeCreateRequest> requests = Collections.nCopies(RecipeService.MAX_BATCH_SIZE + 1,
+                new RecipeCreateRequest("Bread", null, null, null, null, null, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.createRecipes(requests))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recipeService.createRecipes(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void saveRecipe_WithDuplicateIngredient_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.saveRecipe(recipe1, List.of(
+                new RecipeIngredientRequest(4L, BigDecimal.ONE),
+                new RecipeIngredientRequest(4L, BigDecimal.TEN))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(ingredientService, recipeRepository);
+    }
+
+    @Test
+    void saveRecipe_WithUnknownIngredient_ShouldPropagateNotFound() {
+        // Arrange
+        when(ingredientService.getIngredientsByIds(Set.of(99L)))
+                .thenThrow(new ResourceNotFoundException("Ingredient", "id", 99L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.saveRecipe(recipe1, List.of(new RecipeIngredientRequest(99L, null))))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(recipeRepository, never()).save(any());
+    }
+
+    @Test
+    void findRecipesForPantry_ShouldAttachTitlesToIndexMatches() {
+        // Arrange
+        when(pantrySearchIndex.search(List.of(4L, 7L), 1, 20)).thenReturn(new PantrySearchIndex.Result(List.of(
+                new PantrySearchIndex.Match(2L, List.of()),
+                new PantrySearchIndex.Match(1L, List.of(9L))), 5));
+        when(recipeRepository.findTitlesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(recipeTitle(1L, "Chocolate Cake"), recipeTitle(2L, "Vanilla Cake")));
+
+        // Act
+        PantrySearchResponse response = recipeService.findRecipesForPantry(List.of(4L, 7L), 1, 20);
+
+        // Assert
+        assertThat(response.totalMatches()).isEqualTo(5);
+        assertThat(response.matches()).containsExactly(
+                new PantryMatch(2L, "Vanilla Cake", 0, List.of()),
+                new PantryMatch(1L, "Chocolate Cake", 1, List.of(9L)));
+    }
+
+    @Test
+    void findRecipesForPantry_WithoutMatches_ShouldSkipDatabase() {
+        // Arrange
+        when(pantrySearchIndex.search(List.of(4L), 0, RecipeService.MAX_PAGE_SIZE))
+                .thenReturn(new PantrySearchIndex.Result(List.of(), 0));
+
+        // Act
+        PantrySearchResponse response = recipeService.findRecipesForPantry(List.of(4L), 0, 1_000);
+
+        // Assert
+        assertThat(response.matches()).isEmpty();
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void findRecipesForPantry_WithInvalidArguments_ShouldThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.findRecipesForPantry(List.of(), 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recipeService.findRecipesForPantry(
+                List.of(4L), RecipeService.MAX_MISSING_INGREDIENTS + 1, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(pantrySearchIndex);
     }
 
     @Test
-    void deleteRecipe_ShouldCallRepositoryDeleteById() {
+    void onIngredientSaved_ShouldBumpRecipesUsingIngredient() {
         // Arrange
-        doNothing().when(recipeRepository).deleteById(anyLong());
+        Ingredient flour = Ingredient.builder().id(4L).name("Flour").unit("g").build();
+
+        when(recipeRepository.touchRecipesUsingIngredient(eq(4L), any(LocalDateTime.class))).thenReturn(List.of(1L, 2L));
+
+        // Act
+        recipeService.onIngredientSaved(new IngredientSavedEvent(flour));
+
+        // Assert
+        verify(recipeRepository, times(1)).touchRecipesUsingIngredient(eq(4L), any(LocalDateTime.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                event instanceof RecipesTouchedEvent touched && touched.recipeIds().equals(List.of(1L, 2L))));
+    }
+
+    @Test
+    void deleteRecipe_WithExistingId_ShouldDeleteWithSingleStatement() {
+        // Arrange
+        when(recipeRepository.deleteRecipeById(1L)).thenReturn(1);
 
         // Act
-        recipeService.deleteRecipe(1L);
+        boolean deleted = recipeService.deleteRecipe(1L);
 
         // Assert
-        verify(recipeRepository, times(1)).deleteById(1L);
+        assertThat(deleted).isTrue();
+        verify(recipeRepository, never()).findById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(new RecipeDeletedEvent(List.of(1L)));
+    }
+
+    @Test
+    void deleteRecipe_WithNonExistingId_ShouldReturnFalse() {
+        // Arrange
+        when(recipeRepository.deleteRecipeById(999L)).thenReturn(0);
+
+        // Act & Assert
+        assertThat(recipeService.deleteRecipe(999L)).isFalse();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteRecipes_ShouldReturnSortedDeletedIdsAndPublishThem() {
+        // Arrange
+        when(recipeRepository.deleteByIdInReturningIds(List.of(3L, 1L, 2L))).thenReturn(List.of(3L, 1L));
+
+        // Act
+        List<Long> deletedIds = recipeService.deleteRecipes(List.of(3L, 1L, 2L));
+
+        // Assert
+        assertThat(deletedIds).containsExactly(1L, 3L);
+        verify(eventPublisher, times(1)).publishEvent(new RecipeDeletedEvent(List.of(1L, 3L)));
+    }
+
+    @Test
+    void deleteRecipes_WithTooManyIds_ShouldThrowException() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, RecipeService.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        // Act & Assert
+        assertThatThrownBy(() -> recipeService.deleteRecipes(ids))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    void deleteRecipesCreatedBefore_WithNothingToDelete_ShouldNotPublishEvent() {
+        // Arrange
+        LocalDateTime createdBefore = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(recipeRepository.deleteCreatedBeforeReturningIds(createdBefore, RecipeService.MAX_BATCH_SIZE))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertThat(recipeService.deleteRecipesCreatedBefore(createdBefore)).isZero();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteRecipesCreatedBefore_ShouldDeleteInChunksUntilNoneAreLeft() {
+        // Arrange
+        LocalDateTime createdBefore = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(recipeRepository.deleteCreatedBeforeReturningIds(createdBefore, RecipeService.MAX_BATCH_SIZE))
+                .thenReturn(List.of(3L, 1L), List.of(2L), List.of());
+
+        // Act
+        int deleted = recipeService.deleteRecipesCreatedBefore(createdBefore);
+
+        // Assert: one event per chunk
+        assertThat(deleted).isEqualTo(3);
+        verify(eventPublisher).publishEvent(new RecipeDeletedEvent(List.of(1L, 3L)));
+        verify(eventPublisher).publishEvent(new RecipeDeletedEvent(List.of(2L)));
+        verify(recipeRepository, times(3)).deleteCreatedBeforeReturningIds(createdBefore, RecipeService.MAX_BATCH_SIZE);
+    }
+
+    private static RecipeSearchRow searchRow(Long id, String title, double rank, String snippet) {
+        return new RecipeSearchRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Double getRank() {
+                return rank;
+            }
+
+            @Override
+            public String getSnippet() {
+                return snippet;
+            }
+        };
+    }
+
+    private static RecipeTitle recipeTitle(Long id, String title) {
+        return new RecipeTitle() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+
+    private static Map<String, Object> row(Recipe recipe) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", recipe.getId());
+        row.put("title", recipe.getTitle());
+        row.put("createdAt", recipe.getCreatedAt());
+        return row;
     }
-}
\ No newline at end of file
+}
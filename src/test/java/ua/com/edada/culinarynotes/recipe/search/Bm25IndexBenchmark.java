@@ -0,0 +1,92 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link Bm25Index} over a synthetic catalog with a Zipf-like vocabulary.
+ * Sample-time mode reports percentiles, the target is p99 below 5 ms at one million recipes.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ua.com.edada.culinarynotes.recipe.search.Bm25IndexBenchmark}
+ * or from the IDE via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class Bm25IndexBenchmark {
+
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int WORDS_PER_RECIPE = 120;
+
+    @Param({"100000", "1000000"})
+    private int recipes;
+
+    private Bm25Index index;
+    private String[] vocabulary;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = "word" + i;
+        }
+        random = new SplittableRandom(42);
+        index = new Bm25Index();
+        for (int id = 1; id <= recipes; id++) {
+            index.add(Bm25Index.Document.of(id, randomText(6), randomText(WORDS_PER_RECIPE)));
+        }
+    }
+
+    @Benchmark
+    public List<Bm25Index.Hit> searchTwoTerms() {
+        return index.search(List.of(randomWord(), randomWord()), 20);
+    }
+
+    @Benchmark
+    public List<Bm25Index.Hit> searchFourTerms() {
+        return index.search(List.of(randomWord(), randomWord(), randomWord(), randomWord()), 20);
+    }
+
+    private String randomText(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(randomWord()).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Approximates a Zipf distribution: low word numbers are much more frequent
+    private String randomWord() {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return vocabulary[(int) (skewed * (VOCABULARY_SIZE - 1))];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Bm25IndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
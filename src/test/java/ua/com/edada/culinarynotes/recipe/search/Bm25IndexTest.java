@@ -0,0 +1,92 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    private Bm25Index index;
+
+    @BeforeEach
+    void setUp() {
+        index = new Bm25Index();
+        index.add(Bm25Index.Document.of(1L, "Chocolate Cake", "Rich chocolate sponge", "Mix and bake"));
+        index.add(Bm25Index.Document.of(2L, "Vanilla Cake", "Classic vanilla sponge", "Mix and bake slowly"));
+        index.add(Bm25Index.Document.of(3L, "Борщ", "Червоний борщ зі сметаною", "Варити дві години"));
+    }
+
+    @Test
+    void search_ShouldRankDocumentsWithMoreMatchingTermsFirst() {
+        // Act
+        List<Bm25Index.Hit> hits = index.search(List.of("chocolate", "cake"), 10);
+
+        // Assert
+        assertThat(hits).extracting(Bm25Index.Hit::id).containsExactly(1L, 2L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void search_ShouldMatchCyrillicTerms() {
+        // Act
+        List<Bm25Index.Hit> hits = index.search(List.of("борщ"), 10);
+
+        // Assert
+        assertThat(hits).extracting(Bm25Index.Hit::title).containsExactly("Борщ");
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        // Act
+        List<Bm25Index.Hit> hits = index.search(List.of("sponge"), 1);
+
+        // Assert
+        assertThat(hits).hasSize(1);
+    }
+
+    @Test
+    void add_WithExistingId_ShouldReplacePreviousVersion() {
+        // Act
+        index.add(Bm25Index.Document.of(1L, "Dark Chocolate Torte", "", ""));
+
+        // Assert
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search(List.of("cake"), 10)).extracting(Bm25Index.Hit::id).containsExactly(2L);
+        assertThat(index.search(List.of("torte"), 10)).extracting(Bm25Index.Hit::id).containsExactly(1L);
+    }
+
+    @Test
+    void remove_ShouldHideDocumentFromResults() {
+        // Act
+        boolean removed = index.remove(2L);
+
+        // Assert
+        assertThat(removed).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search(List.of("vanilla"), 10)).isEmpty();
+        assertThat(index.remove(2L)).isFalse();
+    }
+
+    @Test
+    void compacted_ShouldDropTombstonesAndKeepLiveDocuments() {
+        // Arrange
+        index.remove(1L);
+        index.add(Bm25Index.Document.of(2L, "Vanilla Cupcakes", "", ""));
+
+        // Act
+        Bm25Index compacted = index.compacted();
+
+        // Assert
+        assertThat(compacted.deletedRatio()).isZero();
+        assertThat(compacted.size()).isEqualTo(index.size());
+        assertThat(compacted.search(List.of("vanilla"), 10)).extracting(Bm25Index.Hit::id).containsExactly(2L);
+        assertThat(compacted.search(List.of("борщ"), 10)).extracting(Bm25Index.Hit::id).containsExactly(3L);
+        assertThat(compacted.search(List.of("chocolate"), 10)).isEmpty();
+        // The source index is left as it was
+        assertThat(index.deletedRatio()).isPositive();
+        assertThat(index.search(List.of("vanilla"), 10)).extracting(Bm25Index.Hit::id).containsExactly(2L);
+    }
+}
@@ -0,0 +1,138 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientBitmapIndexTest {
+
+    private IngredientBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IngredientBitmapIndex();
+        index.put(1, new int[]{10, 20});          // omelette: eggs, milk
+        index.put(2, new int[]{10, 20, 30});      // pancakes: eggs, milk, flour
+        index.put(3, new int[]{30, 40, 50, 60});  // bread: flour, yeast, salt, water
+        index.put(4, new int[]{70});              // tea
+    }
+
+    @Test
+    void match_ShouldReturnFullyCookableRecipes() {
+        // Act
+        IngredientBitmapIndex.Result result = index.match(new int[]{10, 20, 90}, 0, 10);
+
+        // Assert
+        assertThat(result.matches()).containsExactly(new IngredientBitmapIndex.Match(1, 0));
+        assertThat(result.total()).isEqualTo(1);
+    }
+
+    @Test
+    void match_ShouldAllowMissingIngredientsFewestFirst() {
+        // Act
+        IngredientBitmapIndex.Result result = index.match(new int[]{10, 20, 40}, 3, 10);
+
+        // Assert
+        assertThat(result.matches()).containsExactly(
+                new IngredientBitmapIndex.Match(1, 0),
+                new IngredientBitmapIndex.Match(2, 1),
+                new IngredientBitmapIndex.Match(3, 3));
+    }
+
+    @Test
+    void match_ShouldIgnoreRecipesWithoutPantryIngredients() {
+        // Act & Assert
+        assertThat(index.match(new int[]{10}, 5, 10).matches())
+                .extracting(IngredientBitmapIndex.Match::recipeId)
+                .containsExactly(1, 2);
+        assertThat(index.match(new int[]{99}, 5, 10).total()).isZero();
+    }
+
+    @Test
+    void match_ShouldLimitMatchesButCountAll() {
+        // Act
+        IngredientBitmapIndex.Result result = index.match(new int[]{10, 20, 30}, 1, 1);
+
+        // Assert
+        assertThat(result.matches()).containsExactly(new IngredientBitmapIndex.Match(1, 0));
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void put_ShouldReplacePreviousIngredients() {
+        // Act
+        int[] previous = index.put(2, new int[]{10, 70, 10});
+
+        // Assert
+        assertThat(previous).containsExactly(10, 20, 30);
+        assertThat(index.ingredientsOf(2)).containsExactly(10, 70);
+        assertThat(index.match(new int[]{10, 70}, 0, 10).matches())
+                .extracting(IngredientBitmapIndex.Match::recipeId)
+                .containsExactly(2, 4);
+        assertThat(index.match(new int[]{30}, 3, 10).matches())
+                .extracting(IngredientBitmapIndex.Match::recipeId)
+                .containsExactly(3);
+    }
+
+    @Test
+    void remove_ShouldDropRecipe() {
+        // Act
+        int[] previous = index.remove(1);
+
+        // Assert
+        assertThat(previous).containsExactly(10, 20);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.ingredientsOf(1)).isEmpty();
+        assertThat(index.match(new int[]{10, 20}, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void match_ShouldAgreeWithBruteForceCounting() {
+        // Arrange
+        Random random = new Random(42);
+        IngredientBitmapIndex randomIndex = new IngredientBitmapIndex();
+        Map<Integer, int[]> recipes = new HashMap<>();
+        for (int recipeId = 1; recipeId <= 2_000; recipeId++) {
+            int[] ingredients = random.ints(1 + random.nextInt(20), 0, 60).distinct().toArray();
+            recipes.put(recipeId, ingredients);
+            randomIndex.put(recipeId, ingredients);
+        }
+        for (int recipeId = 1; recipeId <= 2_000; recipeId += 7) {
+            randomIndex.remove(recipeId);
+            recipes.remove(recipeId);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            int[] pantry = random.ints(1 + random.nextInt(30), 0, 60).distinct().toArray();
+            int maxMissing = random.nextInt(4);
+
+            // Act
+            IngredientBitmapIndex.Result result = randomIndex.match(pantry, maxMissing, Integer.MAX_VALUE);
+
+            // Assert
+            List<IngredientBitmapIndex.Match> expected = new ArrayList<>();
+            recipes.forEach((recipeId, ingredients) -> {
+                long available = Arrays.stream(ingredients)
+                        .filter(ingredient -> Arrays.stream(pantry).anyMatch(p -> p == ingredient))
+                        .count();
+                int missing = (int) (ingredients.length - available);
+                if (available > 0 && missing <= maxMissing) {
+                    expected.add(new IngredientBitmapIndex.Match(recipeId, missing));
+                }
+            });
+            expected.sort(Comparator.comparingInt(IngredientBitmapIndex.Match::missingCount)
+                    .thenComparingInt(IngredientBitmapIndex.Match::recipeId));
+            assertThat(result.matches()).containsExactlyElementsOf(expected);
+            assertThat(result.total()).isEqualTo(expected.size());
+        }
+    }
+}
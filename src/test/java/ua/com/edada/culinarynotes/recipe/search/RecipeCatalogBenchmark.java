@@ -0,0 +1,76 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link RecipeCatalog} over a synthetic catalog with uniformly distributed
+ * times, servings and timestamps. Sample-time mode reports percentiles.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ua.com.edada.culinarynotes.recipe.search.RecipeCatalogBenchmark}
+ * or from the IDE via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class RecipeCatalogBenchmark {
+
+    private static final long YEAR_MICROS = 365L * 24 * 3600 * 1_000_000;
+
+    @Param({"100000", "1000000"})
+    private int recipes;
+
+    private RecipeCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void buildCatalog() {
+        SplittableRandom random = new SplittableRandom(42);
+        catalog = new RecipeCatalog();
+        for (int id = 1; id <= recipes; id++) {
+            long createdAt = random.nextLong(YEAR_MICROS);
+            catalog.put(id, random.nextInt(60), random.nextInt(180), 1 + random.nextInt(12),
+                    createdAt, createdAt + random.nextLong(YEAR_MICROS));
+        }
+    }
+
+    // "Total time at most 30 minutes, at least 4 servings, quickest first"
+    @Benchmark
+    public RecipeCatalog.Result quickDinnersByTotalTime() {
+        return catalog.query(new RecipeCatalog.Filter(null, null, RecipeCatalog.Range.of(null, 30L),
+                RecipeCatalog.Range.of(4L, null), null, null), RecipeCatalog.SortKey.TOTAL_TIME, false, 0, 20);
+    }
+
+    // Half of the catalog matches, so the top-K does most of the work
+    @Benchmark
+    public RecipeCatalog.Result newestWithShortPreparation() {
+        return catalog.query(new RecipeCatalog.Filter(RecipeCatalog.Range.of(null, 30L), null, null, null, null, null),
+                RecipeCatalog.SortKey.CREATED_AT, true, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecipeCatalogBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,122 @@
+package ua.com.edada.culinarynotes.recipe.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeCatalogTest {
+
+    private RecipeCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RecipeCatalog();
+        catalog.put(1, 10, 20, 4, 100, 1_000);                           // total 30
+        catalog.put(2, 5, 10, 2, 200, 900);                              // total 15
+        catalog.put(3, 15, 45, 6, 300, 800);                             // total 60
+        catalog.put(4, RecipeCatalog.MISSING, 15, RecipeCatalog.MISSING, 400, 700); // total 15
+    }
+
+    @Test
+    void query_ShouldFilterAndSortByTotalTimeThenId() {
+        // Arrange
+        RecipeCatalog.Filter filter = new RecipeCatalog.Filter(null, null, RecipeCatalog.Range.of(null, 30L),
+                null, null, null);
+
+        // Act
+        RecipeCatalog.Result ascending = catalog.query(filter, RecipeCatalog.SortKey.TOTAL_TIME, false, 0, 10);
+        RecipeCatalog.Result descending = catalog.query(filter, RecipeCatalog.SortKey.TOTAL_TIME, true, 0, 10);
+
+        // Assert
+        assertThat(ascending.ids()).containsExactly(2, 4, 1);
+        assertThat(descending.ids()).containsExactly(1, 4, 2);
+        assertThat(ascending.total()).isEqualTo(3);
+    }
+
+    @Test
+    void query_WithRangeOnMissingValue_ShouldNotMatch() {
+        // Arrange
+        RecipeCatalog.Filter filter = new RecipeCatalog.Filter(RecipeCatalog.Range.of(null, 100L), null, null,
+                RecipeCatalog.Range.of(null, 10L), null, null);
+
+        // Act
+        RecipeCatalog.Result result = catalog.query(filter, RecipeCatalog.SortKey.CREATED_AT, false, 0, 10);
+
+        // Assert
+        assertThat(result.ids()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void query_ShouldReturnRequestedPageAndTotal() {
+        // Act
+        RecipeCatalog.Result result = catalog.query(RecipeCatalog.Filter.ALL, RecipeCatalog.SortKey.UPDATED_AT, false, 1, 2);
+
+        // Assert
+        assertThat(result.ids()).containsExactly(3, 2);
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(catalog.query(RecipeCatalog.Filter.ALL, RecipeCatalog.SortKey.UPDATED_AT, false, 10, 2).ids()).isEmpty();
+    }
+
+    @Test
+    void removeAndTouch_ShouldUpdateCatalog() {
+        // Act
+        boolean removed = catalog.remove(1);
+        catalog.touch(3, 2_000);
+        catalog.touch(99, 2_000);
+        catalog.put(2, 5, 10, 8, 200, 900);
+
+        // Assert
+        assertThat(removed).isTrue();
+        assertThat(catalog.remove(1)).isFalse();
+        assertThat(catalog.size()).isEqualTo(3);
+        assertThat(catalog.query(RecipeCatalog.Filter.ALL, RecipeCatalog.SortKey.UPDATED_AT, true, 0, 10).ids())
+                .containsExactly(3, 2, 4);
+        assertThat(catalog.query(new RecipeCatalog.Filter(null, null, null, RecipeCatalog.Range.of(8L, null), null, null),
+                RecipeCatalog.SortKey.TOTAL_TIME, false, 0, 10).ids()).containsExactly(2);
+    }
+
+    @Test
+    void query_OverLargeCatalog_ShouldMatchBruteForce() {
+        // Arrange: large enough to be scanned in parallel blocks
+        Random random = new Random(7);
+        catalog = new RecipeCatalog();
+        List<long[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 200_000; id++) {
+            int preparation = random.nextInt(10) == 0 ? RecipeCatalog.MISSING : random.nextInt(60);
+            int cooking = random.nextInt(120);
+            int servings = 1 + random.nextInt(12);
+            long createdAt = random.nextInt(1_000_000);
+            catalog.put(id, preparation, cooking, servings, createdAt, createdAt);
+            rows.add(new long[]{id, Math.max(preparation, 0) + cooking, servings, createdAt});
+        }
+        for (int id = 1; id <= 200_000; id += 7) {
+            catalog.remove(id);
+        }
+        rows.removeIf(row -> row[0] % 7 == 1);
+        RecipeCatalog.Filter filter = new RecipeCatalog.Filter(null, null, RecipeCatalog.Range.of(20L, 90L),
+                RecipeCatalog.Range.of(4L, null), RecipeCatalog.Range.of(null, 700_000L), null);
+
+        // Act
+        RecipeCatalog.Result result = catalog.query(filter, RecipeCatalog.SortKey.TOTAL_TIME, true, 40, 25);
+
+        // Assert
+        List<Long> expected = rows.stream()
+                .filter(row -> row[1] >= 20 && row[1] <= 90 && row[2] >= 4 && row[3] <= 700_000)
+                .sorted(Comparator.<long[]>comparingLong(row -> row[1]).thenComparingLong(row -> row[0]).reversed())
+                .map(row -> row[0])
+                .toList();
+        assertThat(result.total()).isEqualTo(expected.size());
+        assertThat(result.ids()).containsExactly(expected.subList(40, 65).stream().mapToLong(Long::longValue).toArray());
+
+        // A page deeper than a block still ranks every match
+        int deep = expected.size() - 10;
+        assertThat(catalog.query(filter, RecipeCatalog.SortKey.TOTAL_TIME, true, deep, 25).ids())
+                .containsExactly(expected.subList(deep, expected.size()).stream().mapToLong(Long::longValue).toArray());
+    }
+}